@@ -0,0 +1,68 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 10ms block through the same mix the BST-Audio thread runs ({@code AudioOutputEngine.mixBlock}):
+ * movement texture plus {@code voices} long-running impulse voices, at 2 or 8 channels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HapticRenderBenchmark {
+    private static final int FRAMES = LatencyController.DEFAULT_CHUNK_FRAMES;
+    // Long enough that no voice ends within an iteration.
+    private static final int VOICE_MS = 600_000;
+    private static final String[] PATTERNS = {"flat", "pulse_loop", "shockwave", "punch"};
+
+    @Param({"2", "8"})
+    public int channels;
+
+    @Param({"0", "8", "24"})
+    public int voices;
+
+    private BstConfig.Data cfg;
+    private AudioOutputEngine engine;
+    private AudioOutputEngine.MixState mix;
+    private byte[] pcm;
+    private long nowNs;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cfg = new BstConfig.Data();
+        cfg.soundScapeEnabled = channels == 8;
+        cfg.soundScapeChannels = channels;
+        cfg.impulseVoiceLimit = Math.max(cfg.impulseVoiceLimit, voices);
+
+        engine = new AudioOutputEngine(cfg, 1234L);
+        mix = new AudioOutputEngine.MixState(FRAMES, 5678L);
+        pcm = new byte[FRAMES * channels * 2];
+        nowNs = 1_000_000_000_000L;
+
+        engine.setOfflineTime(nowNs);
+        engine.updateTelemetry(0.25, 0.0, false, true, false, false);
+        for (int i = 0; i < voices; i++) {
+            // Distinct keys/frequencies so nothing coalesces.
+            engine.triggerImpulse(25.0 + (i * 3.0), VOICE_MS, 0.5, 0.25, PATTERNS[i % PATTERNS.length], 160, 60, i % 10, 0, "bench.voice." + i);
+        }
+        engine.drainOffline(cfg, 0L, channels);
+    }
+
+    @Benchmark
+    public byte[] renderBlock() {
+        // Telemetry stays fresh: the clock does not advance between blocks.
+        engine.mixBlock(cfg, 0L, mix, FRAMES, channels, true, nowNs, pcm);
+        return pcm;
+    }
+}
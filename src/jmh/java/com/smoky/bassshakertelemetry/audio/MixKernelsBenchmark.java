@@ -0,0 +1,85 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs SIMD {@link MixKernels} on one 10ms block: mixing one source into the bus, the limiter/gate stage,
+ * and the int16 conversion. The {@code vector} rows need {@code --add-modules jdk.incubator.vector} (set in
+ * build.gradle) and fail setup without it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MixKernelsBenchmark {
+    private static final int FRAMES = LatencyController.DEFAULT_CHUNK_FRAMES;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    @Param({"2", "8"})
+    public int channels;
+
+    private MixKernels k;
+    private float[] src;
+    private float[] gains;
+    private float[] mix;
+    private double[] pre;
+    private float[] gate;
+    private float[] out;
+    private byte[] pcm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        k = "vector".equals(kernels) ? MixKernels.vector() : MixKernels.SCALAR;
+        if (k == null) {
+            throw new IllegalStateException("jdk.incubator.vector is not available");
+        }
+        SplittableRandom rnd = new SplittableRandom(42L);
+        src = new float[FRAMES];
+        gate = new float[FRAMES];
+        for (int i = 0; i < FRAMES; i++) {
+            src[i] = (float) ((rnd.nextDouble() * 2.0) - 1.0);
+            gate[i] = 0.85f;
+        }
+        gains = new float[HapticRenderer.MAX_CHANNELS];
+        for (int c = 0; c < gains.length; c++) {
+            gains[c] = (c == 3) ? 0.0f : (float) rnd.nextDouble();
+        }
+        mix = new float[FRAMES * channels];
+        pre = new double[FRAMES * channels];
+        for (int i = 0; i < pre.length; i++) {
+            pre[i] = (rnd.nextDouble() * 3.0) - 1.5;
+        }
+        out = new float[FRAMES * channels];
+        pcm = new byte[FRAMES * channels * 2];
+    }
+
+    @Benchmark
+    public float[] mixChannels() {
+        k.mixChannels(src, mix, gains, 0, FRAMES, channels);
+        return mix;
+    }
+
+    @Benchmark
+    public float[] limit() {
+        k.limit(pre, gate, out, FRAMES, channels, 2.5, 1.0 / Math.tanh(2.5));
+        return out;
+    }
+
+    @Benchmark
+    public byte[] toPcm16() {
+        k.toPcm16(out, pcm, FRAMES * channels);
+        return pcm;
+    }
+}
@@ -0,0 +1,120 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Equivalence check for the SIMD {@link MixKernels}: feeds random 2- and 8-channel blocks through
+ * {@link MixKernels#SCALAR} and {@link MixKernels#vector()} and fails if any int16 output sample differs by more
+ * than 1 LSB. Block lengths and offsets are random too, so the scalar tails are covered.
+ *
+ * <p>Run with {@code ./gradlew checkMixKernels} (also part of {@code check}); needs
+ * {@code --add-modules jdk.incubator.vector}, which the task sets.
+ */
+public final class MixKernelsCheck {
+    private static final int BLOCKS = 2000;
+    private static final int MAX_FRAMES = 2 * LatencyController.DEFAULT_CHUNK_FRAMES;
+    private static final int MAX_LSB = 1;
+
+    private MixKernelsCheck() {
+    }
+
+    public static void main(String[] args) {
+        MixKernels vector = MixKernels.vector();
+        if (vector == null) {
+            System.err.println("MixKernelsCheck: jdk.incubator.vector is not available (run with --add-modules jdk.incubator.vector)");
+            System.exit(2);
+            return;
+        }
+        boolean ok = true;
+        for (int channels : new int[]{2, 8}) {
+            ok &= check(vector, channels, new SplittableRandom(0x5EED0000L + channels));
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean check(MixKernels vector, int channels, SplittableRandom rnd) {
+        MixKernels scalar = MixKernels.SCALAR;
+        int maxSamples = MAX_FRAMES * channels;
+        float[] src = new float[MAX_FRAMES];
+        float[] gains = new float[HapticRenderer.MAX_CHANNELS];
+        float[] mixA = new float[maxSamples];
+        float[] mixB = new float[maxSamples];
+        double[] pre = new double[maxSamples];
+        float[] gate = new float[MAX_FRAMES];
+        float[] outA = new float[maxSamples];
+        float[] outB = new float[maxSamples];
+        byte[] pcmA = new byte[maxSamples * 2];
+        byte[] pcmB = new byte[maxSamples * 2];
+
+        int mixDiff = 0;
+        int limitDiff = 0;
+        int pcmDiff = 0;
+        for (int b = 0; b < BLOCKS; b++) {
+            int frames = 1 + rnd.nextInt(MAX_FRAMES);
+            int samples = frames * channels;
+
+            // Mix one source into a partly filled bus; the sum stays within -1..1.
+            int start = rnd.nextInt(frames);
+            int count = rnd.nextInt(frames - start + 1);
+            for (int i = 0; i < frames; i++) {
+                src[i] = (float) (rnd.nextDouble() - 0.5);
+            }
+            for (int c = 0; c < gains.length; c++) {
+                gains[c] = (rnd.nextInt(4) == 0) ? 0.0f : (float) rnd.nextDouble();
+            }
+            for (int k = 0; k < samples; k++) {
+                mixA[k] = (float) (rnd.nextDouble() - 0.5);
+            }
+            System.arraycopy(mixA, 0, mixB, 0, samples);
+            scalar.mixChannels(src, mixA, gains, start, count, channels);
+            vector.mixChannels(src, mixB, gains, start, count, channels);
+            mixDiff = Math.max(mixDiff, maxLsbDiff(mixA, mixB, samples));
+
+            // Limiter input past the knee and beyond clipping, with a varying gate.
+            double drive = 0.5 + (rnd.nextDouble() * 3.0);
+            for (int k = 0; k < samples; k++) {
+                pre[k] = (rnd.nextDouble() * 4.0) - 2.0;
+            }
+            for (int i = 0; i < frames; i++) {
+                gate[i] = (rnd.nextInt(8) == 0) ? 0.0f : (float) rnd.nextDouble();
+            }
+            scalar.limit(pre, gate, outA, frames, channels, drive, 1.0 / Math.tanh(drive));
+            vector.limit(pre, gate, outB, frames, channels, drive, 1.0 / Math.tanh(drive));
+            limitDiff = Math.max(limitDiff, maxLsbDiff(outA, outB, samples));
+
+            // Same input for both conversions.
+            Arrays.fill(pcmA, 0, samples * 2, (byte) 0);
+            Arrays.fill(pcmB, 0, samples * 2, (byte) 0);
+            scalar.toPcm16(outA, pcmA, samples);
+            vector.toPcm16(outA, pcmB, samples);
+            pcmDiff = Math.max(pcmDiff, maxPcmDiff(pcmA, pcmB, samples));
+        }
+
+        boolean ok = mixDiff <= MAX_LSB && limitDiff <= MAX_LSB && pcmDiff <= MAX_LSB;
+        System.out.printf(java.util.Locale.ROOT, "%s %dch: %d blocks, max diff mixChannels=%d limit=%d toPcm16=%d LSB -> %s%n",
+                vector.name(), channels, BLOCKS, mixDiff, limitDiff, pcmDiff, ok ? "OK" : "FAIL");
+        return ok;
+    }
+
+    // Difference after the int16 conversion the renderer applies to its output.
+    private static int maxLsbDiff(float[] a, float[] b, int samples) {
+        int max = 0;
+        for (int k = 0; k < samples; k++) {
+            max = Math.max(max, Math.abs((int) (a[k] * 32767) - (int) (b[k] * 32767)));
+        }
+        return max;
+    }
+
+    private static int maxPcmDiff(byte[] a, byte[] b, int samples) {
+        int max = 0;
+        for (int k = 0, i = 0; k < samples; k++, i += 2) {
+            short sa = (short) ((a[i] & 0xFF) | (a[i + 1] << 8));
+            short sb = (short) ((b[i] & 0xFF) | (b[i + 1] << 8));
+            max = Math.max(max, Math.abs(sa - sb));
+        }
+        return max;
+    }
+}
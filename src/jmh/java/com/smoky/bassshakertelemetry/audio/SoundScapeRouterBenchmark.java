@@ -0,0 +1,77 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Router compile cost (once per config revision) and per-voice mask lookups (once per voice start).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SoundScapeRouterBenchmark {
+    private static final String[] KEYS = {
+            "damage.generic", "world.block_break", "combat.hit", "mount.hoof", "flight.wind",
+            "boss.warden_heartbeat", "cal.ch.FL.tone", "ui.click", "explosion.generic", "modded.custom"
+    };
+
+    private BstConfig.Data cfg;
+    private SoundScapeRouter router;
+    private HapticBus[] buses;
+
+    @Setup
+    public void setUp() {
+        cfg = new BstConfig.Data();
+        cfg.soundScapeEnabled = true;
+        cfg.soundScapeChannels = 8;
+        // A realistic routing table: a few groups, every category/bus routed, a handful of overrides.
+        cfg.soundScapeGroups.put("All", List.of("FL", "FR", "C", "LFE", "SL", "SR", "BL", "BR"));
+        cfg.soundScapeGroups.put("Front", List.of("FL", "FR"));
+        cfg.soundScapeGroups.put("Rear", List.of("BL", "BR"));
+        cfg.soundScapeGroups.put("Seat", List.of("LFE", "C"));
+        for (String cat : List.of(
+                BstConfig.SoundScapeCategories.ROAD,
+                BstConfig.SoundScapeCategories.BIOME_CHIME,
+                BstConfig.SoundScapeCategories.ACCEL_BUMP,
+                BstConfig.SoundScapeCategories.SOUND,
+                BstConfig.SoundScapeCategories.GAMEPLAY,
+                BstConfig.SoundScapeCategories.FOOTSTEPS,
+                BstConfig.SoundScapeCategories.MOUNTED,
+                BstConfig.SoundScapeCategories.MINING_SWING,
+                BstConfig.SoundScapeCategories.CUSTOM)) {
+            cfg.soundScapeCategoryRouting.put(cat, "grp:All");
+        }
+        cfg.soundScapeCategoryRouting.put(BstConfig.SoundScapeCategories.DAMAGE, "grp:Seat");
+        for (HapticBus bus : HapticBus.values()) {
+            cfg.soundScapeBusRouting.put(bus.name().toLowerCase(Locale.ROOT), "grp:All");
+        }
+        cfg.soundScapeOverrides.put("mount.hoof", "grp:Rear");
+        cfg.soundScapeOverrides.put("flight.wind", "grp:Front");
+        cfg.soundScapeOverrides.put("boss.warden_heartbeat", "grp:Seat");
+        router = new SoundScapeRouter(cfg, 8, 1L);
+        buses = HapticBus.values();
+    }
+
+    @Benchmark
+    public SoundScapeRouter construct() {
+        return new SoundScapeRouter(cfg, 8, 1L);
+    }
+
+    @Benchmark
+    public void maskForVoice(Blackhole bh) {
+        for (int i = 0; i < KEYS.length; i++) {
+            bh.consume(router.maskForVoice(KEYS[i], buses[i % buses.length], 0));
+        }
+    }
+}
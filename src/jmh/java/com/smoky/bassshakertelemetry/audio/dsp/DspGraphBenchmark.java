@@ -0,0 +1,67 @@
+package com.smoky.bassshakertelemetry.audio.dsp;
+
+import com.smoky.bassshakertelemetry.config.BstHapticInstruments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-sample {@link DspGraphInstance#out} vs block {@link DspGraphInstance#process} cost for each built-in
+ * instrument, measured over a 10ms block (scores are per sample).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DspGraphBenchmark {
+    private static final int BLOCK = 480;
+    private static final int TOTAL_SAMPLES = 48_000;
+
+    // Default instruments shipped in BstHapticInstruments.
+    @Param({"impact_heavy", "rumble_low", "heartbeat_warden", "wind_elytra", "magic_pulse"})
+    public String instrument;
+
+    private DspGraphInstance graph;
+    private DspContext ctx;
+    private final double[] block = new double[BLOCK];
+
+    @Setup
+    public void setUp() {
+        BstHapticInstruments.Instrument inst = BstHapticInstruments.get().get(instrument);
+        if (inst == null || inst.graph == null) {
+            throw new IllegalStateException("Missing default instrument: " + instrument);
+        }
+        graph = inst.graph.instantiate(new DspNodeFactory());
+        ctx = new DspContext(42L, 35.0, 55.0, TOTAL_SAMPLES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public double outBlock() {
+        double acc = 0.0;
+        int start = ctx.sampleIndex;
+        for (int i = 0; i < BLOCK; i++) {
+            // Loop over the voice length so envelopes/sweeps see every phase.
+            ctx.sampleIndex = (start + i) % TOTAL_SAMPLES;
+            acc += graph.out(ctx);
+        }
+        ctx.sampleIndex = (start + BLOCK) % TOTAL_SAMPLES;
+        return acc;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public double[] processBlock() {
+        int start = ctx.sampleIndex;
+        graph.process(ctx, block, 0, BLOCK);
+        ctx.sampleIndex = (start + BLOCK) % TOTAL_SAMPLES;
+        return block;
+    }
+}
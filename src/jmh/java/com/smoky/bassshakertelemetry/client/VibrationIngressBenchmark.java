@@ -0,0 +1,46 @@
+package com.smoky.bassshakertelemetry.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VibrationIngress#shouldSuppressSoundBucket} against a full (25-entry) suppression list.
+ *
+ * <p>{@code miss} scans every entry; {@code hit} matches only the oldest entry (worst-case hit).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VibrationIngressBenchmark {
+    private static final int FULL = 25;
+    // Windows long enough that nothing expires during the run.
+    private static final int WINDOW_MS = 3_600_000;
+
+    @Param({"miss", "hit"})
+    public String scenario;
+
+    private String bucket;
+
+    @Setup
+    public void setUp() {
+        long now = System.nanoTime();
+        VibrationIngress.addSuppression("explosion", 5, now, WINDOW_MS, 0.0, 64.0, 0.0, 18.0);
+        for (int i = 1; i < FULL; i++) {
+            VibrationIngress.addSuppression("block_break", 5, now, WINDOW_MS, i * 10.0, 64.0, 0.0, 6.0);
+        }
+        bucket = "hit".equals(scenario) ? "explosion" : "door";
+    }
+
+    @Benchmark
+    public boolean shouldSuppress() {
+        return VibrationIngress.shouldSuppressSoundBucket(bucket, 1.0, 64.0, 1.0, 3);
+    }
+}
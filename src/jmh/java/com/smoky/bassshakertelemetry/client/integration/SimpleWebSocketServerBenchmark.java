@@ -0,0 +1,37 @@
+package com.smoky.bassshakertelemetry.client.integration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket text frame encoding for the three length encodings (7-bit, 16-bit, 64-bit).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SimpleWebSocketServerBenchmark {
+    @Param({"100", "300", "70000"})
+    public int payloadBytes;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = new byte[payloadBytes];
+        Arrays.fill(payload, (byte) 'x');
+    }
+
+    @Benchmark
+    public byte[] encodeTextFrame() {
+        return SimpleWebSocketServer.encodeTextFrame(payload);
+    }
+}
@@ -0,0 +1,57 @@
+package com.smoky.bassshakertelemetry.telemetryout;
+
+import com.smoky.bassshakertelemetry.api.HapticEventType;
+import com.smoky.bassshakertelemetry.api.HapticPosition;
+import com.smoky.bassshakertelemetry.api.HapticUnifiedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding cost of the WebSocket telemetry packets (sink consumes the string, no I/O).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelemetryOutBenchmark {
+    private HapticUnifiedEvent event;
+    private String last;
+
+    @Setup
+    public void setUp() {
+        TelemetryOut.setSink(m -> last = m);
+        event = new HapticUnifiedEvent(
+                "minecraft:explosion",
+                HapticEventType.IMPACT,
+                "world",
+                new HapticPosition(12.5, 64.0, -3.25),
+                0.85,
+                "impact_heavy",
+                Map.of("radius", "4.0", "cause", "tnt"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        TelemetryOut.setSink(null);
+    }
+
+    @Benchmark
+    public String emitHaptic() {
+        TelemetryOut.emitHaptic("damage.generic", 42.0, 38.0, 120, 0.8, 0.25, "punch", 160, 60, 8, 0);
+        return last;
+    }
+
+    @Benchmark
+    public String emitEvent() {
+        TelemetryOut.emitEvent(event);
+        return last;
+    }
+}
@@ -5,7 +5,6 @@ import com.smoky.bassshakertelemetry.audio.backend.BackendSelector;
 import com.smoky.bassshakertelemetry.audio.backend.HapticAudioBackend;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
-import com.smoky.bassshakertelemetry.audio.dsp.DspNodeFactory;
 import com.smoky.bassshakertelemetry.config.BstConfig;
 import com.smoky.bassshakertelemetry.config.BstHapticInstruments;
 import com.smoky.bassshakertelemetry.telemetryout.HapticEventContext;
@@ -14,15 +13,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.sound.sampled.*;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 public final class AudioOutputEngine {
     private static final AudioOutputEngine INSTANCE = new AudioOutputEngine();
@@ -33,16 +30,15 @@ public final class AudioOutputEngine {
      * Non-optional: mono means only one dominant vibration at a time.
      * Lower-priority sources get ducked.
      */
-    private static final double DUCK_FACTOR = 0.30;
+    static final double DUCK_FACTOR = 0.30;
 
-    private static final DspNodeFactory DSP_FACTORY = new DspNodeFactory();
 
     // Stereo spatial feel tuning.
     // <1 widens (more L/R at mid angles), >1 narrows.
     private static final double STEREO_SPATIAL_PAN_GAMMA = 0.75;
 
         // 48kHz PCM output.
-    private static final float SAMPLE_RATE = 48_000f;
+    static final float SAMPLE_RATE = 48_000f;
     private static final int BYTES_PER_SAMPLE = 2; // 16-bit
 
         private static final AudioFormat FORMAT_STEREO = new AudioFormat(
@@ -71,14 +67,16 @@ public final class AudioOutputEngine {
     // Last successfully opened output channel count (2 or 8). Used for UI/status.
     private volatile int activeOutputChannels = 2;
 
-    // Live telemetry inputs (client thread updates)
-    private volatile double speed;
+    // 1s without telemetry => fade out.
+    private static final long TELEMETRY_STALE_NS = 1_000_000_000L;
+
+    // Live telemetry inputs (client thread updates; render thread reads them through the seqlock).
+    private final TelemetryState telemetry = new TelemetryState();
+    // A render-frame sample within this window means frame-rate publishing is active; ticks then only update flags.
+    private static final long FRAME_SAMPLE_ACTIVE_NS = 100_000_000L;
+    private volatile long lastFrameSampleNanos;
 
     private volatile boolean telemetryLive;
-    private volatile boolean telemetryElytra;
-    private volatile boolean telemetryOnGround;
-    private volatile boolean telemetryInWater;
-    private volatile boolean telemetrySwimming;
     private volatile long lastTelemetryNanos;
 
     // Event triggers
@@ -92,9 +90,46 @@ public final class AudioOutputEngine {
     private final AtomicInteger accelBumpTotalSamples = new AtomicInteger(1);
     private volatile long lastAccelBumpNanos;
 
-    // Generic impulses (used by sound-to-haptics / gameplay one-shots)
-    private final Object impulseLock = new Object();
-    private final ArrayList<ImpulseVoice> impulses = new ArrayList<>();
+    // Generic impulses (used by sound-to-haptics / gameplay one-shots).
+    // Trigger threads only enqueue commands; the voice list is owned exclusively by the BST-Audio thread.
+    private static final int VOICE_COMMAND_CAPACITY = 256;
+    private final VoiceCommandQueue voiceCommands = new VoiceCommandQueue(VOICE_COMMAND_CAPACITY);
+    // Renderings of deterministic instrument graphs (filled by the render thread, read by triggers).
+    private final PcmClipCache clipCache = new PcmClipCache();
+    private final ImpulseVoicePool impulses;
+    // Frames mixed so far (render thread): the sample index of the next block. Delayed voices wait in the
+    // pool's timing wheel until the block that contains this + their delay.
+    private long sampleClock;
+
+    // Offline instances (OfflineRenderer): fixed config snapshot and a timeline clock instead of
+    // BstConfig.get()/System.nanoTime(); no device, websocket or debug-overlay side effects.
+    private final BstConfig.Data offlineConfig;
+    private long offlineNowNs;
+
+    // Rendered PCM is queued here and written to the device by a separate thread (set while running).
+    private static final int PCM_RING_SLOTS = 16;
+    private volatile PcmBlockRing pcmRing;
+    private volatile PcmDeviceWriter pcmWriter;
+    // Chunk size / render-ahead / device queue target (adaptive unless adaptiveLatencyEnabled=false).
+    private final LatencyController latency = new LatencyController();
+    // nanoTime -> audible output sample, fed by the writer thread. Triggers are placed at stamp + latency.
+    private final SampleClock outputClock = new SampleClock();
+    // Auto trigger latency falls back this many samples per drain (~100-200/s) once the pipeline shrinks.
+    private static final long TRIGGER_LATENCY_RELEASE_SAMPLES = 1L;
+    // Same-key events starting this close together are merged into one voice.
+    private static final long COALESCE_START_SAMPLES = (long) (SAMPLE_RATE * 0.001);
+    private long autoTriggerLatencySamples;
+    private long triggerLatencySamples;
+    private volatile double triggerLatencyMs;
+
+    // Render-thread timing (recorded per block, summarized about once per second).
+    private static final long ENGINE_STATS_WINDOW_NS = 1_000_000_000L;
+    private final TimingHistogram renderTimes = new TimingHistogram();
+    private final TimingHistogram jitterTimes = new TimingHistogram();
+    private volatile EngineStats engineStats = EngineStats.EMPTY;
+
+    // Sound Scape routing compiled for the current config revision + channel count (rebuilt only on change).
+    private final AtomicReference<SoundScapeRouter> routerSnapshot = new AtomicReference<>();
 
     // Debug-only: last computed dominant source (updated on dominance changes).
     private volatile String debugDominantLabel = "none";
@@ -110,62 +145,37 @@ public final class AudioOutputEngine {
     private double pendingDominantGain01;
     private long pendingDominantSinceNs;
 
-    // Damage burst noise filter state
-    private volatile double damageNoiseState;
-
-    // Movement texture filter states (continuous)
-    private volatile double roadNoiseState;
-    private volatile double flightNoiseState;
-    private volatile double swimNoiseState;
-
     // --- Phase 3: Real-time debugger taps (capture is opt-in for performance) ---
 
-    private static final int DEBUG_WAVE_SAMPLES = 256;
-    private static final int DEBUG_SPECT_FFT_SIZE = 4096;
-    private static final int DEBUG_SPECT_BINS = 16;
-    private static final int DEBUG_SPECT_COLS = 64;
-
-    private static final AtomicBoolean DEBUG_CAPTURE_ENABLED = new AtomicBoolean(false);
-    private static final AtomicReference<DebugSnapshot> DEBUG_SNAPSHOT = new AtomicReference<>(null);
+    // Levels / waveform / spectrogram are computed on a low-priority thread from blocks the audio thread hands off.
+    private static final DebugAnalyzer DEBUG_ANALYZER = new DebugAnalyzer(LatencyController.MAX_CHUNK_FRAMES);
 
-    private static final Object DEBUG_EVENT_LOCK = new Object();
+    // Trigger history for the debugger; only recorded while a screen has subscribed.
     private static final int DEBUG_EVENT_CAPACITY = 64;
-    private static final DebugEvent[] DEBUG_EVENTS = new DebugEvent[DEBUG_EVENT_CAPACITY];
-    private static int debugEventWriteIndex;
+    private static final DebugEventRing DEBUG_EVENTS = new DebugEventRing(DEBUG_EVENT_CAPACITY);
+    private static volatile boolean debugEventsEnabled;
 
     public static void setDebugCaptureEnabled(boolean enabled) {
-        DEBUG_CAPTURE_ENABLED.set(enabled);
+        DEBUG_ANALYZER.setEnabled(enabled);
     }
 
+    /**
+     * Latest analyzed debug snapshot, or null before the first one. Snapshots are recycled: the returned
+     * instance is only valid until the next call, so read what you need within one frame.
+     */
     public static DebugSnapshot getDebugSnapshot() {
-        return DEBUG_SNAPSHOT.get();
+        return DEBUG_ANALYZER.latest();
+    }
+
+    /**
+     * Subscribes/unsubscribes the trigger history. While nobody is subscribed, triggers skip recording.
+     */
+    public static void setDebugEventCaptureEnabled(boolean enabled) {
+        debugEventsEnabled = enabled;
     }
 
     public static DebugEvent[] getRecentDebugEvents(int maxCount) {
-        int n = Math.max(0, Math.min(DEBUG_EVENT_CAPACITY, Math.max(0, maxCount)));
-        if (n == 0) {
-            return new DebugEvent[0];
-        }
-        DebugEvent[] out = new DebugEvent[n];
-        synchronized (DEBUG_EVENT_LOCK) {
-            int w = debugEventWriteIndex;
-            int copied = 0;
-            for (int i = 0; i < DEBUG_EVENT_CAPACITY && copied < n; i++) {
-                int idx = (w - 1 - i);
-                while (idx < 0) {
-                    idx += DEBUG_EVENT_CAPACITY;
-                }
-                DebugEvent ev = DEBUG_EVENTS[idx];
-                if (ev == null) {
-                    continue;
-                }
-                out[copied++] = ev;
-            }
-            if (copied < n) {
-                return Arrays.copyOf(out, copied);
-            }
-        }
-        return out;
+        return DEBUG_EVENTS.recent(maxCount);
     }
 
     private static void recordDebugEvent(String debugKey,
@@ -179,7 +189,7 @@ public final class AudioOutputEngine {
                                          int forcedMask,
                                          double azimuthDeg,
                                          double distanceM) {
-        DebugEvent ev = new DebugEvent(
+        DEBUG_EVENTS.record(
                 System.nanoTime(),
                 (debugKey == null) ? "" : debugKey,
                 (bus == null) ? HapticBus.MODDED : bus,
@@ -193,17 +203,17 @@ public final class AudioOutputEngine {
                 azimuthDeg,
                 distanceM
         );
-        synchronized (DEBUG_EVENT_LOCK) {
-            DEBUG_EVENTS[debugEventWriteIndex] = ev;
-            debugEventWriteIndex = (debugEventWriteIndex + 1) % DEBUG_EVENT_CAPACITY;
-        }
     }
 
+    /**
+     * Debugger view of the output. Instances are filled by the analyzer thread and recycled through a triple
+     * buffer; treat the fields as read-only.
+     */
     public static final class DebugSnapshot {
-        public final long updatedNanos;
-        public final int channels;
-        public final float[] rms01;
-        public final float[] peak01;
+        public long updatedNanos;
+        public int channels;
+        public float[] rms01 = new float[0];
+        public float[] peak01 = new float[0];
 
         /** Latest mono waveform window, normalized to roughly [-1..1]. */
         public final float[] waveform;
@@ -213,39 +223,60 @@ public final class AudioOutputEngine {
         public final int spectrogramCols;
         public final int spectrogramBins;
         /** Next write column index in the spectrogram ring. */
-        public final int spectrogramWriteCol;
-
-        public final int deviceBufferBytes;
-        public final int deviceAvailableBytes;
-        public final double deviceBufferMs;
-        public final double queuedMs;
-
-        private DebugSnapshot(long updatedNanos,
-                              int channels,
-                              float[] rms01,
-                              float[] peak01,
-                              float[] waveform,
-                              float[] spectrogram,
-                              int spectrogramCols,
-                              int spectrogramBins,
-                              int spectrogramWriteCol,
-                              int deviceBufferBytes,
-                              int deviceAvailableBytes,
-                              double deviceBufferMs,
-                              double queuedMs) {
-            this.updatedNanos = updatedNanos;
-            this.channels = channels;
-            this.rms01 = rms01;
-            this.peak01 = peak01;
-            this.waveform = waveform;
-            this.spectrogram = spectrogram;
+        public int spectrogramWriteCol;
+
+        public int deviceBufferBytes;
+        public int deviceAvailableBytes;
+        public double deviceBufferMs;
+        public double queuedMs;
+
+        DebugSnapshot(int waveSamples, int spectrogramCols, int spectrogramBins) {
+            this.waveform = new float[waveSamples];
+            this.spectrogram = new float[spectrogramCols * spectrogramBins];
             this.spectrogramCols = spectrogramCols;
             this.spectrogramBins = spectrogramBins;
+        }
+
+        void fill(long updatedNanos,
+                  int channels,
+                  double[] sumSq,
+                  double[] peak,
+                  int frames,
+                  float[] waveform,
+                  float[] spectrogram,
+                  int spectrogramWriteCol,
+                  int deviceBufferBytes,
+                  int deviceAvailableBytes,
+                  int frameSize) {
+            this.updatedNanos = updatedNanos;
+            if (rms01.length != channels) {
+                // Only when the device channel count changes.
+                rms01 = new float[channels];
+                peak01 = new float[channels];
+            }
+            this.channels = channels;
+            for (int c = 0; c < channels; c++) {
+                double rms = Math.sqrt(sumSq[c] / Math.max(1, frames));
+                rms01[c] = (float) clamp(rms, 0.0, 1.0);
+                peak01[c] = (float) clamp(peak[c], 0.0, 1.0);
+            }
+            System.arraycopy(waveform, 0, this.waveform, 0, Math.min(waveform.length, this.waveform.length));
+            System.arraycopy(spectrogram, 0, this.spectrogram, 0, Math.min(spectrogram.length, this.spectrogram.length));
             this.spectrogramWriteCol = spectrogramWriteCol;
+
             this.deviceBufferBytes = deviceBufferBytes;
             this.deviceAvailableBytes = deviceAvailableBytes;
-            this.deviceBufferMs = deviceBufferMs;
-            this.queuedMs = queuedMs;
+            double bufferMs = 0.0;
+            double queued = 0.0;
+            if (deviceBufferBytes > 0 && frameSize > 0) {
+                bufferMs = ((deviceBufferBytes / frameSize) * 1000.0) / SAMPLE_RATE;
+            }
+            if (deviceBufferBytes > 0 && deviceAvailableBytes >= 0 && frameSize > 0) {
+                int queuedBytes = Math.max(0, deviceBufferBytes - deviceAvailableBytes);
+                queued = ((queuedBytes / frameSize) * 1000.0) / SAMPLE_RATE;
+            }
+            this.deviceBufferMs = bufferMs;
+            this.queuedMs = queued;
         }
     }
 
@@ -263,7 +294,7 @@ public final class AudioOutputEngine {
         public final double azimuthDeg;
         public final double distanceM;
 
-        private DebugEvent(long createdNanos,
+        DebugEvent(long createdNanos,
                            String debugKey,
                            HapticBus bus,
                            double startFreqHz,
@@ -290,58 +321,48 @@ public final class AudioOutputEngine {
         }
     }
 
-    private static void fftRadix2InPlace(double[] real, double[] imag) {
-        int n = real.length;
-        if (n <= 1) {
-            return;
-        }
-        // Bit-reversal permutation
-        int j = 0;
-        for (int i = 1; i < n; i++) {
-            int bit = n >>> 1;
-            while ((j & bit) != 0) {
-                j ^= bit;
-                bit >>>= 1;
-            }
-            j ^= bit;
-            if (i < j) {
-                double tr = real[i];
-                real[i] = real[j];
-                real[j] = tr;
-                double ti = imag[i];
-                imag[i] = imag[j];
-                imag[j] = ti;
-            }
-        }
+    private AudioOutputEngine() {
+        this.offlineConfig = null;
+        this.impulses = new ImpulseVoicePool(System.nanoTime());
+    }
 
-        for (int len = 2; len <= n; len <<= 1) {
-            double ang = -2.0 * Math.PI / len;
-            double wlenR = Math.cos(ang);
-            double wlenI = Math.sin(ang);
-            for (int i = 0; i < n; i += len) {
-                double wR = 1.0;
-                double wI = 0.0;
-                int half = len >>> 1;
-                for (int k = 0; k < half; k++) {
-                    int u = i + k;
-                    int v = u + half;
-                    double vR = (real[v] * wR) - (imag[v] * wI);
-                    double vI = (real[v] * wI) + (imag[v] * wR);
-                    double uR = real[u];
-                    double uI = imag[u];
-                    real[u] = uR + vR;
-                    imag[u] = uI + vI;
-                    real[v] = uR - vR;
-                    imag[v] = uI - vI;
-                    double nextWR = (wR * wlenR) - (wI * wlenI);
-                    wI = (wR * wlenI) + (wI * wlenR);
-                    wR = nextWR;
-                }
-            }
-        }
+    /**
+     * Offline instance for {@link OfflineRenderer}; never opens a device.
+     */
+    AudioOutputEngine(BstConfig.Data offlineConfig, long seed) {
+        this.offlineConfig = offlineConfig;
+        this.impulses = new ImpulseVoicePool(seed);
     }
 
-    private AudioOutputEngine() {
+    private BstConfig.Data config() {
+        BstConfig.Data cfg = offlineConfig;
+        return (cfg != null) ? cfg : BstConfig.get();
+    }
+
+    private long nanoTime() {
+        return (offlineConfig != null) ? offlineNowNs : System.nanoTime();
+    }
+
+    /**
+     * Offline only: advances the clock seen by triggers and telemetry updates.
+     */
+    void setOfflineTime(long nowNs) {
+        offlineNowNs = nowNs;
+    }
+
+    /**
+     * Offline only: applies queued voice commands (the live engine does this on the BST-Audio thread).
+     */
+    void drainOffline(BstConfig.Data cfg, long cfgRevision, int channels) {
+        currentRouter(cfg, cfgRevision, channels);
+        drainVoiceCommands(cfg);
+    }
+
+    /**
+     * True while telemetry is live and recent; the mix fades out otherwise.
+     */
+    boolean hasFreshTelemetry(long nowNs) {
+        return telemetryLive && ((nowNs - lastTelemetryNanos) <= TELEMETRY_STALE_NS);
     }
 
     public static AudioOutputEngine get() {
@@ -374,7 +395,13 @@ public final class AudioOutputEngine {
     }
 
     private static AudioFormat preferredFormat() {
-        BstConfig.Data cfg = BstConfig.get();
+        return formatFor(BstConfig.get());
+    }
+
+    /**
+     * Output format requested for {@code cfg}: 7.1 when Sound Scape asks for 8 channels, else stereo.
+     */
+    static AudioFormat formatFor(BstConfig.Data cfg) {
         if (cfg != null && cfg.soundScapeEnabled && cfg.soundScapeChannels == 8) {
             return FORMAT_7_1;
         }
@@ -382,16 +409,19 @@ public final class AudioOutputEngine {
     }
 
     public void updateTelemetry(double speed, double accel, boolean elytra, boolean onGround, boolean inWater, boolean swimming) {
-        this.speed = speed;
+        long nowNs = nanoTime();
+        int flags = TelemetryState.flags(elytra, onGround, inWater, swimming);
+        if (lastFrameSampleNanos != 0L && (nowNs - lastFrameSampleNanos) < FRAME_SAMPLE_ACTIVE_NS) {
+            // Frame-rate samples carry speed; a tick value here would be out of phase with them.
+            telemetry.publishFlags(flags);
+        } else {
+            telemetry.publish(nowNs, speed, flags);
+        }
         this.telemetryLive = true;
-        this.telemetryElytra = elytra;
-        this.telemetryOnGround = onGround;
-        this.telemetryInWater = inWater;
-        this.telemetrySwimming = swimming;
-        this.lastTelemetryNanos = System.nanoTime();
+        this.lastTelemetryNanos = nowNs;
 
         // Optional accel-driven thump, with a small cooldown to avoid machine-gun pulses.
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         if (cfg.accelBumpEnabled) {
             double a = Math.abs(accel);
             if (a >= cfg.accelBumpThreshold) {
@@ -404,10 +434,21 @@ public final class AudioOutputEngine {
         }
     }
 
+    /**
+     * Render-frame-rate movement sample (no accel bump; {@link #updateTelemetry} still runs every tick).
+     * The render thread interpolates between samples, so more frequent samples mean smoother, lower-latency
+     * texture ramps.
+     */
+    public void publishTelemetrySample(double speed, boolean elytra, boolean onGround, boolean inWater, boolean swimming) {
+        long nowNs = nanoTime();
+        telemetry.publish(nowNs, speed, TelemetryState.flags(elytra, onGround, inWater, swimming));
+        lastFrameSampleNanos = nowNs;
+    }
+
     public void setTelemetryLive(boolean live) {
         this.telemetryLive = live;
         if (live) {
-            this.lastTelemetryNanos = System.nanoTime();
+            this.lastTelemetryNanos = nanoTime();
         }
     }
 
@@ -416,7 +457,7 @@ public final class AudioOutputEngine {
     }
 
     public void triggerDamageBurst(double intensity01) {
-        int burstMs = Math.max(10, BstConfig.get().damageBurstMs);
+        int burstMs = Math.max(10, config().damageBurstMs);
         int samples = (int) ((burstMs / 1000.0) * SAMPLE_RATE);
         damageBurstTotalSamples.set(Math.max(1, samples));
         damageBurstSamplesLeft.set(samples);
@@ -434,7 +475,8 @@ public final class AudioOutputEngine {
     /**
      * Pattern-capable impulse.
      * <p>
-     * Supported patterns: single, pulse_loop, shockwave, fade_out.
+     * Supported patterns: single, soft_single, flat, punch, pulse_loop, shockwave, fade_out, plus any custom
+     * curve defined under {@code envelopes} in the vibration profiles file.
      */
     public void triggerImpulse(double freqHz, int durationMs, double gain01, double noiseMix01, String pattern, int pulsePeriodMs, int pulseWidthMs) {
         triggerImpulse(freqHz, durationMs, gain01, noiseMix01, pattern, pulsePeriodMs, pulseWidthMs, 5, 0);
@@ -504,6 +546,8 @@ public final class AudioOutputEngine {
 
     private void triggerImpulseInternal(double startFreqHz, double endFreqHz, int durationMs, double gain01, double noiseMix01, String pattern,
                                         int pulsePeriodMs, int pulseWidthMs, int priority, int delayMs, String debugKey) {
+        // Ingress stamp: the render thread places the voice relative to this, not to when it drains the queue.
+        long stampNs = nanoTime();
         int ms = Math.max(10, durationMs);
         int samples = (int) ((ms / 1000.0) * SAMPLE_RATE);
         samples = Math.max(1, samples);
@@ -532,11 +576,13 @@ public final class AudioOutputEngine {
         double distanceM = HapticEventContext.currentDistanceMeters();
 
         int forcedMask = forcedMaskFromDebugKey(dk);
-        recordDebugEvent(dk, bus, f0, f1, ms, g, pri, delayMs, forcedMask, azimuthDeg, distanceM);
+        if (offlineConfig == null && debugEventsEnabled) {
+            recordDebugEvent(dk, bus, f0, f1, ms, g, pri, delayMs, forcedMask, azimuthDeg, distanceM);
+        }
 
-        enqueueImpulseVoice(f0, f1, samples, g, n, pat, pulsePeriodSamples, pulseWidthSamples, pri, delaySamples, dk, bus, "", null, null, azimuthDeg, distanceM, spatialDesired);
+        enqueueImpulseVoice(stampNs, f0, f1, samples, g, n, ImpulseEnvelope.forPattern(pat), pulsePeriodSamples, pulseWidthSamples, pri, delaySamples, dk, bus, "", null, null, null, azimuthDeg, distanceM, spatialDesired);
 
-        if (BstConfig.get().webSocketEnabled && BstConfig.get().webSocketSendHapticEvents) {
+        if (offlineConfig == null && BstConfig.get().webSocketEnabled && BstConfig.get().webSocketSendHapticEvents) {
             TelemetryOut.emitHaptic(dk, f0, f1, ms, g, n, pat, pulsePeriodMs, pulseWidthMs, pri, delayMs);
             if (BstConfig.get().webSocketSendUnifiedEvents) {
                 TelemetryOut.emitEventFromHapticKey(dk, g);
@@ -555,6 +601,7 @@ public final class AudioOutputEngine {
                                            int priority,
                                            int delayMs,
                                            String debugKey) {
+        long stampNs = nanoTime();
         String instId = (instrumentId == null) ? "" : instrumentId.trim();
         if (instId.isEmpty()) {
             triggerImpulseInternal(startFreqHz, endFreqHz, durationMs, gain01, 0.0, pattern, pulsePeriodMs, pulseWidthMs, priority, delayMs, debugKey);
@@ -588,23 +635,38 @@ public final class AudioOutputEngine {
         String dk = (debugKey == null) ? "" : debugKey.trim();
         HapticBus bus = busForDebugKey(dk);
 
-        long seed = System.nanoTime()
-                ^ (((long) dk.toLowerCase(java.util.Locale.ROOT).hashCode()) << 1)
-                ^ (((long) instId.toLowerCase(java.util.Locale.ROOT).hashCode()) << 17);
-        DspContext ctx = new DspContext(seed, f0, f1, samples);
-        ctx.directionBand = HapticEventContext.currentDirectionBand();
-        DspGraphInstance graph = inst.graph.instantiate(DSP_FACTORY);
+        String directionBand = HapticEventContext.currentDirectionBand();
+        PcmClipCache.Clip clip = null;
+        if (inst.pool.deterministic()) {
+            // Same output for the same (quantized) parameters: play the cached rendering, or record this one.
+            f0 = PcmClipCache.quantizeHz(f0);
+            f1 = PcmClipCache.quantizeHz(f1);
+            clip = clipCache.lookup(inst, f0, f1, samples, directionBand);
+        }
+        DspGraphInstance graph = null;
+        DspContext ctx = null;
+        if (clip == null || !clip.complete()) {
+            long seed = nanoTime()
+                    ^ (((long) dk.toLowerCase(java.util.Locale.ROOT).hashCode()) << 1)
+                    ^ (((long) instId.toLowerCase(java.util.Locale.ROOT).hashCode()) << 17);
+            // Pooled per instrument; handed back when the voice ends (ImpulseVoice.reset) or is coalesced/dropped.
+            graph = inst.pool.acquire(seed, f0, f1, samples);
+            ctx = graph.context();
+            ctx.directionBand = directionBand;
+        }
 
-        boolean spatialDesired = ctx.directionBand != null && !"center".equals(ctx.directionBand);
+        boolean spatialDesired = directionBand != null && !"center".equals(directionBand);
         double azimuthDeg = HapticEventContext.currentAzimuthDeg();
         double distanceM = HapticEventContext.currentDistanceMeters();
 
         int forcedMask = forcedMaskFromDebugKey(dk);
-        recordDebugEvent(dk, bus, f0, f1, ms, g, pri, delayMs, forcedMask, azimuthDeg, distanceM);
+        if (offlineConfig == null && debugEventsEnabled) {
+            recordDebugEvent(dk, bus, f0, f1, ms, g, pri, delayMs, forcedMask, azimuthDeg, distanceM);
+        }
 
-        enqueueImpulseVoice(f0, f1, samples, g, 0.0, pat, pulsePeriodSamples, pulseWidthSamples, pri, delaySamples, dk, bus, instId, graph, ctx, azimuthDeg, distanceM, spatialDesired);
+        enqueueImpulseVoice(stampNs, f0, f1, samples, g, 0.0, ImpulseEnvelope.forPattern(pat), pulsePeriodSamples, pulseWidthSamples, pri, delaySamples, dk, bus, instId, graph, ctx, clip, azimuthDeg, distanceM, spatialDesired);
 
-        if (BstConfig.get().webSocketEnabled && BstConfig.get().webSocketSendHapticEvents) {
+        if (offlineConfig == null && BstConfig.get().webSocketEnabled && BstConfig.get().webSocketSendHapticEvents) {
             // Legacy haptic packet format doesn't include instrument id yet; emit with noiseMix=0.
             TelemetryOut.emitHaptic(dk, f0, f1, ms, g, 0.0, pat, pulsePeriodMs, pulseWidthMs, pri, delayMs);
             if (BstConfig.get().webSocketSendUnifiedEvents) {
@@ -613,12 +675,13 @@ public final class AudioOutputEngine {
         }
     }
 
-    private void enqueueImpulseVoice(double f0,
+    private void enqueueImpulseVoice(long stampNs,
+                                     double f0,
                                      double f1,
                                      int samples,
                                      double gain01,
                                      double noiseMix01,
-                                     String pattern,
+                                     ImpulseEnvelope envelope,
                                      int pulsePeriodSamples,
                                      int pulseWidthSamples,
                                      int priority,
@@ -628,104 +691,363 @@ public final class AudioOutputEngine {
                                      String instrumentId,
                                      DspGraphInstance dspGraph,
                                      DspContext dspContext,
+                                     PcmClipCache.Clip clip,
                                      double azimuthDeg,
                                      double distanceM,
                                      boolean spatialDesired) {
-        synchronized (impulseLock) {
-            String dk = (debugKey == null) ? "" : debugKey;
-            String inst = (instrumentId == null) ? "" : instrumentId;
-            int forcedMask = forcedMaskFromDebugKey(dk);
-
-            // Coalesce/extend a very similar active voice to avoid stacking identical pulses.
-            for (ImpulseVoice v : impulses) {
-                String vdk = (v.debugKey == null) ? "" : v.debugKey;
-                if (!dk.equalsIgnoreCase(vdk)) {
-                    continue;
-                }
+        boolean queued = voiceCommands.offer(VoiceCommand.start(
+                stampNs,
+                f0,
+                f1,
+                samples,
+                gain01,
+                noiseMix01,
+                envelope,
+                pulsePeriodSamples,
+                pulseWidthSamples,
+                priority,
+                delaySamples,
+                debugKey,
+                bus,
+                instrumentId,
+                forcedMaskFromDebugKey(debugKey),
+                dspGraph,
+                dspContext,
+                clip,
+                azimuthDeg,
+                distanceM,
+                spatialDesired
+        ));
+        if (!queued) {
+            // Dropped (and counted) by the full queue: no voice takes ownership of the graph or the recording.
+            if (dspGraph != null) {
+                dspGraph.release();
+            }
+            if (clip != null) {
+                clip.discard();
+            }
+        }
+    }
 
-                if (v.forcedMask != forcedMask) {
-                    continue;
-                }
-                String vInst = (v.instrumentId == null) ? "" : v.instrumentId;
-                if (!inst.equalsIgnoreCase(vInst)) {
-                    continue;
-                }
-                if (v.priority != priority) {
-                    continue;
-                }
-                if (v.delaySamplesLeft != delaySamples) {
-                    continue;
-                }
-                if (!pattern.equalsIgnoreCase(v.pattern)) {
-                    continue;
-                }
-                if (Math.abs(v.startFreqHz - f0) > 0.75) {
-                    continue;
-                }
-                if (Math.abs(v.endFreqHz - f1) > 0.75) {
-                    continue;
-                }
+    /**
+     * Number of voice commands waiting for the render thread (approximate).
+     */
+    public int getVoiceQueueDepth() {
+        return voiceCommands.depth();
+    }
 
-                if (v.spatialDesired != spatialDesired) {
-                    continue;
-                }
+    /**
+     * Highest queue depth observed since the engine was created.
+     */
+    public int getVoiceQueueHighWater() {
+        return voiceCommands.highWaterMark();
+    }
 
-                // Spatial: avoid coalescing events from clearly different directions/distances.
-                if (Math.abs(v.spatialAzimuthDeg - azimuthDeg) > 12.0) {
-                    continue;
-                }
-                if (Math.abs(v.spatialDistanceM - distanceM) > 2.5) {
-                    continue;
-                }
+    /**
+     * Voice commands dropped because the queue was full (e.g. huge explosion bursts while the renderer is stalled).
+     */
+    public long getVoiceQueueDropped() {
+        return voiceCommands.droppedCount();
+    }
+
+    /**
+     * Active impulse voices (render thread view; approximate when read elsewhere).
+     */
+    public int getActiveVoiceCount() {
+        return impulses.size();
+    }
+
+    /**
+     * Voices stolen (lowest priority / quietest first) to make room for a stronger event.
+     */
+    public long getVoicesStolen() {
+        return impulses.stolenCount();
+    }
+
+    /**
+     * Events rejected because every active voice outranked them.
+     */
+    public long getVoicesRejected() {
+        return impulses.rejectedCount();
+    }
+
+    /**
+     * PCM blocks rendered but not yet written to the device.
+     */
+    public int getPcmRingFill() {
+        PcmBlockRing r = pcmRing;
+        return (r == null) ? 0 : r.size();
+    }
+
+    /**
+     * Current render-ahead, in blocks (at most {@code audioRenderAheadBlocks}).
+     */
+    public int getRenderAheadBlocks() {
+        return latency.aheadBlocks();
+    }
+
+    /**
+     * Current render chunk length in ms (5/10/20; fixed at 10 when adaptive latency is off).
+     */
+    public double getChunkMs() {
+        return latency.chunkFrames() * 1000.0 / SAMPLE_RATE;
+    }
+
+    /**
+     * Adaptive latency target for ring + device queue, in ms (0 when adaptive latency is off).
+     */
+    public double getLatencyTargetMs() {
+        return BstConfig.get().adaptiveLatencyEnabled ? latency.targetMs() : 0.0;
+    }
+
+    /**
+     * Current trigger latency in ms (ingress stamp to audible start); 0 while no device is playing.
+     */
+    public double getTriggerLatencyMs() {
+        return triggerLatencyMs;
+    }
+
+    /**
+     * Latest render/write/jitter percentiles and xrun counts (about 1s window; {@link EngineStats#EMPTY} until
+     * the device has been open for a window).
+     */
+    public EngineStats getEngineStats() {
+        return engineStats;
+    }
+
+    /**
+     * Number of times the adaptive latency controller changed its target.
+     */
+    public long getLatencyAdjustments() {
+        return latency.adjustments();
+    }
+
+    /**
+     * Times the writer thread found no rendered block waiting (renderer fell behind).
+     */
+    public long getPcmRingUnderruns() {
+        PcmDeviceWriter w = pcmWriter;
+        return (w == null) ? 0L : w.ringUnderruns();
+    }
+
+    /**
+     * Times the device buffer had fully drained before the next write (likely audible gap).
+     */
+    public long getDeviceUnderruns() {
+        PcmDeviceWriter w = pcmWriter;
+        return (w == null) ? 0L : w.deviceUnderruns();
+    }
+
+    /**
+     * Render thread only: apply all pending voice commands to the voice list.
+     */
+    private void drainVoiceCommands(BstConfig.Data cfg) {
+        impulses.setLimit(cfg.impulseVoiceLimit);
+        updateTriggerLatency(cfg);
+        VoiceCommand cmd;
+        while ((cmd = voiceCommands.poll()) != null) {
+            if (cmd.kind == VoiceCommand.Kind.STOP_CALIBRATION) {
+                applyStopCalibration();
+            } else {
+                applyStartCommand(cmd, cfg);
+            }
+        }
+    }
+
+    /**
+     * Trigger latency for this drain: {@code triggerLatencyMs} when set, otherwise the deepest recent
+     * pipeline (audio queued ahead of the next block) plus one chunk for the wait until the next drain. The
+     * auto value rises immediately and falls back slowly, so latency stays constant rather than jittering.
+     */
+    private void updateTriggerLatency(BstConfig.Data cfg) {
+        long heard = outputClock.sampleAt(nanoTime());
+        if (heard == SampleClock.UNLOCKED) {
+            autoTriggerLatencySamples = 0L;
+            triggerLatencySamples = 0L;
+            triggerLatencyMs = 0.0;
+            return;
+        }
+        long needed = Math.max(0L, sampleClock - heard) + latency.chunkFrames();
+        autoTriggerLatencySamples = (needed >= autoTriggerLatencySamples)
+                ? needed
+                : Math.max(needed, autoTriggerLatencySamples - TRIGGER_LATENCY_RELEASE_SAMPLES);
+        triggerLatencySamples = (cfg.triggerLatencyMs > 0)
+                ? (long) ((cfg.triggerLatencyMs / 1000.0) * SAMPLE_RATE)
+                : autoTriggerLatencySamples;
+        triggerLatencyMs = (triggerLatencySamples * 1000.0) / SAMPLE_RATE;
+    }
 
-                v.totalSamples = Math.max(v.totalSamples, samples);
-                v.samplesLeft = Math.max(v.samplesLeft, samples);
-                v.gain = Math.max(v.gain, gain01);
-                v.noiseMix = noiseMix01;
-                v.pulsePeriodSamples = pulsePeriodSamples;
-                v.pulseWidthSamples = pulseWidthSamples;
-                v.createdNanos = System.nanoTime();
-                if (v.dspContext != null) {
-                    v.dspContext.retune(v.startFreqHz, v.endFreqHz);
-                    v.dspContext.resize(v.totalSamples);
+    /**
+     * Output sample a command starts at: its ingress stamp mapped through the output clock plus the trigger
+     * latency (never before the next block), then its own delay. Without a playing device (or with
+     * {@code sampleAccurateTriggersEnabled=false}) it starts with the next block, as before.
+     */
+    private long startSampleFor(VoiceCommand c, BstConfig.Data cfg) {
+        long start = sampleClock;
+        if (cfg.sampleAccurateTriggersEnabled) {
+            long heard = outputClock.sampleAt(c.createdNanos);
+            if (heard != SampleClock.UNLOCKED) {
+                long target = Math.min(heard + triggerLatencySamples, sampleClock + triggerLatencySamples);
+                start = Math.max(sampleClock, target);
+            }
+        }
+        return start + c.delaySamples;
+    }
+
+    private void applyStartCommand(VoiceCommand c, BstConfig.Data cfg) {
+        String dk = c.debugKey;
+        String inst = c.instrumentId;
+        long start = startSampleFor(c, cfg);
+
+        // Coalesce/extend a very similar voice (about the same start sample) to avoid stacking identical pulses.
+        ImpulseVoice v = findCoalescable(c, start);
+        if (v != null) {
+            if (v.dspGraph == null && v.clip != null) {
+                // Cached clip playback has a fixed length; keep it.
+            } else {
+                if (v.clip != null && c.samples > v.totalSamples) {
+                    // Lengthened: the recording would no longer match its cache key.
+                    v.clip.discard();
+                    v.clip = null;
                 }
-                // Refresh spatial gains (config may have changed).
-                v.spatialDesired = spatialDesired;
-                initVoiceSpatial(v, BstConfig.get(), azimuthDeg, distanceM);
-                return;
+                v.totalSamples = Math.max(v.totalSamples, c.samples);
+                v.samplesLeft = Math.max(v.samplesLeft, c.samples);
+            }
+            v.gain = Math.max(v.gain, c.gain01);
+            v.noiseMix = c.noiseMix01;
+            v.pulsePeriodSamples = c.pulsePeriodSamples;
+            v.pulseWidthSamples = c.pulseWidthSamples;
+            v.createdNanos = c.createdNanos;
+            impulses.keyChanged(v);
+            if (v.dspContext != null) {
+                v.dspContext.retune(v.startFreqHz, v.endFreqHz);
+                v.dspContext.resize(v.totalSamples);
+            }
+            // Refresh spatial gains (config may have changed).
+            v.spatialDesired = c.spatialDesired;
+            initVoiceSpatial(v, cfg, c.azimuthDeg, c.distanceM);
+            if (c.dspGraph != null) {
+                c.dspGraph.release();
+            }
+            if (c.clip != null) {
+                c.clip.discard();
+            }
+            return;
+        }
+
+        // Full pool: steals the weakest voice, or drops this event if everything active outranks it.
+        ImpulseVoice voice = impulses.acquire(c.priority, c.gain01, c.createdNanos);
+        if (voice == null) {
+            if (c.dspGraph != null) {
+                c.dspGraph.release();
+            }
+            if (c.clip != null) {
+                c.clip.discard();
             }
+            return;
+        }
+        voice.totalSamples = c.samples;
+        voice.samplesLeft = c.samples;
+        voice.freqHz = c.startFreqHz;
+        voice.startFreqHz = c.startFreqHz;
+        voice.endFreqHz = c.endFreqHz;
+        voice.noiseMix = c.noiseMix01;
+        voice.envelope = c.envelope;
+        voice.debugKey = dk;
+        voice.instrumentId = inst;
+        voice.pulsePeriodSamples = c.pulsePeriodSamples;
+        voice.pulseWidthSamples = c.pulseWidthSamples;
+        voice.bus = c.bus;
+        voice.dspGraph = c.dspGraph;
+        voice.dspContext = c.dspContext;
+        voice.clip = c.clip;
+        voice.forcedMask = c.forcedMask;
+        SoundScapeRouter router = routerSnapshot.get();
+        if (router != null) {
+            voice.routeMask = router.maskForVoice(dk, c.bus, c.forcedMask);
+            voice.routedBy = router;
+        }
+        voice.spatialDesired = c.spatialDesired;
+        initVoiceSpatial(voice, cfg, c.azimuthDeg, c.distanceM);
+
+        // Voices starting after the next block edge leave the active list until the block that contains
+        // their start sample.
+        if (start > sampleClock) {
+            impulses.schedule(voice, start);
+        }
+    }
 
-            ImpulseVoice voice = new ImpulseVoice();
-            voice.totalSamples = samples;
-            voice.samplesLeft = samples;
-            voice.delaySamplesLeft = delaySamples;
-            voice.freqHz = f0;
-            voice.startFreqHz = f0;
-            voice.endFreqHz = f1;
-            voice.gain = gain01;
-            voice.noiseMix = noiseMix01;
-            voice.pattern = pattern;
-            voice.debugKey = dk;
-            voice.instrumentId = inst;
-            voice.pulsePeriodSamples = pulsePeriodSamples;
-            voice.pulseWidthSamples = pulseWidthSamples;
-            voice.phase = 0.0;
-            voice.noiseState = 0.0;
-            voice.priority = priority;
-            voice.bus = bus;
-            voice.createdNanos = System.nanoTime();
-            voice.dspGraph = dspGraph;
-            voice.dspContext = dspContext;
-            voice.forcedMask = forcedMask;
-            voice.spatialDesired = spatialDesired;
-            initVoiceSpatial(voice, BstConfig.get(), azimuthDeg, distanceM);
-            impulses.add(voice);
-
-            // Hard cap to avoid unbounded growth in pathological cases.
-            while (impulses.size() > 24) {
-                impulses.remove(0);
+    /**
+     * A playing voice (undelayed commands only) or a scheduled one starting within
+     * {@link #COALESCE_START_SAMPLES} that matches the command closely enough to be extended instead of
+     * stacking a second voice.
+     */
+    private ImpulseVoice findCoalescable(VoiceCommand c, long start) {
+        if (c.delaySamples <= 0) {
+            for (int vi = 0; vi < impulses.size(); vi++) {
+                ImpulseVoice v = impulses.get(vi);
+                if (v.delaySamplesLeft == 0 && coalescable(v, c)) {
+                    return v;
+                }
+            }
+        }
+        for (int vi = 0; vi < impulses.scheduledCount(); vi++) {
+            ImpulseVoice v = impulses.getScheduled(vi);
+            if (Math.abs(v.startSample - start) <= COALESCE_START_SAMPLES && coalescable(v, c)) {
+                return v;
             }
         }
+        return null;
+    }
+
+    private static boolean coalescable(ImpulseVoice v, VoiceCommand c) {
+        String vdk = (v.debugKey == null) ? "" : v.debugKey;
+        if (!c.debugKey.equalsIgnoreCase(vdk)) {
+            return false;
+        }
+
+        if (v.forcedMask != c.forcedMask) {
+            return false;
+        }
+        String vInst = (v.instrumentId == null) ? "" : v.instrumentId;
+        if (!c.instrumentId.equalsIgnoreCase(vInst)) {
+            return false;
+        }
+        if (v.priority != c.priority) {
+            return false;
+        }
+        if (c.envelope != v.envelope) {
+            return false;
+        }
+        if (Math.abs(v.startFreqHz - c.startFreqHz) > 0.75) {
+            return false;
+        }
+        if (Math.abs(v.endFreqHz - c.endFreqHz) > 0.75) {
+            return false;
+        }
+
+        if (v.spatialDesired != c.spatialDesired) {
+            return false;
+        }
+
+        // Spatial: avoid coalescing events from clearly different directions/distances.
+        if (Math.abs(v.spatialAzimuthDeg - c.azimuthDeg) > 12.0) {
+            return false;
+        }
+        return Math.abs(v.spatialDistanceM - c.distanceM) <= 2.5;
+    }
+
+    /**
+     * Returns the routing snapshot for this revision/channel count, compiling and publishing a new one only
+     * when either changed. Render thread only.
+     */
+    private SoundScapeRouter currentRouter(BstConfig.Data cfg, long revision, int channels) {
+        SoundScapeRouter r = routerSnapshot.get();
+        if (r == null || !r.matches(revision, channels)) {
+            r = new SoundScapeRouter(cfg, channels, revision);
+            routerSnapshot.set(r);
+        }
+        return r;
     }
 
     public String getDominantDebugString() {
@@ -775,56 +1097,56 @@ public final class AudioOutputEngine {
     public void testRoadTexture() {
         wakeForTests();
         // Short filtered-noise-ish burst via the impulse path.
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.roadTextureGain / 0.30, 0.0, 1.0);
         triggerImpulse(34.0, 260, gain01, 1.0);
     }
 
     public void testDamageBurst() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.damageBurstGain, 0.0, 1.0);
         triggerImpulse(42.0, Math.max(40, cfg.damageBurstMs), gain01, 0.90);
     }
 
     public void testBiomeChime() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.biomeChimeGain, 0.0, 1.0);
         triggerImpulse(80.0, 90, gain01, 0.0);
     }
 
     public void testAccelBump() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.accelBumpGain, 0.0, 1.0);
         triggerImpulse(32.0, Math.max(40, cfg.accelBumpMs), gain01, 0.0);
     }
 
     public void testSoundHaptics() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.soundHapticsGain * 0.60, 0.0, 1.0);
         triggerImpulse(36.0, 120, gain01, 0.35);
     }
 
     public void testGameplayHaptics() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.gameplayHapticsGain * 0.60, 0.0, 1.0);
         triggerImpulse(44.0, 120, gain01, 0.25);
     }
 
     public void testFootsteps() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.footstepHapticsGain, 0.0, 1.0);
         triggerImpulse(44.0, 55, gain01, 0.42);
     }
 
     public void testMountedHooves() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double knob = clamp(cfg.mountedHapticsGain, 0.0, 1.0);
 
         var store = com.smoky.bassshakertelemetry.config.BstVibrationProfiles.get();
@@ -872,7 +1194,7 @@ public final class AudioOutputEngine {
 
     public void testMiningSwing() {
         wakeForTests();
-        BstConfig.Data cfg = BstConfig.get();
+        BstConfig.Data cfg = config();
         double gain01 = clamp(cfg.miningSwingHapticsGain, 0.0, 1.0);
         triggerImpulse(46.0, 26, gain01, 0.08);
     }
@@ -883,25 +1205,25 @@ public final class AudioOutputEngine {
      */
     public void testLatencyPulse() {
         wakeForTests();
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.90, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.90, 0.0, 1.0);
         triggerImpulse(42.0, 55, gain01, 0.12, "single", 160, 60, 95, 0);
     }
 
     public void testCalibrationTone30Hz() {
         wakeForTests();
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.85, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.85, 0.0, 1.0);
         triggerImpulse(30.0, 2000, gain01, 0.0, "flat", 160, 60, 97, 0, "cal.tone_30hz");
     }
 
     public void testCalibrationTone60Hz() {
         wakeForTests();
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.85, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.85, 0.0, 1.0);
         triggerImpulse(60.0, 2000, gain01, 0.0, "flat", 160, 60, 97, 0, "cal.tone_60hz");
     }
 
     public void testCalibrationSweep() {
         wakeForTests();
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.85, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.85, 0.0, 1.0);
         triggerSweepImpulse(20.0, 120.0, 6500, gain01, 0.0, "flat", 160, 60, 97, 0, "cal.sweep_20_120hz");
     }
 
@@ -912,14 +1234,14 @@ public final class AudioOutputEngine {
         String ch = (channelId == null) ? "" : channelId.trim().toUpperCase(java.util.Locale.ROOT);
         double f = clamp(freqHz, 10.0, 120.0);
         int ms = Math.max(50, durationMs);
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.85, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.85, 0.0, 1.0);
         triggerImpulse(f, ms, gain01, 0.0, "flat", 160, 60, 98, 0, "cal.ch." + ch + ".tone");
     }
 
     public void testCalibrationSweepOnChannel(String channelId) {
         wakeForTests();
         String ch = (channelId == null) ? "" : channelId.trim().toUpperCase(java.util.Locale.ROOT);
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.85, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.85, 0.0, 1.0);
         triggerSweepImpulse(20.0, 120.0, 6500, gain01, 0.0, "flat", 160, 60, 98, 0, "cal.ch." + ch + ".sweep");
     }
 
@@ -930,14 +1252,14 @@ public final class AudioOutputEngine {
         wakeForTests();
         String ch = (channelId == null) ? "" : channelId.trim().toUpperCase(java.util.Locale.ROOT);
         // Slightly lower than tone/sweep to keep it comfortable.
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.75, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.75, 0.0, 1.0);
         triggerImpulse(45.0, 45, gain01, 0.10, "punch", 160, 60, 98, 0, "cal.ch." + ch + ".burst");
     }
 
     public void testLatencyPulseOnChannel(String channelId) {
         wakeForTests();
         String ch = (channelId == null) ? "" : channelId.trim().toUpperCase(java.util.Locale.ROOT);
-        double gain01 = clamp(BstConfig.get().masterVolume * 0.90, 0.0, 1.0);
+        double gain01 = clamp(config().masterVolume * 0.90, 0.0, 1.0);
         triggerImpulse(42.0, 55, gain01, 0.12, "single", 160, 60, 99, 0, "cal.ch." + ch + ".latency");
     }
 
@@ -946,33 +1268,46 @@ public final class AudioOutputEngine {
      * This targets only impulses with debugKey prefix "cal." and leaves normal gameplay haptics untouched.
      */
     public void stopCalibration() {
+        voiceCommands.offer(VoiceCommand.stopCalibration());
+    }
+
+    private void applyStopCalibration() {
         int fadeSamples = (int) (SAMPLE_RATE * 0.030); // 30ms quick fade to avoid clicks
         fadeSamples = Math.max(1, fadeSamples);
 
-        synchronized (impulseLock) {
-            for (ImpulseVoice v : impulses) {
-                if (v == null) continue;
-                String dk = (v.debugKey == null) ? "" : v.debugKey.trim().toLowerCase(java.util.Locale.ROOT);
-                if (!dk.startsWith("cal.")) {
-                    continue;
-                }
-                // If the voice is still delayed, start it immediately and fade it out.
-                v.delaySamplesLeft = 0;
-                if (v.samplesLeft > fadeSamples) {
-                    v.samplesLeft = fadeSamples;
-                }
+        // If the voice is still delayed, start it immediately and fade it out.
+        for (int vi = impulses.scheduledCount() - 1; vi >= 0; vi--) {
+            ImpulseVoice v = impulses.getScheduled(vi);
+            if (isCalibrationVoice(v)) {
+                impulses.startNow(v, 0);
+            }
+        }
+
+        for (int vi = 0; vi < impulses.size(); vi++) {
+            ImpulseVoice v = impulses.get(vi);
+            if (!isCalibrationVoice(v)) {
+                continue;
+            }
+            v.delaySamplesLeft = 0;
+            if (v.samplesLeft > fadeSamples) {
+                v.samplesLeft = fadeSamples;
             }
         }
     }
 
+    private static boolean isCalibrationVoice(ImpulseVoice v) {
+        String dk = (v.debugKey == null) ? "" : v.debugKey.trim().toLowerCase(java.util.Locale.ROOT);
+        return dk.startsWith("cal.");
+    }
+
     private void wakeForTests() {
         // Tests should be able to open/play even when the player isn't in-world.
         telemetryLive = true;
-        lastTelemetryNanos = System.nanoTime();
+        lastTelemetryNanos = nanoTime();
     }
 
     private void triggerAccelBump(double intensity01) {
-        int bumpMs = Math.max(10, BstConfig.get().accelBumpMs);
+        int bumpMs = Math.max(10, config().accelBumpMs);
         int samples = (int) ((bumpMs / 1000.0) * SAMPLE_RATE);
         accelBumpTotalSamples.set(Math.max(1, samples));
         accelBumpSamplesLeft.set(Math.max(1, samples));
@@ -981,6 +1316,9 @@ public final class AudioOutputEngine {
     }
 
     public synchronized void startOrRestart() {
+        if (offlineConfig != null) {
+            return;
+        }
         stop();
         if (!BstConfig.get().enabled()) {
             return;
@@ -1030,46 +1368,61 @@ public final class AudioOutputEngine {
             // Chunk size is a key contributor to end-to-end latency.
             // 1024 frames @ 48kHz is ~21.3ms of inherent scheduling delay.
             // 480 frames is exactly 10ms @ 48kHz and is a good low-latency default.
-            int framesPerChunk = 480;
-            byte[] buffer = new byte[framesPerChunk * 2 * BYTES_PER_SAMPLE];
+            // The latency controller may move this between 240/480/960 frames at runtime.
+            int framesPerChunk = LatencyController.DEFAULT_CHUNK_FRAMES;
             int bufferChannels = 2;
 
-            OutputEq outputEq = new OutputEq();
-            TransducerEq transducerEq = new TransducerEq();
-            SmartVolume smartVolume = new SmartVolume();
-
-            float[] transducerGain = new float[8];
+            // Render ahead into the ring; the writer thread owns the blocking device.write().
+            PcmBlockRing ring = new PcmBlockRing(PCM_RING_SLOTS, LatencyController.MAX_CHUNK_FRAMES * 8 * BYTES_PER_SAMPLE);
+            PcmDeviceWriter writer = new PcmDeviceWriter(ring, Thread.currentThread(), outputClock);
+            pcmRing = ring;
+            pcmWriter = writer;
+            writer.start();
 
-            // Per-frame accumulation (reused).
-            double[] ch = new double[8];
+            MixState mix = new MixState(LatencyController.MAX_CHUNK_FRAMES, System.nanoTime());
 
-            // Debug capture state (only used when DEBUG_CAPTURE_ENABLED is true).
-            float[] debugMonoRing = new float[DEBUG_SPECT_FFT_SIZE];
-            int debugMonoWrite = 0;
-            float[] debugWave = new float[DEBUG_WAVE_SAMPLES];
-            float[] debugSpect = new float[DEBUG_SPECT_COLS * DEBUG_SPECT_BINS];
-            int debugSpectWriteCol = 0;
-            double[] dbgSumSq = new double[8];
-            double[] dbgPeak = new double[8];
-            double[] fftReal = new double[DEBUG_SPECT_FFT_SIZE];
-            double[] fftImag = new double[DEBUG_SPECT_FFT_SIZE];
+            // Stats window / jitter baseline (0 = no previous block on this device).
+            long statsWindowStartNs = System.nanoTime();
+            long statsRingUnderruns = 0L;
+            long statsDeviceUnderruns = 0L;
+            long statsClipHits = clipCache.hits();
+            long statsClipMisses = clipCache.misses();
+            long lastBlockStartNs = 0L;
+            long lastBlockNs = 0L;
 
-            double bumpPhase = 0.0;
-            double chimePhase = 0.0;
-            double streamGain = 0.0;
-            Random random = new Random();
-
-            final long staleNs = 1_000_000_000L; // 1s without telemetry => fade out
             final long sleepNs = 10_000_000_000L; // 10s without telemetry => close the audio line
 
             while (running.get()) {
+                if (device != null) {
+                    if (writer.takeFailure()) {
+                        // Writer already detached it; reopen below.
+                        try {
+                            device.stopFlushClose();
+                        } catch (Exception ignored) {
+                        }
+                        device = null;
+                        ring.clear();
+                    } else {
+                        awaitRingSpace(ring, writer, latency.aheadBlocks());
+                    }
+                }
+
+                // Revision first: a snapshot tagged with it can only be older than cfg, never newer.
+                long cfgRevision = BstConfig.revision();
                 BstConfig.Data cfg = BstConfig.get();
+                currentRouter(cfg, cfgRevision, bufferChannels);
+
+                // Apply queued voice starts/stops before rendering (also while idle so the list stays bounded).
+                drainVoiceCommands(cfg);
 
                 long nowNs = System.nanoTime();
-                boolean hasFreshTelemetry = telemetryLive && ((nowNs - lastTelemetryNanos) <= staleNs);
+                boolean hasFreshTelemetry = hasFreshTelemetry(nowNs);
 
                 // If we've been stale for a long time, close the device to avoid rumble in menus.
                 if (!hasFreshTelemetry && device != null && (nowNs - lastTelemetryNanos) > sleepNs) {
+                    lastBlockStartNs = 0L;
+                    writer.detach();
+                    ring.clear();
                     try {
                         device.stopFlushClose();
                     } catch (Exception ignored) {
@@ -1106,11 +1459,6 @@ public final class AudioOutputEngine {
                         bufferChannels = 2;
                     }
                     activeOutputChannels = bufferChannels;
-                    buffer = new byte[framesPerChunk * bufferChannels * BYTES_PER_SAMPLE];
-                    // Ensure scratch buffer can hold up to 8 channels.
-                    if (ch.length < bufferChannels) {
-                        ch = new double[bufferChannels];
-                    }
 
                     try {
                         device.start();
@@ -1127,576 +1475,91 @@ public final class AudioOutputEngine {
                         }
                         continue;
                     }
+                    writer.attach(device);
+                    lastBlockStartNs = 0L;
+                    latency.reset(cfg, System.nanoTime(), writer.ringUnderruns(), writer.deviceUnderruns(),
+                            deviceBufferMs(device), ring.capacity());
                 }
 
-                double localSpeed = this.speed;
-
-                // Stream gating (fade in/out when telemetry appears/disappears)
-                double targetStreamGain = hasFreshTelemetry ? 1.0 : 0.0;
-                double startGain = streamGain;
-                streamGain += (targetStreamGain - streamGain) * 0.08;
-                double endGain = streamGain;
-
-                // Output headroom + master
-                double headroom = clamp(cfg.outputHeadroom, 0.10, 1.0);
-                double master = clamp(cfg.masterVolume, 0.0, 1.0) * headroom;
-                double limiterDrive = clamp(cfg.limiterDrive, 1.0, 8.0);
-
-                SoundScapeRouter router = new SoundScapeRouter(cfg, bufferChannels);
-                int roadMask = router.maskForCategory(BstConfig.SoundScapeCategories.ROAD);
-                int damageMask = router.maskForCategory(BstConfig.SoundScapeCategories.DAMAGE);
-                int bumpMask = router.maskForCategory(BstConfig.SoundScapeCategories.ACCEL_BUMP);
-                int chimeMask = router.maskForCategory(BstConfig.SoundScapeCategories.BIOME_CHIME);
-
-                // Phase 3: per-transducer calibration is only meaningful in Sound Scape mode.
-                if (cfg.soundScapeEnabled) {
-                    fillTransducerGains(cfg, bufferChannels, transducerGain);
-                    transducerEq.updateIfNeeded(cfg, bufferChannels);
-                } else {
-                    for (int c = 0; c < 8; c++) {
-                        transducerGain[c] = 1.0f;
-                    }
-                    transducerEq.resetIfDisabled();
-                }
-
-                int damageLeft = damageBurstSamplesLeft.get();
-                int biomeLeft = biomeChimeSamplesLeft.get();
-                int bumpLeft = accelBumpSamplesLeft.get();
-
-                // Determine the single dominant source for this chunk.
-                int dominantKind = 0; // 0 none, 1 road, 2 damage, 3 impulse, 4 bump, 5 chime
-                int dominantPriority = -1;
-                double dominantStrength = -1.0;
-                ImpulseVoice dominantImpulse = null;
-                EnumMap<HapticBus, ImpulseVoice> dominantImpulseByBus = new EnumMap<>(HapticBus.class);
-
-                // Movement textures: low priority continuous (land/flight/swim), all gated by roadTextureEnabled.
-                double movementStrength = -1.0;
-                boolean movementActiveForDominance = false;
-                if (cfg.roadTextureEnabled) {
-                    if (telemetryOnGround && cfg.roadTextureGain > 0.0001 && Math.abs(localSpeed) > 0.09) {
-                        movementActiveForDominance = true;
-                        movementStrength = Math.max(movementStrength, cfg.roadTextureGain);
-                    }
-                    if (telemetryElytra && cfg.movementFlightGain > 0.0001 && Math.abs(localSpeed) > 0.70) {
-                        movementActiveForDominance = true;
-                        movementStrength = Math.max(movementStrength, cfg.movementFlightGain);
-                    }
-                    if ((telemetryInWater || telemetrySwimming) && cfg.movementSwimGain > 0.0001 && Math.abs(localSpeed) > 0.05) {
-                        movementActiveForDominance = true;
-                        movementStrength = Math.max(movementStrength, cfg.movementSwimGain);
-                    }
-                }
-
-                if (movementActiveForDominance) {
-                    dominantKind = 1;
-                    dominantPriority = 1;
-                    dominantStrength = movementStrength;
-                }
-
-                // Damage burst: very high priority.
-                if (cfg.damageBurstEnabled && damageLeft > 0) {
-                    int pri = 10;
-                    double strength = cfg.damageBurstGain * clamp(damageBurstIntensity, 0.0, 1.0);
-                    if (pri > dominantPriority || (pri == dominantPriority && strength > dominantStrength)) {
-                        dominantKind = 2;
-                        dominantPriority = pri;
-                        dominantStrength = strength;
-                    }
-                }
-
-                // Impulses: choose a dominant voice per bus (multi-bus foundation).
-                synchronized (impulseLock) {
-                    for (int vi = impulses.size() - 1; vi >= 0; vi--) {
-                        ImpulseVoice v = impulses.get(vi);
-                        if (v.delaySamplesLeft > 0) {
-                            continue;
-                        }
-                        if (v.samplesLeft <= 0 || v.gain <= 0.00001) {
-                            continue;
-                        }
-
-                        HapticBus bus = (v.bus == null) ? HapticBus.MODDED : v.bus;
-                        ImpulseVoice dom = dominantImpulseByBus.get(bus);
-                        if (dom == null
-                                || v.priority > dom.priority
-                                || (v.priority == dom.priority && v.gain > dom.gain)
-                                || (v.priority == dom.priority && v.gain == dom.gain && v.createdNanos > dom.createdNanos)) {
-                            dominantImpulseByBus.put(bus, v);
-                        }
-                    }
-                }
-                // For debug display: pick the overall best impulse across buses.
-                for (ImpulseVoice v : dominantImpulseByBus.values()) {
-                    if (v == null) {
-                        continue;
-                    }
-                    if (dominantImpulse == null
-                            || v.priority > dominantImpulse.priority
-                            || (v.priority == dominantImpulse.priority && v.gain > dominantImpulse.gain)
-                            || (v.priority == dominantImpulse.priority && v.gain == dominantImpulse.gain && v.createdNanos > dominantImpulse.createdNanos)) {
-                        dominantImpulse = v;
-                    }
-                }
-
-                // Accel bump: medium-high priority.
-                if (cfg.accelBumpEnabled && bumpLeft > 0) {
-                    int pri = 7;
-                    double strength = cfg.accelBumpGain;
-                    if (pri > dominantPriority || (pri == dominantPriority && strength > dominantStrength)) {
-                        dominantKind = 4;
-                        dominantPriority = pri;
-                        dominantStrength = strength;
-                    }
-                }
-
-                // Biome chime: medium priority.
-                if (cfg.biomeChimeEnabled && biomeLeft > 0) {
-                    int pri = 4;
-                    double strength = cfg.biomeChimeGain;
-                    if (pri > dominantPriority || (pri == dominantPriority && strength > dominantStrength)) {
-                        dominantKind = 5;
-                        dominantPriority = pri;
-                        dominantStrength = strength;
-                    }
-                }
-
-                boolean anyImpulseActive = !dominantImpulseByBus.isEmpty();
-
-                // Debug-only dominant: allow impulses to win, without affecting mixing.
-                int debugKind = dominantKind;
-                int debugPriority = dominantPriority;
-                double debugStrength = dominantStrength;
-                ImpulseVoice debugImpulse = null;
-                if (dominantImpulse != null) {
-                    int pri = dominantImpulse.priority;
-                    double strength = dominantImpulse.gain;
-                    if (pri > debugPriority || (pri == debugPriority && strength > debugStrength)) {
-                        debugKind = 3;
-                        debugPriority = pri;
-                        debugStrength = strength;
-                        debugImpulse = dominantImpulse;
-                    }
-                }
+                latency.update(cfg, nowNs, writer.ringUnderruns(), writer.deviceUnderruns(), ring.capacity());
+                framesPerChunk = latency.chunkFrames();
+                writer.setDeviceLimitMs(latency.deviceLimitMs());
 
-                // Update dominant debug snapshot (only when it changes).
-                String domLabel;
-                double domFreq = 0.0;
-                double domGain = 0.0;
-                if (debugKind == 1) {
-                    domLabel = "road";
-                    domGain = dominantStrength;
-                } else if (debugKind == 2) {
-                    domLabel = "damage";
-                    domGain = dominantStrength;
-                } else if (debugKind == 4) {
-                    domLabel = "accel_bump";
-                    domGain = dominantStrength;
-                } else if (debugKind == 5) {
-                    domLabel = "biome_chime";
-                    domGain = dominantStrength;
-                } else if (debugKind == 3 && debugImpulse != null) {
-                    String dk = (debugImpulse.debugKey == null) ? "" : debugImpulse.debugKey;
-                    domLabel = dk.isBlank() ? "impulse" : dk;
-                    if (Math.abs(debugImpulse.endFreqHz - debugImpulse.startFreqHz) > 0.01) {
-                        domFreq = (debugImpulse.startFreqHz + debugImpulse.endFreqHz) * 0.5;
-                    } else {
-                        domFreq = debugImpulse.freqHz;
-                    }
-                    domGain = debugImpulse.gain;
-                } else {
-                    domLabel = "none";
-                }
-
-                boolean differsFromPublished = !domLabel.equals(debugDominantLabel)
-                    || debugPriority != debugDominantPriority
-                        || Math.abs(domFreq - debugDominantFreqHz) > 0.05
-                        || Math.abs(domGain - debugDominantGain01) > 0.01;
-
-                if (!differsFromPublished) {
-                    // Candidate matches what's already published; clear any pending transition.
-                    pendingDominantSinceNs = 0L;
-                } else {
-                    boolean matchesPending = domLabel.equals(pendingDominantLabel)
-                            && debugPriority == pendingDominantPriority
-                            && Math.abs(domFreq - pendingDominantFreqHz) <= 0.05
-                            && Math.abs(domGain - pendingDominantGain01) <= 0.01;
-
-                    if (!matchesPending) {
-                        pendingDominantLabel = domLabel;
-                        pendingDominantPriority = debugPriority;
-                        pendingDominantFreqHz = domFreq;
-                        pendingDominantGain01 = domGain;
-                        pendingDominantSinceNs = nowNs;
-                    } else if (pendingDominantSinceNs > 0L && (nowNs - pendingDominantSinceNs) >= DEBUG_DOMINANT_HYSTERESIS_NS) {
-                        // Only publish once the candidate has remained stable long enough.
-                        debugDominantLabel = pendingDominantLabel;
-                        debugDominantPriority = pendingDominantPriority;
-                        debugDominantFreqHz = pendingDominantFreqHz;
-                        debugDominantGain01 = pendingDominantGain01;
-                        pendingDominantSinceNs = 0L;
-                    }
+                // Can't be full: only this thread fills the ring and we just waited for space.
+                byte[] pcm = ring.claim();
+                if (pcm == null) {
+                    continue;
                 }
 
-                double roadMul = (dominantKind == 0 || dominantKind == 1) ? (anyImpulseActive ? DUCK_FACTOR : 1.0) : DUCK_FACTOR;
-                double damageMul = (dominantKind == 2) ? 1.0 : DUCK_FACTOR;
-                double bumpMul = (dominantKind == 4) ? 1.0 : DUCK_FACTOR;
-                double chimeMul = (dominantKind == 5) ? 1.0 : DUCK_FACTOR;
-
-                boolean debugCapture = DEBUG_CAPTURE_ENABLED.get();
-                if (debugCapture) {
-                    Arrays.fill(dbgSumSq, 0, Math.max(1, bufferChannels), 0.0);
-                    Arrays.fill(dbgPeak, 0, Math.max(1, bufferChannels), 0.0);
+                // Scheduling jitter: how far this block start strayed from "previous start + previous length".
+                if (lastBlockStartNs != 0L) {
+                    jitterTimes.record(Math.abs((nowNs - lastBlockStartNs) - lastBlockNs));
                 }
+                lastBlockStartNs = nowNs;
+                lastBlockNs = (framesPerChunk * 1_000_000_000L) / (long) SAMPLE_RATE;
 
-                int idx = 0;
-                synchronized (impulseLock) {
-                    int waveStep = debugCapture ? Math.max(1, framesPerChunk / DEBUG_WAVE_SAMPLES) : 1;
-                    int waveIndex = 0;
-
-                    for (int i = 0; i < framesPerChunk; i++) {
-                    // Clear per-channel accumulation.
-                    for (int c = 0; c < bufferChannels; c++) {
-                        ch[c] = 0.0;
-                    }
-
-                    double g = startGain + ((endGain - startGain) * (i / (double) framesPerChunk));
-                    double mg = master * g;
-
-                    if (cfg.roadTextureEnabled) {
-                        // Movement textures (continuous): land + flight + swim.
-                        // Directional "wind" impulses are triggered elsewhere, but are gated by this same master switch.
-                        double absSpeed = Math.abs(localSpeed);
-
-                        if (telemetryOnGround) {
-                            // Land movement: filtered noise rumble, speed-scaled.
-                            // Keep this from feeling like an "engine/road" at normal walking speeds:
-                            // ramp in later and with a gentler curve.
-                            double speedRamp = clamp((absSpeed - 0.09) / 0.18, 0.0, 1.0);
-                            speedRamp *= speedRamp;
-
-                            double fc = clamp(cfg.roadTextureCutoffHz, 10.0, 80.0);
-                            double a = 1.0 - Math.exp(-(2.0 * Math.PI * fc) / SAMPLE_RATE);
-                            double white = (random.nextDouble() * 2.0) - 1.0;
-                            roadNoiseState += (white - roadNoiseState) * a;
-
-                            double v = roadNoiseState * clamp(cfg.roadTextureGain, 0.0, 0.50) * speedRamp * roadMul;
-                            addToChannels(ch, bufferChannels, roadMask, v);
-                        }
-
-                        if (telemetryElytra && cfg.movementFlightGain > 0.0001) {
-                            // Flight movement texture: slightly brighter cutoff, engages at higher speed.
-                            double speedRamp = clamp((absSpeed - 0.70) / 1.40, 0.0, 1.0);
-                            speedRamp *= speedRamp;
-
-                            double fc = clamp(cfg.roadTextureCutoffHz + 18.0, 14.0, 90.0);
-                            double a = 1.0 - Math.exp(-(2.0 * Math.PI * fc) / SAMPLE_RATE);
-                            double white = (random.nextDouble() * 2.0) - 1.0;
-                            flightNoiseState += (white - flightNoiseState) * a;
-
-                            double v = flightNoiseState * clamp(cfg.movementFlightGain, 0.0, 1.0) * speedRamp * roadMul;
-                            addToChannels(ch, bufferChannels, roadMask, v);
-                        }
-
-                        if ((telemetryInWater || telemetrySwimming) && cfg.movementSwimGain > 0.0001) {
-                            // Swim movement texture: smoother ramp and a slightly higher cutoff than land.
-                            double speedRamp = clamp((absSpeed - 0.05) / 0.35, 0.0, 1.0);
-                            speedRamp *= speedRamp;
-
-                            double fc = clamp(cfg.roadTextureCutoffHz + 10.0, 12.0, 85.0);
-                            double a = 1.0 - Math.exp(-(2.0 * Math.PI * fc) / SAMPLE_RATE);
-                            double white = (random.nextDouble() * 2.0) - 1.0;
-                            swimNoiseState += (white - swimNoiseState) * a;
-
-                            double v = swimNoiseState * clamp(cfg.movementSwimGain, 0.0, 1.0) * speedRamp * roadMul;
-                            addToChannels(ch, bufferChannels, roadMask, v);
-                        }
-                    }
-
-                    if (cfg.damageBurstEnabled && damageLeft > 0) {
-                        // White noise with quick decay.
-                        int total = Math.max(1, damageBurstTotalSamples.get());
-                        double progress = 1.0 - (damageLeft / (double) total);
-
-                        // Softer, less "clicky" transient: apply a smooth attack envelope and low-pass the noise.
-                        // This keeps the effect tactile (low-frequency) without harsh high-frequency punch.
-                        double fc = 55.0;
-                        double a = 1.0 - Math.exp(-(2.0 * Math.PI * fc) / SAMPLE_RATE);
-                        double white = (random.nextDouble() * 2.0) - 1.0;
-                        damageNoiseState += (white - damageNoiseState) * a;
-
-                        double env = Math.sin(progress * Math.PI) * Math.exp(-progress * 5.0);
-                        double v = damageNoiseState * cfg.damageBurstGain * clamp(damageBurstIntensity, 0.0, 1.0) * env * damageMul;
-                        addToChannels(ch, bufferChannels, damageMask, v);
-                        damageLeft--;
-                    }
-
-                    if (!impulses.isEmpty()) {
-                        for (int vi = impulses.size() - 1; vi >= 0; vi--) {
-                            ImpulseVoice v = impulses.get(vi);
-                            if (v.delaySamplesLeft > 0) {
-                                v.delaySamplesLeft--;
-                                continue;
-                            }
-                            if (v.samplesLeft <= 0 || v.gain <= 0.00001) {
-                                continue;
-                            }
-
-                            int total = Math.max(1, v.totalSamples);
-                            int samplesLeft = Math.max(0, v.samplesLeft);
-                            int sampleIndex = Math.max(0, total - samplesLeft);
-                            double env = impulseEnvelope(
-                                    v.pattern,
-                                    sampleIndex,
-                                    total,
-                                    samplesLeft,
-                                    v.pulsePeriodSamples,
-                                    v.pulseWidthSamples
-                            );
-
-                            double voiceMul;
-                            HapticBus bus = (v.bus == null) ? HapticBus.MODDED : v.bus;
-                            ImpulseVoice dom = dominantImpulseByBus.get(bus);
-                            voiceMul = (dom != null && v == dom) ? 1.0 : DUCK_FACTOR;
-
-                            double overallProgress = (total <= 1) ? 1.0 : clamp(sampleIndex / (double) (total - 1), 0.0, 1.0);
-                            double freqHz = v.startFreqHz + ((v.endFreqHz - v.startFreqHz) * overallProgress);
-                            double w;
-                            if (v.dspGraph != null && v.dspContext != null) {
-                                v.dspContext.retune(v.startFreqHz, v.endFreqHz);
-                                v.dspContext.resize(total);
-                                v.dspContext.sampleIndex = sampleIndex;
-                                w = v.dspGraph.out(v.dspContext);
-                            } else {
-                                double step = (2.0 * Math.PI * freqHz) / SAMPLE_RATE;
-                                double sine = Math.sin(v.phase);
-
-                                // Low-pass the noise component to keep impulses tactile and less "snappy".
-                                double fc = 65.0;
-                                double a = 1.0 - Math.exp(-(2.0 * Math.PI * fc) / SAMPLE_RATE);
-                                double white = (random.nextDouble() * 2.0) - 1.0;
-                                v.noiseState += (white - v.noiseState) * a;
-
-                                w = (sine * (1.0 - v.noiseMix)) + (v.noiseState * v.noiseMix);
-
-                                v.phase += step;
-                                if (v.phase > (2.0 * Math.PI)) {
-                                    v.phase -= (2.0 * Math.PI);
-                                }
-                            }
-                            double voice = w * v.gain * env * voiceMul;
-                                int mask = (v.forcedMask != 0)
-                                    ? v.forcedMask
-                                    : (router.maskForEffectKey(v.debugKey) & router.maskForBus(bus));
-                            addToChannelsSpatial(ch, bufferChannels, mask, v, voice);
-
-                            v.samplesLeft--;
-                        }
-                    }
-
-                    if (cfg.accelBumpEnabled && bumpLeft > 0) {
-                        int total = Math.max(1, accelBumpTotalSamples.get());
-                        double progress = 1.0 - (bumpLeft / (double) total);
-                        double env = Math.sin(progress * Math.PI);
-                        // Low thump around ~32Hz
-                        double bump = Math.sin(bumpPhase) * env;
-                        double v = bump * cfg.accelBumpGain * bumpMul;
-                        addToChannels(ch, bufferChannels, bumpMask, v);
-                        bumpLeft--;
-                    }
-
-                    if (cfg.biomeChimeEnabled && biomeLeft > 0) {
-                        // A short low sine "bump".
-                        int total = Math.max(1, biomeChimeTotalSamples.get());
-                        double progress = 1.0 - (biomeLeft / (double) total);
-                        double env = Math.sin(progress * Math.PI); // bell-ish half-sine envelope
-                        double v = Math.sin(chimePhase) * clamp(cfg.biomeChimeGain, 0.0, 1.0) * env * chimeMul;
-                        addToChannels(ch, bufferChannels, chimeMask, v);
-                        biomeLeft--;
-                    }
-
-                    // Smart Volume (AGC): update once per-frame and apply uniformly.
-                    if (cfg.smartVolumeEnabled) {
-                        smartVolume.updateTarget(cfg.smartVolumeTargetPct);
-                        smartVolume.observeFramePeak(ch, bufferChannels);
-                    } else {
-                        smartVolume.resetIfDisabled();
-                    }
-                    double sv = smartVolume.currentGain();
-
-                    // Per-channel limiter + convert to int16.
-                    double monoSum = 0.0;
-                    for (int c = 0; c < bufferChannels; c++) {
-                        double s = ch[c] * sv;
-                        // Per-transducer calibration (gain + EQ)
-                        if (cfg.soundScapeEnabled) {
-                            s *= transducerGain[c];
-                            s = transducerEq.process(c, s);
-                        }
-                            if (cfg.outputEqEnabled && cfg.outputEqGainDb != 0) {
-                                outputEq.updateIfNeeded(cfg.outputEqFreqHz, cfg.outputEqGainDb, bufferChannels);
-                                s = outputEq.process(c, s);
-                            } else {
-                                outputEq.resetIfDisabled();
-                            }
-
-                            double sample = softClipTanh(s, limiterDrive);
-                        sample = clamp(sample, -1.0, 1.0);
-
-                        double out = sample * mg;
-                        if (debugCapture) {
-                            dbgSumSq[c] += (out * out);
-                            double abs = Math.abs(out);
-                            if (abs > dbgPeak[c]) {
-                                dbgPeak[c] = abs;
-                            }
-                            monoSum += out;
-                        }
-
-                        short s16 = (short) (out * 32767);
-
-                        buffer[idx++] = (byte) (s16 & 0xFF);
-                        buffer[idx++] = (byte) ((s16 >>> 8) & 0xFF);
-                    }
-
-                    if (debugCapture) {
-                        double mono = monoSum / Math.max(1, bufferChannels);
-                        debugMonoRing[debugMonoWrite] = (float) clamp(mono, -1.0, 1.0);
-                        debugMonoWrite = (debugMonoWrite + 1) & (DEBUG_SPECT_FFT_SIZE - 1);
-                        if ((i % waveStep) == 0 && waveIndex < DEBUG_WAVE_SAMPLES) {
-                            debugWave[waveIndex++] = (float) clamp(mono, -1.0, 1.0);
-                        }
-                    }
-
-                    // Fixed low thump oscillator (~32Hz) used for accel bump.
-                    bumpPhase += (2.0 * Math.PI * 32.0) / SAMPLE_RATE;
-                    if (bumpPhase > (2.0 * Math.PI)) {
-                        bumpPhase -= (2.0 * Math.PI);
-                    }
-
-                    // Fixed low chime oscillator (~80Hz)
-                    chimePhase += (2.0 * Math.PI * 80.0) / SAMPLE_RATE;
-                    if (chimePhase > (2.0 * Math.PI)) {
-                        chimePhase -= (2.0 * Math.PI);
-                    }
-                }
-                }
+                // Channel count may have changed when the device (re)opened above.
+                long renderStartNs = System.nanoTime();
+                long blockStartFrame = sampleClock;
+                mixBlock(cfg, cfgRevision, mix, framesPerChunk, bufferChannels, hasFreshTelemetry, nowNs, pcm);
+                renderTimes.record(System.nanoTime() - renderStartNs);
 
-                if (debugCapture) {
+                if (DEBUG_ANALYZER.isEnabled()) {
+                    // Hand the raw block to the analyzer thread; all analysis happens there.
                     int fmtFrameSize = 0;
                     try {
                         AudioFormat fmt = device.format();
                         fmtFrameSize = (fmt == null) ? 0 : fmt.getFrameSize();
                     } catch (Exception ignored) {
                     }
-
                     int bufferBytes = (device == null) ? -1 : device.bufferSizeBytes();
                     int availableBytes = (device == null) ? -1 : device.availableBytes();
-                    double bufferMs = 0.0;
-                    double queuedMs = 0.0;
-                    if (bufferBytes > 0 && fmtFrameSize > 0) {
-                        int frames = bufferBytes / fmtFrameSize;
-                        bufferMs = (frames * 1000.0) / SAMPLE_RATE;
-                    }
-                    if (bufferBytes > 0 && availableBytes >= 0 && fmtFrameSize > 0) {
-                        int queuedBytes = Math.max(0, bufferBytes - availableBytes);
-                        int queuedFrames = queuedBytes / fmtFrameSize;
-                        queuedMs = (queuedFrames * 1000.0) / SAMPLE_RATE;
-                    }
-
-                    // FFT-based low-frequency "spectrogram" (bins 1..DEBUG_SPECT_BINS).
-                    for (int n = 0; n < DEBUG_SPECT_FFT_SIZE; n++) {
-                        int src = (debugMonoWrite + n) & (DEBUG_SPECT_FFT_SIZE - 1);
-                        double x = debugMonoRing[src];
-                        double w = 0.5 - (0.5 * Math.cos((2.0 * Math.PI * n) / (DEBUG_SPECT_FFT_SIZE - 1)));
-                        fftReal[n] = x * w;
-                        fftImag[n] = 0.0;
-                    }
-                    fftRadix2InPlace(fftReal, fftImag);
-
-                    int colBase = debugSpectWriteCol * DEBUG_SPECT_BINS;
-                    double norm = Math.max(1.0, DEBUG_SPECT_FFT_SIZE / 2.0);
-                    for (int b = 0; b < DEBUG_SPECT_BINS; b++) {
-                        int k = b + 1;
-                        double re = fftReal[k];
-                        double im = fftImag[k];
-                        double mag = Math.sqrt((re * re) + (im * im)) / norm;
-                        double db = 20.0 * Math.log10(mag + 1.0e-9);
-                        double v = (db + 60.0) / 60.0; // -60dB..0dB -> 0..1
-                        debugSpect[colBase + b] = (float) clamp(v, 0.0, 1.0);
-                    }
-                    debugSpectWriteCol = (debugSpectWriteCol + 1) % DEBUG_SPECT_COLS;
-
-                    float[] rms01 = new float[bufferChannels];
-                    float[] peak01 = new float[bufferChannels];
-                    for (int c = 0; c < bufferChannels; c++) {
-                        double rms = Math.sqrt(dbgSumSq[c] / Math.max(1, framesPerChunk));
-                        rms01[c] = (float) clamp(rms, 0.0, 1.0);
-                        peak01[c] = (float) clamp(dbgPeak[c], 0.0, 1.0);
-                    }
-
-                    DEBUG_SNAPSHOT.set(new DebugSnapshot(
-                            nowNs,
-                            bufferChannels,
-                            rms01,
-                            peak01,
-                            Arrays.copyOf(debugWave, debugWave.length),
-                            Arrays.copyOf(debugSpect, debugSpect.length),
-                            DEBUG_SPECT_COLS,
-                            DEBUG_SPECT_BINS,
-                            debugSpectWriteCol,
-                            bufferBytes,
-                            availableBytes,
-                            bufferMs,
-                            queuedMs
-                    ));
-                }
-
-                synchronized (impulseLock) {
-                    for (int vi = impulses.size() - 1; vi >= 0; vi--) {
-                        ImpulseVoice v = impulses.get(vi);
-                        if (v.delaySamplesLeft <= 0 && v.samplesLeft <= 0) {
-                            impulses.remove(vi);
-                        }
-                    }
-                }
-
-                if (cfg.damageBurstEnabled) {
-                    damageBurstSamplesLeft.set(Math.max(0, damageLeft));
-                    if (damageLeft <= 0) {
-                        damageBurstIntensity = 1.0;
-                    }
-                } else {
-                    damageBurstSamplesLeft.set(0);
-                    damageBurstIntensity = 1.0;
+                    DEBUG_ANALYZER.offer(mix.renderer.output(), framesPerChunk, bufferChannels, nowNs,
+                            bufferBytes, availableBytes, fmtFrameSize);
                 }
 
-                if (cfg.accelBumpEnabled) {
-                    accelBumpSamplesLeft.set(Math.max(0, bumpLeft));
-                } else {
-                    accelBumpSamplesLeft.set(0);
-                }
-
-                if (cfg.biomeChimeEnabled) {
-                    biomeChimeSamplesLeft.set(Math.max(0, biomeLeft));
-                } else {
-                    biomeChimeSamplesLeft.set(0);
-                }
+                ring.publish(framesPerChunk * bufferChannels * BYTES_PER_SAMPLE, blockStartFrame);
+                writer.signal();
 
-                try {
-                    device.write(buffer, 0, buffer.length);
-                } catch (Exception e) {
-                    LOGGER.warn("[BST] Audio write failed ({}); reopening device", e.toString());
-                    try {
-                        device.stopFlushClose();
-                    } catch (Exception ignored) {
-                    }
-                    device = null;
+                if ((nowNs - statsWindowStartNs) >= ENGINE_STATS_WINDOW_NS) {
+                    long ringUnderruns = writer.ringUnderruns();
+                    long deviceUnderruns = writer.deviceUnderruns();
+                    long clipHits = clipCache.hits();
+                    long clipMisses = clipCache.misses();
+                    EngineStats stats = new EngineStats(
+                            nowNs,
+                            nowNs - statsWindowStartNs,
+                            (framesPerChunk * 1000.0) / SAMPLE_RATE,
+                            renderTimes.summarize(),
+                            writer.writeTimes().summarize(),
+                            jitterTimes.summarize(),
+                            ringUnderruns,
+                            deviceUnderruns,
+                            ringUnderruns - statsRingUnderruns,
+                            deviceUnderruns - statsDeviceUnderruns,
+                            clipHits - statsClipHits,
+                            clipMisses - statsClipMisses,
+                            clipCache.bytes(),
+                            clipCache.size());
+                    // Published only; WebSocketTelemetryController sends it from the client thread.
+                    engineStats = stats;
+                    statsWindowStartNs = nowNs;
+                    statsRingUnderruns = ringUnderruns;
+                    statsDeviceUnderruns = deviceUnderruns;
+                    statsClipHits = clipHits;
+                    statsClipMisses = clipMisses;
                 }
             }
         } catch (Exception e) {
             LOGGER.error("[BST] Audio thread crashed", e);
         } finally {
+            PcmDeviceWriter writer = pcmWriter;
+            if (writer != null) {
+                writer.detach();
+                writer.stop();
+            }
+            pcmWriter = null;
+            pcmRing = null;
             if (device != null) {
                 try {
                     device.stopFlushClose();
@@ -1706,61 +1569,338 @@ public final class AudioOutputEngine {
         }
     }
 
-    private static void addToChannels(double[] ch, int channelCount, int mask, double v) {
-        if (v == 0.0) {
-            return;
+    /**
+     * Render-thread state carried from one block to the next (shared shape for live and offline rendering).
+     */
+    static final class MixState {
+        final HapticRenderer renderer;
+        final HapticRenderer.Block block = new HapticRenderer.Block();
+        final EnumMap<HapticBus, ImpulseVoice> dominantByBus = new EnumMap<>(HapticBus.class);
+        // Fade in/out when telemetry appears/disappears.
+        double streamGain;
+
+        // Telemetry copy for the current block.
+        final TelemetryState.View telemetry = new TelemetryState.View();
+        // Compiled config for the last (revision, channels) seen.
+        RenderParams params;
+
+        MixState(int maxFrames, long seed) {
+            this.renderer = new HapticRenderer(maxFrames, seed);
         }
-        int m = mask;
-        if (m == 0) {
-            // Default: all channels.
-            if (channelCount == 2) {
-                ch[0] += v;
-                ch[1] += v;
-                return;
+    }
+
+    /**
+     * Mixes one block into {@code pcm}: dominance/ducking, movement textures, one-shots, impulse voices,
+     * routing, EQ and limiter, then retires finished voices and one-shot counters.
+     *
+     * <p>Used by {@link #runLoop()} and {@link OfflineRenderer}. Render thread (or the offline caller) only;
+     * voice commands must already be drained.
+     */
+    void mixBlock(BstConfig.Data cfg, long cfgRevision, MixState mix, int frames, int channels, boolean hasFreshTelemetry, long nowNs, byte[] pcm) {
+        // Speed at the block edges; the renderer ramps movement gain per sample between them.
+        TelemetryState.View tv = mix.telemetry;
+        telemetry.read(tv);
+        double speedStart = tv.speedAt(nowNs);
+        double speedEnd = tv.speedAt(nowNs + (long) ((frames * 1_000_000_000.0) / SAMPLE_RATE));
+        double localSpeed = Math.max(speedStart, speedEnd);
+        boolean onGround = tv.has(TelemetryState.FLAG_ON_GROUND);
+        boolean elytra = tv.has(TelemetryState.FLAG_ELYTRA);
+        boolean inWater = tv.has(TelemetryState.FLAG_IN_WATER) || tv.has(TelemetryState.FLAG_SWIMMING);
+
+        // Stream gating (fade in/out when telemetry appears/disappears)
+        double targetStreamGain = hasFreshTelemetry ? 1.0 : 0.0;
+        double startGain = mix.streamGain;
+        // 0.08 per 10ms block; scaled so fades keep their length when the chunk size changes.
+        mix.streamGain += (targetStreamGain - mix.streamGain) * Math.min(1.0, 0.08 * (frames / 480.0));
+        double endGain = mix.streamGain;
+
+        // Config is read once per revision into RenderParams; the mix below only reads that.
+        SoundScapeRouter router = currentRouter(cfg, cfgRevision, channels);
+        RenderParams p = mix.params;
+        if (p == null || !p.matches(cfgRevision, channels)) {
+            p = RenderParams.compile(cfg, cfgRevision, channels, router);
+            mix.params = p;
+        }
+
+        int damageLeft = damageBurstSamplesLeft.get();
+        int biomeLeft = biomeChimeSamplesLeft.get();
+        int bumpLeft = accelBumpSamplesLeft.get();
+
+        // Delayed voices whose start falls in this block join the active list (offset into the block).
+        impulses.activateDue(sampleClock, frames);
+
+        // Determine the single dominant source for this chunk.
+        int dominantKind = 0; // 0 none, 1 road, 2 damage, 3 impulse, 4 bump, 5 chime
+        int dominantPriority = -1;
+        double dominantStrength = -1.0;
+        ImpulseVoice dominantImpulse = null;
+        mix.dominantByBus.clear();
+
+        // Movement textures: low priority continuous (land/flight/swim), all gated by roadTextureEnabled.
+        double movementStrength = -1.0;
+        boolean movementActiveForDominance = false;
+        if (p.roadTextureEnabled) {
+            if (onGround && p.roadTextureGain > 0.0001 && Math.abs(localSpeed) > 0.09) {
+                movementActiveForDominance = true;
+                movementStrength = Math.max(movementStrength, p.roadTextureGain);
             }
-            for (int c = 0; c < channelCount; c++) {
-                ch[c] += v;
+            if (elytra && p.movementFlightGain > 0.0001 && Math.abs(localSpeed) > 0.70) {
+                movementActiveForDominance = true;
+                movementStrength = Math.max(movementStrength, p.movementFlightGain);
             }
-            return;
+            if (inWater && p.movementSwimGain > 0.0001 && Math.abs(localSpeed) > 0.05) {
+                movementActiveForDominance = true;
+                movementStrength = Math.max(movementStrength, p.movementSwimGain);
+            }
+        }
+
+        if (movementActiveForDominance) {
+            dominantKind = 1;
+            dominantPriority = 1;
+            dominantStrength = movementStrength;
         }
 
-        for (int c = 0; c < channelCount; c++) {
-            if (((m >>> c) & 1) != 0) {
-                ch[c] += v;
+        // Damage burst: very high priority.
+        if (p.damageBurstEnabled && damageLeft > 0) {
+            int pri = 10;
+            double strength = p.damageBurstGain * clamp(damageBurstIntensity, 0.0, 1.0);
+            if (pri > dominantPriority || (pri == dominantPriority && strength > dominantStrength)) {
+                dominantKind = 2;
+                dominantPriority = pri;
+                dominantStrength = strength;
             }
         }
-    }
 
-    private static final String[] CHANNEL_IDS_7_1 = new String[]{"FL", "FR", "C", "LFE", "SL", "SR", "BL", "BR"};
+        // Impulses: choose a dominant voice per bus (multi-bus foundation).
+        for (int vi = impulses.size() - 1; vi >= 0; vi--) {
+            ImpulseVoice v = impulses.get(vi);
+            if (v.delaySamplesLeft > 0) {
+                continue;
+            }
+            if (v.samplesLeft <= 0 || v.gain <= 0.00001) {
+                continue;
+            }
 
-    private static void fillTransducerGains(BstConfig.Data cfg, int channelCount, float[] out) {
-        if (out == null) {
-            return;
+            HapticBus bus = (v.bus == null) ? HapticBus.MODDED : v.bus;
+            ImpulseVoice dom = mix.dominantByBus.get(bus);
+            if (dom == null
+                    || v.priority > dom.priority
+                    || (v.priority == dom.priority && v.gain > dom.gain)
+                    || (v.priority == dom.priority && v.gain == dom.gain && v.createdNanos > dom.createdNanos)) {
+                mix.dominantByBus.put(bus, v);
+            }
         }
-        int n = (channelCount == 8) ? 8 : 2;
-        for (int i = 0; i < n; i++) {
-            out[i] = 1.0f;
+        // For debug display: pick the overall best impulse across buses.
+        for (ImpulseVoice v : mix.dominantByBus.values()) {
+            if (v == null) {
+                continue;
+            }
+            if (dominantImpulse == null
+                    || v.priority > dominantImpulse.priority
+                    || (v.priority == dominantImpulse.priority && v.gain > dominantImpulse.gain)
+                    || (v.priority == dominantImpulse.priority && v.gain == dominantImpulse.gain && v.createdNanos > dominantImpulse.createdNanos)) {
+                dominantImpulse = v;
+            }
         }
-        if (cfg == null || cfg.soundScapeCalibration == null) {
-            return;
+
+        // Accel bump: medium-high priority.
+        if (p.accelBumpEnabled && bumpLeft > 0) {
+            int pri = 7;
+            double strength = p.accelBumpGain;
+            if (pri > dominantPriority || (pri == dominantPriority && strength > dominantStrength)) {
+                dominantKind = 4;
+                dominantPriority = pri;
+                dominantStrength = strength;
+            }
+        }
+
+        // Biome chime: medium priority.
+        if (p.biomeChimeEnabled && biomeLeft > 0) {
+            int pri = 4;
+            double strength = p.biomeChimeGain;
+            if (pri > dominantPriority || (pri == dominantPriority && strength > dominantStrength)) {
+                dominantKind = 5;
+                dominantPriority = pri;
+                dominantStrength = strength;
+            }
+        }
+
+        boolean anyImpulseActive = !mix.dominantByBus.isEmpty();
+
+        // Debug-only dominant: allow impulses to win, without affecting mixing.
+        int debugKind = dominantKind;
+        int debugPriority = dominantPriority;
+        double debugStrength = dominantStrength;
+        ImpulseVoice debugImpulse = null;
+        if (dominantImpulse != null) {
+            int pri = dominantImpulse.priority;
+            double strength = dominantImpulse.gain;
+            if (pri > debugPriority || (pri == debugPriority && strength > debugStrength)) {
+                debugKind = 3;
+                debugPriority = pri;
+                debugStrength = strength;
+                debugImpulse = dominantImpulse;
+            }
+        }
+
+        // Update dominant debug snapshot (only when it changes).
+        String domLabel;
+        double domFreq = 0.0;
+        double domGain = 0.0;
+        if (debugKind == 1) {
+            domLabel = "road";
+            domGain = dominantStrength;
+        } else if (debugKind == 2) {
+            domLabel = "damage";
+            domGain = dominantStrength;
+        } else if (debugKind == 4) {
+            domLabel = "accel_bump";
+            domGain = dominantStrength;
+        } else if (debugKind == 5) {
+            domLabel = "biome_chime";
+            domGain = dominantStrength;
+        } else if (debugKind == 3 && debugImpulse != null) {
+            String dk = (debugImpulse.debugKey == null) ? "" : debugImpulse.debugKey;
+            domLabel = dk.isBlank() ? "impulse" : dk;
+            if (Math.abs(debugImpulse.endFreqHz - debugImpulse.startFreqHz) > 0.01) {
+                domFreq = (debugImpulse.startFreqHz + debugImpulse.endFreqHz) * 0.5;
+            } else {
+                domFreq = debugImpulse.freqHz;
+            }
+            domGain = debugImpulse.gain;
+        } else {
+            domLabel = "none";
         }
-        for (int c = 0; c < n; c++) {
-            String id = (n == 2) ? ((c == 0) ? "FL" : "FR") : CHANNEL_IDS_7_1[c];
-            BstConfig.Data.TransducerCalibration cal = cfg.soundScapeCalibration.get(id);
-            double db = (cal == null) ? 0.0 : cal.gainDb;
-            double comfort = (cal == null) ? 1.0 : cal.comfortLimit01;
-            comfort = clamp(comfort, 0.0, 1.0);
-            out[c] = (float) (dbToLinear(db) * comfort);
+
+        boolean differsFromPublished = !domLabel.equals(debugDominantLabel)
+            || debugPriority != debugDominantPriority
+                || Math.abs(domFreq - debugDominantFreqHz) > 0.05
+                || Math.abs(domGain - debugDominantGain01) > 0.01;
+
+        if (!differsFromPublished) {
+            // Candidate matches what's already published; clear any pending transition.
+            pendingDominantSinceNs = 0L;
+        } else {
+            boolean matchesPending = domLabel.equals(pendingDominantLabel)
+                    && debugPriority == pendingDominantPriority
+                    && Math.abs(domFreq - pendingDominantFreqHz) <= 0.05
+                    && Math.abs(domGain - pendingDominantGain01) <= 0.01;
+
+            if (!matchesPending) {
+                pendingDominantLabel = domLabel;
+                pendingDominantPriority = debugPriority;
+                pendingDominantFreqHz = domFreq;
+                pendingDominantGain01 = domGain;
+                pendingDominantSinceNs = nowNs;
+            } else if (pendingDominantSinceNs > 0L && (nowNs - pendingDominantSinceNs) >= DEBUG_DOMINANT_HYSTERESIS_NS) {
+                // Only publish once the candidate has remained stable long enough.
+                debugDominantLabel = pendingDominantLabel;
+                debugDominantPriority = pendingDominantPriority;
+                debugDominantFreqHz = pendingDominantFreqHz;
+                debugDominantGain01 = pendingDominantGain01;
+                pendingDominantSinceNs = 0L;
+            }
+        }
+
+        double roadMul = (dominantKind == 0 || dominantKind == 1) ? (anyImpulseActive ? DUCK_FACTOR : 1.0) : DUCK_FACTOR;
+        double damageMul = (dominantKind == 2) ? 1.0 : DUCK_FACTOR;
+        double bumpMul = (dominantKind == 4) ? 1.0 : DUCK_FACTOR;
+        double chimeMul = (dominantKind == 5) ? 1.0 : DUCK_FACTOR;
+
+        HapticRenderer.Block block = mix.block;
+        block.frames = frames;
+        block.channels = channels;
+        block.params = p;
+        block.startGain = startGain;
+        block.endGain = endGain;
+        block.speed = speedStart;
+        block.speedEnd = speedEnd;
+        block.onGround = onGround;
+        block.elytra = elytra;
+        block.inWater = inWater;
+        block.roadMul = roadMul;
+        block.damageMul = damageMul;
+        block.bumpMul = bumpMul;
+        block.chimeMul = chimeMul;
+        block.damageLeft = damageLeft;
+        block.damageTotal = damageBurstTotalSamples.get();
+        block.damageIntensity = damageBurstIntensity;
+        block.bumpLeft = bumpLeft;
+        block.bumpTotal = accelBumpTotalSamples.get();
+        block.chimeLeft = biomeLeft;
+        block.chimeTotal = biomeChimeTotalSamples.get();
+        block.router = router;
+        block.dominantByBus = mix.dominantByBus;
+
+        mix.renderer.render(block, impulses, pcm);
+
+        damageLeft = block.damageLeft;
+        bumpLeft = block.bumpLeft;
+        biomeLeft = block.chimeLeft;
+
+        // Swap-removal: walk downward so the voice moved into vi has already been checked.
+        for (int vi = impulses.size() - 1; vi >= 0; vi--) {
+            ImpulseVoice v = impulses.get(vi);
+            if (v.delaySamplesLeft <= 0 && v.samplesLeft <= 0) {
+                impulses.releaseAt(vi);
+            }
+        }
+
+        if (p.damageBurstEnabled) {
+            damageBurstSamplesLeft.set(Math.max(0, damageLeft));
+            if (damageLeft <= 0) {
+                damageBurstIntensity = 1.0;
+            }
+        } else {
+            damageBurstSamplesLeft.set(0);
+            damageBurstIntensity = 1.0;
+        }
+
+        if (p.accelBumpEnabled) {
+            accelBumpSamplesLeft.set(Math.max(0, bumpLeft));
+        } else {
+            accelBumpSamplesLeft.set(0);
+        }
+
+        if (p.biomeChimeEnabled) {
+            biomeChimeSamplesLeft.set(Math.max(0, biomeLeft));
+        } else {
+            biomeChimeSamplesLeft.set(0);
+        }
+
+        sampleClock += frames;
+    }
+
+    /**
+     * Parks the render thread until fewer than {@code aheadBlocks} blocks are queued
+     * (the writer unparks us after each write).
+     */
+    private void awaitRingSpace(PcmBlockRing ring, PcmDeviceWriter writer, int aheadBlocks) {
+        int ahead = clampInt(aheadBlocks, 1, ring.capacity());
+        while (running.get()) {
+            if (ring.size() < ahead) {
+                return;
+            }
+            if (writer.hasFailed()) {
+                // The loop top reopens the device on the next pass.
+                return;
+            }
+            LockSupport.parkNanos(2_000_000L);
         }
     }
 
-    private static float dbToLinear(double db) {
-        double d = db;
-        if (!Double.isFinite(d)) {
-            d = 0.0;
+    private static int deviceBufferMs(AudioOutputDevice device) {
+        try {
+            AudioFormat fmt = device.format();
+            int frameSize = (fmt == null) ? 0 : fmt.getFrameSize();
+            int bytes = device.bufferSizeBytes();
+            if (frameSize <= 0 || bytes <= 0) {
+                return 0;
+            }
+            return (int) Math.round((bytes / (double) frameSize) * 1000.0 / SAMPLE_RATE);
+        } catch (Exception ignored) {
+            return 0;
         }
-        d = clamp(d, -24.0, 24.0);
-        return (float) Math.pow(10.0, d / 20.0);
     }
 
     private static int forcedMaskFromDebugKey(String debugKey) {
@@ -1791,38 +1931,6 @@ public final class AudioOutputEngine {
         };
     }
 
-    private static void addToChannelsSpatial(double[] ch, int channelCount, int mask, ImpulseVoice voice, double v) {
-        if (voice == null) {
-            addToChannels(ch, channelCount, mask, v);
-            return;
-        }
-        if (v == 0.0) {
-            return;
-        }
-        if (!voice.spatialEnabled) {
-            addToChannels(ch, channelCount, mask, v);
-            return;
-        }
-        int m = (mask == 0) ? ((channelCount == 8) ? 0xFF : 0x03) : mask;
-        voice.ensureMaskedPan(channelCount, m);
-
-        if (channelCount == 2) {
-            if ((m & 0x01) != 0) ch[0] += v * voice.maskedPan2L;
-            if ((m & 0x02) != 0) ch[1] += v * voice.maskedPan2R;
-            return;
-        }
-
-        // 8ch (7.1) expected; channelCount is clamped elsewhere.
-        if ((m & 0x01) != 0) ch[0] += v * voice.maskedPan8FL;
-        if ((m & 0x02) != 0) ch[1] += v * voice.maskedPan8FR;
-        if ((m & 0x04) != 0) ch[2] += v * voice.maskedPan8C;
-        if ((m & 0x08) != 0) ch[3] += v * voice.maskedPan8LFE;
-        if ((m & 0x10) != 0) ch[4] += v * voice.maskedPan8SL;
-        if ((m & 0x20) != 0) ch[5] += v * voice.maskedPan8SR;
-        if ((m & 0x40) != 0) ch[6] += v * voice.maskedPan8BL;
-        if ((m & 0x80) != 0) ch[7] += v * voice.maskedPan8BR;
-    }
-
     private static void initVoiceSpatial(ImpulseVoice v, BstConfig.Data cfg, double azimuthDeg, double distanceM) {
         if (v == null) {
             return;
@@ -2019,186 +2127,6 @@ public final class AudioOutputEngine {
         }
     }
 
-    private static final class SoundScapeRouter {
-        private final int channelCount;
-        private final int allMask;
-        private final Map<String, Integer> groupMasks = new java.util.HashMap<>();
-        private final Map<String, Integer> categoryMasks = new java.util.HashMap<>();
-        private final Map<String, Integer> overrideMasks = new java.util.HashMap<>();
-        private final Map<String, Integer> busMasks = new java.util.HashMap<>();
-
-        SoundScapeRouter(BstConfig.Data cfg, int channelCount) {
-            this.channelCount = (channelCount == 8) ? 8 : 2;
-            this.allMask = (this.channelCount == 8) ? 0xFF : 0x03;
-
-            Map<String, java.util.List<String>> groups = (cfg == null) ? null : cfg.soundScapeGroups;
-            if (groups != null) {
-                for (Map.Entry<String, java.util.List<String>> e : groups.entrySet()) {
-                    if (e == null) continue;
-                    String name = (e.getKey() == null) ? "" : e.getKey().trim();
-                    if (name.isEmpty()) continue;
-                    int mask = 0;
-                    java.util.List<String> members = e.getValue();
-                    if (members != null) {
-                        for (String m : members) {
-                            mask |= channelIdToMask(m);
-                        }
-                    }
-                    if (mask != 0) {
-                        groupMasks.put(name.toLowerCase(java.util.Locale.ROOT), mask);
-                    }
-                }
-            }
-
-            // Ensure All exists.
-            groupMasks.putIfAbsent("all", allMask);
-
-            Map<String, String> cats = (cfg == null) ? null : cfg.soundScapeCategoryRouting;
-            if (cats != null) {
-                for (Map.Entry<String, String> e : cats.entrySet()) {
-                    if (e == null) continue;
-                    String k = (e.getKey() == null) ? "" : e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
-                    if (k.isEmpty()) continue;
-                    categoryMasks.put(k, targetToMask(e.getValue()));
-                }
-            }
-
-            Map<String, String> overrides = (cfg == null) ? null : cfg.soundScapeOverrides;
-            if (overrides != null) {
-                for (Map.Entry<String, String> e : overrides.entrySet()) {
-                    if (e == null) continue;
-                    String k = (e.getKey() == null) ? "" : e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
-                    if (k.isEmpty()) continue;
-                    overrideMasks.put(k, targetToMask(e.getValue()));
-                }
-            }
-
-            Map<String, String> buses = (cfg == null) ? null : cfg.soundScapeBusRouting;
-            if (buses != null) {
-                for (Map.Entry<String, String> e : buses.entrySet()) {
-                    if (e == null) continue;
-                    String k = (e.getKey() == null) ? "" : e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
-                    if (k.isEmpty()) continue;
-                    busMasks.put(k, targetToMask(e.getValue()));
-                }
-            }
-
-            // Defaults: if a bus isn't explicitly set, treat it as All.
-            busMasks.putIfAbsent("ui", allMask);
-            busMasks.putIfAbsent("danger", allMask);
-            busMasks.putIfAbsent("environmental", allMask);
-            busMasks.putIfAbsent("continuous", allMask);
-            busMasks.putIfAbsent("impact", allMask);
-            busMasks.putIfAbsent("modded", allMask);
-        }
-
-        int maskForCategory(String categoryKey) {
-            if (categoryKey == null) {
-                return allMask;
-            }
-            String k = categoryKey.trim().toLowerCase(java.util.Locale.ROOT);
-            if (k.isEmpty()) {
-                return allMask;
-            }
-            Integer m = categoryMasks.get(k);
-            return (m == null || m == 0) ? allMask : m;
-        }
-
-        int maskForEffectKey(String debugKey) {
-            if (debugKey == null || debugKey.isBlank()) {
-                return maskForCategory(BstConfig.SoundScapeCategories.CUSTOM);
-            }
-            String k = debugKey.trim().toLowerCase(java.util.Locale.ROOT);
-            Integer o = overrideMasks.get(k);
-            if (o != null && o != 0) {
-                return o;
-            }
-            String cat = classifyCategory(k);
-            return maskForCategory(cat);
-        }
-
-        int maskForBus(HapticBus bus) {
-            if (bus == null) {
-                return allMask;
-            }
-            String key = switch (bus) {
-                case UI -> "ui";
-                case DANGER -> "danger";
-                case ENVIRONMENTAL -> "environmental";
-                case CONTINUOUS -> "continuous";
-                case IMPACT -> "impact";
-                case MODDED -> "modded";
-            };
-            Integer m = busMasks.get(key);
-            return (m == null || m == 0) ? allMask : m;
-        }
-
-        private String classifyCategory(String key) {
-            if (key.startsWith("damage.")) return BstConfig.SoundScapeCategories.DAMAGE;
-            if (key.startsWith("movement.")) return BstConfig.SoundScapeCategories.FOOTSTEPS;
-            if (key.startsWith("mining.")) return BstConfig.SoundScapeCategories.MINING_SWING;
-            if (key.startsWith("mount.") || key.startsWith("flight.")) return BstConfig.SoundScapeCategories.MOUNTED;
-            if (key.startsWith("gameplay.")) return BstConfig.SoundScapeCategories.GAMEPLAY;
-
-            // Sound buckets (from SoundHapticsHandler) and everything else default here.
-            return BstConfig.SoundScapeCategories.SOUND;
-        }
-
-        private int targetToMask(String raw) {
-            if (raw == null || raw.isBlank()) {
-                return allMask;
-            }
-            String v = raw.trim();
-            String lower = v.toLowerCase(java.util.Locale.ROOT);
-            if (lower.startsWith("ch:")) {
-                return channelIdToMask(v.substring(3));
-            }
-            if (lower.startsWith("grp:")) {
-                String name = v.substring(4).trim().toLowerCase(java.util.Locale.ROOT);
-                if (name.isEmpty()) {
-                    return allMask;
-                }
-                Integer m = groupMasks.get(name);
-                return (m == null || m == 0) ? allMask : m;
-            }
-
-            // Allow bare channel ids.
-            int asCh = channelIdToMask(v);
-            if (asCh != 0) {
-                return asCh;
-            }
-
-            // Treat as group name.
-            Integer m = groupMasks.get(lower);
-            return (m == null || m == 0) ? allMask : m;
-        }
-
-        private int channelIdToMask(String raw) {
-            if (raw == null) return 0;
-            String v = raw.trim().toUpperCase(java.util.Locale.ROOT);
-            if (v.isEmpty()) return 0;
-
-            // Stereo fallback: any non-FL/FR channel collapses to both.
-            if (channelCount == 2) {
-                if ("FL".equals(v) || "L".equals(v)) return 0x01;
-                if ("FR".equals(v) || "R".equals(v)) return 0x02;
-                return 0x03;
-            }
-
-            return switch (v) {
-                case "FL", "L" -> 0x01;
-                case "FR", "R" -> 0x02;
-                case "C" -> 0x04;
-                case "LFE" -> 0x08;
-                case "SL" -> 0x10;
-                case "SR" -> 0x20;
-                case "BL" -> 0x40;
-                case "BR" -> 0x80;
-                default -> 0;
-            };
-        }
-    }
-
     private static double clamp(double v, double min, double max) {
         if (v < min) return min;
         if (v > max) return max;
@@ -2210,509 +2138,4 @@ public final class AudioOutputEngine {
         if (v > max) return max;
         return v;
     }
-
-    private static double softClipTanh(double x, double drive) {
-        double d = clamp(drive, 1.0, 12.0);
-        double denom = Math.tanh(d);
-        if (denom == 0.0) {
-            return clamp(x, -1.0, 1.0);
-        }
-        return Math.tanh(x * d) / denom;
-    }
-
-    private static double impulseEnvelope(String pattern, int sampleIndex, int totalSamples, int samplesLeft, int pulsePeriodSamples, int pulseWidthSamples) {
-        double overallProgress = (totalSamples <= 1) ? 1.0 : clamp(sampleIndex / (double) (totalSamples - 1), 0.0, 1.0);
-
-        String p = (pattern == null) ? "single" : pattern.trim().toLowerCase();
-
-        // Small attack/release to avoid clicks when starting/stopping.
-        // Some patterns intentionally override this to feel softer (gameplay clicks) or punchier (damage).
-        double attackMs;
-        double releaseMs;
-        switch (p) {
-            case "soft_single" -> {
-                attackMs = 0.020; // 20ms
-                releaseMs = 0.028; // 28ms
-            }
-            case "punch" -> {
-                attackMs = 0.003; // 3ms
-                releaseMs = 0.012; // 12ms
-            }
-            default -> {
-                attackMs = 0.010; // 10ms
-                releaseMs = 0.015; // 15ms
-            }
-        }
-
-        int attackSamples = (int) (SAMPLE_RATE * attackMs);
-        int releaseSamples = (int) (SAMPLE_RATE * releaseMs);
-        double attack = (attackSamples <= 0) ? 1.0 : clamp(sampleIndex / (double) attackSamples, 0.0, 1.0);
-        double release = (releaseSamples <= 0) ? 1.0 : clamp(samplesLeft / (double) releaseSamples, 0.0, 1.0);
-
-        double env;
-
-        switch (p) {
-            case "flat" -> {
-                // Constant sustain (tone-friendly). Attack/release above prevents clicks.
-                env = 1.0;
-            }
-            case "fade_out" -> {
-                // Strong at the start, fades to 0 over the duration.
-                env = Math.pow(1.0 - overallProgress, 1.15);
-            }
-            case "shockwave" -> {
-                // Punchy onset then rapid decay.
-                env = Math.exp(-overallProgress * 6.0);
-            }
-            case "punch" -> {
-                // Like shockwave but with a shorter attack to feel more abrupt.
-                env = Math.exp(-overallProgress * 6.6);
-            }
-            case "pulse_loop" -> {
-                int period = Math.max(1, pulsePeriodSamples);
-                int width = Math.max(1, Math.min(pulseWidthSamples, period));
-                int inPeriod = sampleIndex % period;
-                if (inPeriod >= width) {
-                    env = 0.0;
-                } else {
-                    double pulseProgress = inPeriod / (double) width;
-                    double e = Math.sin(pulseProgress * Math.PI);
-                    env = e * e;
-                }
-                // Add a gentle overall decay so long loops don't feel too “stuck on”.
-                env *= (0.65 + (0.35 * (1.0 - overallProgress)));
-            }
-            case "single" -> {
-                // Raised-cosine envelope (sin^2) reduces attack punch vs a simple half-sine.
-                double e = Math.sin(overallProgress * Math.PI);
-                env = e * e;
-            }
-            case "soft_single" -> {
-                // Same general shape as "single" but paired with a longer attack/release above.
-                double e = Math.sin(overallProgress * Math.PI);
-                env = e * e;
-            }
-            default -> {
-                double e = Math.sin(overallProgress * Math.PI);
-                env = e * e;
-            }
-        }
-
-        return env * attack * release;
-    }
-
-    private static final class ImpulseVoice {
-        int totalSamples;
-        int samplesLeft;
-        int delaySamplesLeft;
-
-        double freqHz;
-        double startFreqHz;
-        double endFreqHz;
-        double gain;
-        double noiseMix;
-        String pattern;
-        String debugKey;
-        String instrumentId;
-        int forcedMask;
-        int pulsePeriodSamples;
-        int pulseWidthSamples;
-
-        double phase;
-        double noiseState;
-
-        DspGraphInstance dspGraph;
-        DspContext dspContext;
-
-        int priority;
-        HapticBus bus;
-        long createdNanos;
-
-        // --- Phase 3: Spatial panning ---
-        /** True when the caller provided a non-center direction hint for this voice. */
-        boolean spatialDesired;
-        boolean spatialEnabled;
-        double spatialAzimuthDeg;
-        double spatialDistanceM;
-
-        // Base pan gains (pre-mask, pre-normalization)
-        float basePan2L;
-        float basePan2R;
-
-        float basePan8FL;
-        float basePan8FR;
-        float basePan8C;
-        float basePan8LFE;
-        float basePan8SL;
-        float basePan8SR;
-        float basePan8BL;
-        float basePan8BR;
-
-        // Cached masked+normalized gains for the last (channels,mask) combination.
-        int cachedPanChannels = -1;
-        int cachedPanMask = Integer.MIN_VALUE;
-
-        float maskedPan2L;
-        float maskedPan2R;
-
-        float maskedPan8FL;
-        float maskedPan8FR;
-        float maskedPan8C;
-        float maskedPan8LFE;
-        float maskedPan8SL;
-        float maskedPan8SR;
-        float maskedPan8BL;
-        float maskedPan8BR;
-
-        void ensureMaskedPan(int channelCount, int mask) {
-            int ch = (channelCount == 8) ? 8 : 2;
-            if (cachedPanChannels == ch && cachedPanMask == mask) {
-                return;
-            }
-            cachedPanChannels = ch;
-            cachedPanMask = mask;
-
-            if (ch == 2) {
-                maskedPan2L = ((mask & 0x01) != 0) ? basePan2L : 0.0f;
-                maskedPan2R = ((mask & 0x02) != 0) ? basePan2R : 0.0f;
-
-                double n = Math.sqrt((maskedPan2L * maskedPan2L) + (maskedPan2R * maskedPan2R));
-                if (n < 1.0e-6) {
-                    int count = 0;
-                    if ((mask & 0x01) != 0) count++;
-                    if ((mask & 0x02) != 0) count++;
-                    if (count <= 0) {
-                        maskedPan2L = maskedPan2R = 0.0f;
-                        return;
-                    }
-                    float g = (float) (1.0 / Math.sqrt(count));
-                    maskedPan2L = ((mask & 0x01) != 0) ? g : 0.0f;
-                    maskedPan2R = ((mask & 0x02) != 0) ? g : 0.0f;
-                    return;
-                }
-
-                float inv = (float) (1.0 / n);
-                maskedPan2L *= inv;
-                maskedPan2R *= inv;
-                return;
-            }
-
-            maskedPan8FL = ((mask & 0x01) != 0) ? basePan8FL : 0.0f;
-            maskedPan8FR = ((mask & 0x02) != 0) ? basePan8FR : 0.0f;
-            maskedPan8C = ((mask & 0x04) != 0) ? basePan8C : 0.0f;
-            maskedPan8LFE = ((mask & 0x08) != 0) ? basePan8LFE : 0.0f;
-            maskedPan8SL = ((mask & 0x10) != 0) ? basePan8SL : 0.0f;
-            maskedPan8SR = ((mask & 0x20) != 0) ? basePan8SR : 0.0f;
-            maskedPan8BL = ((mask & 0x40) != 0) ? basePan8BL : 0.0f;
-            maskedPan8BR = ((mask & 0x80) != 0) ? basePan8BR : 0.0f;
-
-            double n = 0.0;
-            n += maskedPan8FL * maskedPan8FL;
-            n += maskedPan8FR * maskedPan8FR;
-            n += maskedPan8C * maskedPan8C;
-            n += maskedPan8LFE * maskedPan8LFE;
-            n += maskedPan8SL * maskedPan8SL;
-            n += maskedPan8SR * maskedPan8SR;
-            n += maskedPan8BL * maskedPan8BL;
-            n += maskedPan8BR * maskedPan8BR;
-            n = Math.sqrt(n);
-
-            if (n < 1.0e-6) {
-                int count = Integer.bitCount(mask & 0xFF);
-                if (count <= 0) {
-                    maskedPan8FL = maskedPan8FR = maskedPan8C = maskedPan8LFE = maskedPan8SL = maskedPan8SR = maskedPan8BL = maskedPan8BR = 0.0f;
-                    return;
-                }
-                float g = (float) (1.0 / Math.sqrt(count));
-                maskedPan8FL = ((mask & 0x01) != 0) ? g : 0.0f;
-                maskedPan8FR = ((mask & 0x02) != 0) ? g : 0.0f;
-                maskedPan8C = ((mask & 0x04) != 0) ? g : 0.0f;
-                maskedPan8LFE = ((mask & 0x08) != 0) ? g : 0.0f;
-                maskedPan8SL = ((mask & 0x10) != 0) ? g : 0.0f;
-                maskedPan8SR = ((mask & 0x20) != 0) ? g : 0.0f;
-                maskedPan8BL = ((mask & 0x40) != 0) ? g : 0.0f;
-                maskedPan8BR = ((mask & 0x80) != 0) ? g : 0.0f;
-                return;
-            }
-
-            float inv = (float) (1.0 / n);
-            maskedPan8FL *= inv;
-            maskedPan8FR *= inv;
-            maskedPan8C *= inv;
-            maskedPan8LFE *= inv;
-            maskedPan8SL *= inv;
-            maskedPan8SR *= inv;
-            maskedPan8BL *= inv;
-            maskedPan8BR *= inv;
-        }
-    }
-
-    private static final class OutputEq {
-        // RBJ peaking EQ with fixed Q (keeps UI minimal).
-        private static final double Q = 1.0;
-
-        private int lastFreqHz = -1;
-        private int lastGainDb = Integer.MIN_VALUE;
-        private int lastChannels = -1;
-        private boolean active;
-
-        // Coeffs
-        private double b0, b1, b2, a1, a2;
-
-        // Per-channel state
-        private final double[] x1 = new double[8];
-        private final double[] x2 = new double[8];
-        private final double[] y1 = new double[8];
-        private final double[] y2 = new double[8];
-
-        void updateIfNeeded(int freqHz, int gainDb, int channels) {
-            int f = clampInt(freqHz, 10, 120);
-            int g = clampInt(gainDb, -12, 12);
-            int ch = (channels == 8) ? 8 : 2;
-
-            if (active && f == lastFreqHz && g == lastGainDb && ch == lastChannels) {
-                return;
-            }
-
-            lastFreqHz = f;
-            lastGainDb = g;
-            lastChannels = ch;
-            active = true;
-
-            // Reset state when settings change to avoid dragging old resonances across.
-            for (int i = 0; i < 8; i++) {
-                x1[i] = x2[i] = y1[i] = y2[i] = 0.0;
-            }
-
-            // Compute RBJ peaking EQ coefficients.
-            double A = Math.pow(10.0, g / 40.0);
-            double w0 = (2.0 * Math.PI * f) / SAMPLE_RATE;
-            double cos = Math.cos(w0);
-            double sin = Math.sin(w0);
-            double alpha = sin / (2.0 * Q);
-
-            double bb0 = 1.0 + alpha * A;
-            double bb1 = -2.0 * cos;
-            double bb2 = 1.0 - alpha * A;
-            double aa0 = 1.0 + (alpha / A);
-            double aa1 = -2.0 * cos;
-            double aa2 = 1.0 - (alpha / A);
-
-            // Normalize by a0.
-            b0 = bb0 / aa0;
-            b1 = bb1 / aa0;
-            b2 = bb2 / aa0;
-            a1 = aa1 / aa0;
-            a2 = aa2 / aa0;
-        }
-
-        double process(int channel, double x) {
-            int c = (channel < 0) ? 0 : Math.min(channel, 7);
-            double y = (b0 * x) + (b1 * x1[c]) + (b2 * x2[c]) - (a1 * y1[c]) - (a2 * y2[c]);
-            x2[c] = x1[c];
-            x1[c] = x;
-            y2[c] = y1[c];
-            y1[c] = y;
-            return y;
-        }
-
-        void resetIfDisabled() {
-            if (!active) {
-                return;
-            }
-            active = false;
-            lastFreqHz = -1;
-            lastGainDb = Integer.MIN_VALUE;
-            lastChannels = -1;
-            for (int i = 0; i < 8; i++) {
-                x1[i] = x2[i] = y1[i] = y2[i] = 0.0;
-            }
-        }
-    }
-
-    private static final class TransducerEq {
-        // RBJ peaking EQ with fixed Q.
-        private static final double Q = 1.0;
-
-        private final boolean[] active = new boolean[8];
-        private final int[] lastFreqHz = new int[8];
-        private final int[] lastGainDb = new int[8];
-
-        // Coeffs (per channel)
-        private final double[] b0 = new double[8];
-        private final double[] b1 = new double[8];
-        private final double[] b2 = new double[8];
-        private final double[] a1 = new double[8];
-        private final double[] a2 = new double[8];
-
-        // State
-        private final double[] x1 = new double[8];
-        private final double[] x2 = new double[8];
-        private final double[] y1 = new double[8];
-        private final double[] y2 = new double[8];
-
-        TransducerEq() {
-            for (int i = 0; i < 8; i++) {
-                lastFreqHz[i] = -1;
-                lastGainDb[i] = Integer.MIN_VALUE;
-            }
-        }
-
-        void updateIfNeeded(BstConfig.Data cfg, int channels) {
-            int n = (channels == 8) ? 8 : 2;
-
-            for (int c = 0; c < 8; c++) {
-                if (c >= n) {
-                    active[c] = false;
-                    continue;
-                }
-
-                if (cfg == null || cfg.soundScapeCalibration == null) {
-                    active[c] = false;
-                    continue;
-                }
-
-                String id = (n == 2) ? ((c == 0) ? "FL" : "FR") : CHANNEL_IDS_7_1[c];
-                BstConfig.Data.TransducerCalibration cal = cfg.soundScapeCalibration.get(id);
-                int f = (cal == null) ? 45 : clampInt(cal.eqFreqHz, 10, 120);
-                int g = (cal == null) ? 0 : clampInt(cal.eqGainDb, -12, 12);
-
-                if (g == 0) {
-                    // Disable EQ on this channel.
-                    active[c] = false;
-                    lastFreqHz[c] = f;
-                    lastGainDb[c] = 0;
-                    continue;
-                }
-
-                if (active[c] && f == lastFreqHz[c] && g == lastGainDb[c]) {
-                    continue;
-                }
-
-                lastFreqHz[c] = f;
-                lastGainDb[c] = g;
-                active[c] = true;
-
-                // Reset state for this channel when settings change.
-                x1[c] = x2[c] = y1[c] = y2[c] = 0.0;
-
-                // Compute RBJ peaking EQ coefficients.
-                double A = Math.pow(10.0, g / 40.0);
-                double w0 = (2.0 * Math.PI * f) / SAMPLE_RATE;
-                double cos = Math.cos(w0);
-                double sin = Math.sin(w0);
-                double alpha = sin / (2.0 * Q);
-
-                double bb0 = 1.0 + alpha * A;
-                double bb1 = -2.0 * cos;
-                double bb2 = 1.0 - alpha * A;
-                double aa0 = 1.0 + (alpha / A);
-                double aa1 = -2.0 * cos;
-                double aa2 = 1.0 - (alpha / A);
-
-                b0[c] = bb0 / aa0;
-                b1[c] = bb1 / aa0;
-                b2[c] = bb2 / aa0;
-                a1[c] = aa1 / aa0;
-                a2[c] = aa2 / aa0;
-            }
-        }
-
-        double process(int channel, double x) {
-            int c = (channel < 0) ? 0 : Math.min(channel, 7);
-            if (!active[c]) {
-                return x;
-            }
-            double y = (b0[c] * x) + (b1[c] * x1[c]) + (b2[c] * x2[c]) - (a1[c] * y1[c]) - (a2[c] * y2[c]);
-            x2[c] = x1[c];
-            x1[c] = x;
-            y2[c] = y1[c];
-            y1[c] = y;
-            return y;
-        }
-
-        void resetIfDisabled() {
-            for (int c = 0; c < 8; c++) {
-                active[c] = false;
-                lastFreqHz[c] = -1;
-                lastGainDb[c] = Integer.MIN_VALUE;
-                x1[c] = x2[c] = y1[c] = y2[c] = 0.0;
-            }
-        }
-    }
-
-    private static final class SmartVolume {
-        // Keep this intentionally slow and bounded so it doesn't fight the priority/ducking mixer.
-        private static final double MAX_BOOST_DB = 12.0;
-        private static final double MAX_CUT_DB = 12.0;
-
-        // Detector time constants.
-        private static final double DETECT_ATTACK_S = 0.025;
-        private static final double DETECT_RELEASE_S = 0.250;
-
-        // Gain smoothing time constants.
-        private static final double GAIN_DOWN_S = 0.180;
-        private static final double GAIN_UP_S = 0.900;
-
-        private boolean active;
-        private double target = 0.65;
-        private double env = 0.0;
-        private double gain = 1.0;
-
-        void updateTarget(int targetPct) {
-            int pct = clampInt(targetPct, 10, 90);
-            this.target = pct / 100.0;
-            this.active = true;
-        }
-
-        void observeFramePeak(double[] frameChannels, int channelCount) {
-            if (frameChannels == null) {
-                return;
-            }
-            int n = (channelCount == 8) ? 8 : 2;
-            double peak = 0.0;
-            for (int i = 0; i < n && i < frameChannels.length; i++) {
-                double a = Math.abs(frameChannels[i]);
-                if (a > peak) {
-                    peak = a;
-                }
-            }
-
-            double aAtk = coeffFromTime(DETECT_ATTACK_S);
-            double aRel = coeffFromTime(DETECT_RELEASE_S);
-            if (peak > env) {
-                env = (aAtk * env) + ((1.0 - aAtk) * peak);
-            } else {
-                env = (aRel * env) + ((1.0 - aRel) * peak);
-            }
-
-            double e = Math.max(1e-6, env);
-            double desired = target / e;
-
-            double minGain = Math.pow(10.0, (-MAX_CUT_DB) / 20.0);
-            double maxGain = Math.pow(10.0, (MAX_BOOST_DB) / 20.0);
-            desired = clamp(desired, minGain, maxGain);
-
-            double a = coeffFromTime(desired < gain ? GAIN_DOWN_S : GAIN_UP_S);
-            gain = (a * gain) + ((1.0 - a) * desired);
-        }
-
-        double currentGain() {
-            return active ? gain : 1.0;
-        }
-
-        void resetIfDisabled() {
-            if (!active) {
-                return;
-            }
-            active = false;
-            env = 0.0;
-            gain = 1.0;
-        }
-
-        private static double coeffFromTime(double seconds) {
-            double s = Math.max(0.001, seconds);
-            return Math.exp(-1.0 / (SAMPLE_RATE * s));
-        }
-    }
 }
@@ -0,0 +1,272 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Off-thread analysis for the real-time debugger taps.
+ *
+ * <p>The BST-Audio thread only {@link #offer}s each rendered block (a copy into a preallocated single-producer
+ * / single-consumer ring; the block is dropped if the ring is full). A low-priority "BST-Debug-Analyzer" thread
+ * computes levels, waveform decimation and the FFT spectrogram column, and publishes the result through a
+ * triple buffer, so neither side ever waits for the other and no snapshot is allocated per block.
+ */
+final class DebugAnalyzer {
+    static final int WAVE_SAMPLES = 256;
+    static final int SPECT_FFT_SIZE = 4096;
+    static final int SPECT_BINS = 16;
+    static final int SPECT_COLS = 64;
+
+    private static final int MAX_CHANNELS = 8;
+    private static final int SLOTS = 8;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long IDLE_PARK_NS = 5_000_000L;
+    private static final long DISABLED_PARK_NS = 100_000_000L;
+
+    // --- Capture ring (producer: audio thread, consumer: analyzer thread) ---
+    private final float[][] slotSamples = new float[SLOTS][];
+    private final int[] slotFrames = new int[SLOTS];
+    private final int[] slotChannels = new int[SLOTS];
+    private final long[] slotNanos = new long[SLOTS];
+    private final int[] slotBufferBytes = new int[SLOTS];
+    private final int[] slotAvailableBytes = new int[SLOTS];
+    private final int[] slotFrameSize = new int[SLOTS];
+    private final AtomicLong head = new AtomicLong(0);
+    private final AtomicLong tail = new AtomicLong(0);
+    // Blocks the audio thread skipped because the analyzer was behind.
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    // --- Triple buffer (writer: analyzer thread, reader: client render thread) ---
+    private static final int DIRTY = 4;
+    private final AudioOutputEngine.DebugSnapshot[] buffers = new AudioOutputEngine.DebugSnapshot[3];
+    // Index of the shared "middle" buffer, plus DIRTY when it holds a snapshot the reader hasn't taken yet.
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 2;
+    private int front = 0;
+    private boolean frontValid;
+
+    // --- Analyzer thread state ---
+    private final float[] monoRing = new float[SPECT_FFT_SIZE];
+    private int monoWrite;
+    private final float[] wave = new float[WAVE_SAMPLES];
+    private final float[] spect = new float[SPECT_COLS * SPECT_BINS];
+    private int spectWriteCol;
+    private final double[] sumSq = new double[MAX_CHANNELS];
+    private final double[] peak = new double[MAX_CHANNELS];
+    private final double[] fftReal = new double[SPECT_FFT_SIZE];
+    private final double[] fftImag = new double[SPECT_FFT_SIZE];
+    private final double[] window = new double[SPECT_FFT_SIZE];
+
+    private volatile boolean enabled;
+    private volatile Thread thread;
+
+    DebugAnalyzer(int maxFrames) {
+        int samples = Math.max(1, maxFrames) * MAX_CHANNELS;
+        for (int i = 0; i < SLOTS; i++) {
+            slotSamples[i] = new float[samples];
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new AudioOutputEngine.DebugSnapshot(WAVE_SAMPLES, SPECT_COLS, SPECT_BINS);
+        }
+        for (int n = 0; n < SPECT_FFT_SIZE; n++) {
+            window[n] = 0.5 - (0.5 * Math.cos((2.0 * Math.PI * n) / (SPECT_FFT_SIZE - 1)));
+        }
+    }
+
+    /**
+     * Turns capture on/off. The analyzer thread is started on first use and parks while disabled.
+     */
+    synchronized void setEnabled(boolean on) {
+        enabled = on;
+        Thread t = thread;
+        if (on && t == null) {
+            t = new Thread(this::runLoop, "BST-Debug-Analyzer");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            thread = t;
+            t.start();
+        } else if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    long droppedBlocks() {
+        return dropped.get();
+    }
+
+    /**
+     * Audio thread: queues one rendered block (interleaved float samples) for analysis. Never blocks.
+     */
+    void offer(float[] interleaved, int frames, int channels, long nowNs,
+               int deviceBufferBytes, int deviceAvailableBytes, int frameSize) {
+        long t = tail.get();
+        if (t - head.get() >= SLOTS) {
+            dropped.incrementAndGet();
+            return;
+        }
+        int slot = (int) (t & SLOT_MASK);
+        float[] dst = slotSamples[slot];
+        int ch = Math.max(1, Math.min(MAX_CHANNELS, channels));
+        int n = Math.max(0, Math.min(frames, dst.length / ch));
+        System.arraycopy(interleaved, 0, dst, 0, n * ch);
+        slotFrames[slot] = n;
+        slotChannels[slot] = ch;
+        slotNanos[slot] = nowNs;
+        slotBufferBytes[slot] = deviceBufferBytes;
+        slotAvailableBytes[slot] = deviceAvailableBytes;
+        slotFrameSize[slot] = frameSize;
+        // Volatile write publishes the slot contents.
+        tail.set(t + 1);
+    }
+
+    /**
+     * Reader side (single thread, normally the client render thread). The returned instance stays valid until
+     * this reader calls again; null until the first block was analyzed.
+     */
+    synchronized AudioOutputEngine.DebugSnapshot latest() {
+        if ((middle.get() & DIRTY) != 0) {
+            front = middle.getAndSet(front) & 3;
+            frontValid = true;
+        }
+        return frontValid ? buffers[front] : null;
+    }
+
+    private void runLoop() {
+        while (true) {
+            if (!enabled) {
+                // Drop anything queued before capture was turned off.
+                head.set(tail.get());
+                LockSupport.parkNanos(DISABLED_PARK_NS);
+                continue;
+            }
+            long h = head.get();
+            if (h >= tail.get()) {
+                LockSupport.parkNanos(IDLE_PARK_NS);
+                continue;
+            }
+            int slot = (int) (h & SLOT_MASK);
+            try {
+                analyze(slot);
+            } catch (Throwable ignored) {
+                // Debug only; never let a bad block kill the analyzer.
+            }
+            head.set(h + 1);
+        }
+    }
+
+    private void analyze(int slot) {
+        float[] samples = slotSamples[slot];
+        int frames = slotFrames[slot];
+        int channels = slotChannels[slot];
+
+        Arrays.fill(sumSq, 0, channels, 0.0);
+        Arrays.fill(peak, 0, channels, 0.0);
+        int waveStep = Math.max(1, frames / WAVE_SAMPLES);
+        int waveIndex = 0;
+        for (int i = 0, o = 0; i < frames; i++) {
+            double monoSum = 0.0;
+            for (int c = 0; c < channels; c++, o++) {
+                double out = samples[o];
+                sumSq[c] += (out * out);
+                double abs = Math.abs(out);
+                if (abs > peak[c]) {
+                    peak[c] = abs;
+                }
+                monoSum += out;
+            }
+            double mono = clamp(monoSum / channels, -1.0, 1.0);
+            monoRing[monoWrite] = (float) mono;
+            monoWrite = (monoWrite + 1) & (SPECT_FFT_SIZE - 1);
+            if ((i % waveStep) == 0 && waveIndex < WAVE_SAMPLES) {
+                wave[waveIndex++] = (float) mono;
+            }
+        }
+
+        // FFT-based low-frequency "spectrogram" (bins 1..SPECT_BINS), one column per block.
+        for (int n = 0; n < SPECT_FFT_SIZE; n++) {
+            int src = (monoWrite + n) & (SPECT_FFT_SIZE - 1);
+            fftReal[n] = monoRing[src] * window[n];
+            fftImag[n] = 0.0;
+        }
+        fftRadix2InPlace(fftReal, fftImag);
+
+        int colBase = spectWriteCol * SPECT_BINS;
+        double norm = Math.max(1.0, SPECT_FFT_SIZE / 2.0);
+        for (int b = 0; b < SPECT_BINS; b++) {
+            int k = b + 1;
+            double re = fftReal[k];
+            double im = fftImag[k];
+            double mag = Math.sqrt((re * re) + (im * im)) / norm;
+            double db = 20.0 * Math.log10(mag + 1.0e-9);
+            double v = (db + 60.0) / 60.0; // -60dB..0dB -> 0..1
+            spect[colBase + b] = (float) clamp(v, 0.0, 1.0);
+        }
+        spectWriteCol = (spectWriteCol + 1) % SPECT_COLS;
+
+        AudioOutputEngine.DebugSnapshot out = buffers[back];
+        out.fill(slotNanos[slot], channels, sumSq, peak, frames, wave, spect, spectWriteCol,
+                slotBufferBytes[slot], slotAvailableBytes[slot], slotFrameSize[slot]);
+        back = middle.getAndSet(back | DIRTY) & 3;
+    }
+
+    private static void fftRadix2InPlace(double[] real, double[] imag) {
+        int n = real.length;
+        if (n <= 1) {
+            return;
+        }
+        // Bit-reversal permutation
+        int j = 0;
+        for (int i = 1; i < n; i++) {
+            int bit = n >>> 1;
+            while ((j & bit) != 0) {
+                j ^= bit;
+                bit >>>= 1;
+            }
+            j ^= bit;
+            if (i < j) {
+                double tr = real[i];
+                real[i] = real[j];
+                real[j] = tr;
+                double ti = imag[i];
+                imag[i] = imag[j];
+                imag[j] = ti;
+            }
+        }
+
+        for (int len = 2; len <= n; len <<= 1) {
+            double ang = -2.0 * Math.PI / len;
+            double wlenR = Math.cos(ang);
+            double wlenI = Math.sin(ang);
+            for (int i = 0; i < n; i += len) {
+                double wR = 1.0;
+                double wI = 0.0;
+                int half = len >>> 1;
+                for (int k = 0; k < half; k++) {
+                    int u = i + k;
+                    int v = u + half;
+                    double vR = (real[v] * wR) - (imag[v] * wI);
+                    double vI = (real[v] * wI) + (imag[v] * wR);
+                    double uR = real[u];
+                    double uI = imag[u];
+                    real[u] = uR + vR;
+                    imag[u] = uI + vI;
+                    real[v] = uR - vR;
+                    imag[v] = uI - vI;
+                    double nextWR = (wR * wlenR) - (wI * wlenI);
+                    wI = (wR * wlenI) + (wI * wlenR);
+                    wR = nextWR;
+                }
+            }
+        }
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,139 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size trigger history for the Spatial debugger: struct-of-arrays slots guarded by per-slot sequence
+ * numbers (a seqlock per slot).
+ *
+ * <p>Producers (any trigger thread) take a ticket with one {@code getAndIncrement}, mark the slot odd, write
+ * the fields and publish the even sequence; they never wait or retry (if the slot is still being written by a
+ * lapped producer the event is simply dropped). Readers copy a slot and keep it only if the sequence was the
+ * expected even value before and after the copy. No lock and no allocation on the record path.
+ */
+final class DebugEventRing {
+    private final int mask;
+
+    // Ticket t lives in slot (t & mask); seq = 2t+1 while being written, 2t+2 once published.
+    private final AtomicLongArray seq;
+    private final AtomicLong nextTicket = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private final long[] createdNanos;
+    private final String[] debugKey;
+    private final HapticBus[] bus;
+    private final double[] startFreqHz;
+    private final double[] endFreqHz;
+    private final int[] durationMs;
+    private final double[] gain01;
+    private final int[] priority;
+    private final int[] delayMs;
+    private final int[] forcedMask;
+    private final double[] azimuthDeg;
+    private final double[] distanceM;
+
+    DebugEventRing(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = cap - 1;
+        this.seq = new AtomicLongArray(cap);
+        this.createdNanos = new long[cap];
+        this.debugKey = new String[cap];
+        this.bus = new HapticBus[cap];
+        this.startFreqHz = new double[cap];
+        this.endFreqHz = new double[cap];
+        this.durationMs = new int[cap];
+        this.gain01 = new double[cap];
+        this.priority = new int[cap];
+        this.delayMs = new int[cap];
+        this.forcedMask = new int[cap];
+        this.azimuthDeg = new double[cap];
+        this.distanceM = new double[cap];
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long droppedEvents() {
+        return dropped.get();
+    }
+
+    void record(long nowNs,
+                String key,
+                HapticBus b,
+                double f0,
+                double f1,
+                int ms,
+                double gain,
+                int pri,
+                int delay,
+                int forced,
+                double az,
+                double dist) {
+        long t = nextTicket.getAndIncrement();
+        int slot = (int) (t & this.mask);
+        long writing = (t << 1) + 1L;
+        long cur = seq.get(slot);
+        // Slot still owned by a lapped writer (or already reused by a newer ticket): drop instead of waiting.
+        if ((cur & 1L) != 0L || cur >= writing || !seq.compareAndSet(slot, cur, writing)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        // Keep the field stores after the odd marker.
+        VarHandle.releaseFence();
+
+        createdNanos[slot] = nowNs;
+        debugKey[slot] = key;
+        bus[slot] = b;
+        startFreqHz[slot] = f0;
+        endFreqHz[slot] = f1;
+        durationMs[slot] = ms;
+        gain01[slot] = gain;
+        priority[slot] = pri;
+        delayMs[slot] = delay;
+        forcedMask[slot] = forced;
+        azimuthDeg[slot] = az;
+        distanceM[slot] = dist;
+
+        seq.setRelease(slot, writing + 1L);
+    }
+
+    /**
+     * Up to {@code maxCount} most recent events, newest first. Slots that are mid-write are skipped.
+     */
+    AudioOutputEngine.DebugEvent[] recent(int maxCount) {
+        int n = Math.max(0, Math.min(capacity(), maxCount));
+        AudioOutputEngine.DebugEvent[] out = new AudioOutputEngine.DebugEvent[n];
+        int copied = 0;
+        long end = nextTicket.get();
+        for (long t = end - 1L; t >= 0L && t >= (end - capacity()) && copied < n; t--) {
+            int slot = (int) (t & mask);
+            long expected = (t << 1) + 2L;
+            if (seq.getAcquire(slot) != expected) {
+                continue;
+            }
+            long c = createdNanos[slot];
+            String k = debugKey[slot];
+            HapticBus b = bus[slot];
+            double f0 = startFreqHz[slot];
+            double f1 = endFreqHz[slot];
+            int ms = durationMs[slot];
+            double g = gain01[slot];
+            int pri = priority[slot];
+            int d = delayMs[slot];
+            int fm = forcedMask[slot];
+            double az = azimuthDeg[slot];
+            double dist = distanceM[slot];
+            // Field loads must complete before re-checking the sequence.
+            VarHandle.acquireFence();
+            if (seq.get(slot) != expected) {
+                continue;
+            }
+            out[copied++] = new AudioOutputEngine.DebugEvent(c, k, b, f0, f1, ms, g, pri, d, fm, az, dist);
+        }
+        return (copied < n) ? Arrays.copyOf(out, copied) : out;
+    }
+}
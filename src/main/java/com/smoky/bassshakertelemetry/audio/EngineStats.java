@@ -0,0 +1,99 @@
+package com.smoky.bassshakertelemetry.audio;
+
+/**
+ * Render-thread timing for one stats window (about 1s), published by the BST-Audio thread.
+ *
+ * <p>{@code render} is the CPU time to mix a block, {@code write} is how long {@code device.write} blocked on
+ * the writer thread, and {@code jitter} is how far the gap between block starts strayed from the block length.
+ * High render times point at CPU starvation; high write times with low render times just mean the device
+ * buffer is full (normal pacing).
+ */
+public final class EngineStats {
+    public static final EngineStats EMPTY = new EngineStats(0L, 0L, 0.0,
+            TimingHistogram.Summary.EMPTY, TimingHistogram.Summary.EMPTY, TimingHistogram.Summary.EMPTY,
+            0L, 0L, 0L, 0L, 0L, 0L, 0L, 0);
+
+    public final long updatedNanos;
+    public final long windowNanos;
+    public final double chunkMs;
+    public final TimingHistogram.Summary render;
+    public final TimingHistogram.Summary write;
+    public final TimingHistogram.Summary jitter;
+    // Totals since the engine started.
+    public final long ringUnderruns;
+    public final long deviceUnderruns;
+    // Increase during this window.
+    public final long ringUnderrunsDelta;
+    public final long deviceUnderrunsDelta;
+    // Instrument clip cache: lookups during this window, and current size.
+    public final long clipHitsDelta;
+    public final long clipMissesDelta;
+    public final long clipBytes;
+    public final int clipCount;
+
+    EngineStats(long updatedNanos,
+                long windowNanos,
+                double chunkMs,
+                TimingHistogram.Summary render,
+                TimingHistogram.Summary write,
+                TimingHistogram.Summary jitter,
+                long ringUnderruns,
+                long deviceUnderruns,
+                long ringUnderrunsDelta,
+                long deviceUnderrunsDelta,
+                long clipHitsDelta,
+                long clipMissesDelta,
+                long clipBytes,
+                int clipCount) {
+        this.updatedNanos = updatedNanos;
+        this.windowNanos = windowNanos;
+        this.chunkMs = chunkMs;
+        this.render = render;
+        this.write = write;
+        this.jitter = jitter;
+        this.ringUnderruns = ringUnderruns;
+        this.deviceUnderruns = deviceUnderruns;
+        this.ringUnderrunsDelta = ringUnderrunsDelta;
+        this.deviceUnderrunsDelta = deviceUnderrunsDelta;
+        this.clipHitsDelta = clipHitsDelta;
+        this.clipMissesDelta = clipMissesDelta;
+        this.clipBytes = clipBytes;
+        this.clipCount = clipCount;
+    }
+
+    /**
+     * Render p99 as a fraction of the block length (1.0 = no headroom left).
+     */
+    public double renderLoad() {
+        return (chunkMs <= 0.0) ? 0.0 : (render.p99Ns / 1_000_000.0) / chunkMs;
+    }
+
+    /**
+     * Share of cacheable instrument triggers this window that played a cached clip (0 when there were none).
+     */
+    public double clipHitRate() {
+        long total = clipHitsDelta + clipMissesDelta;
+        return (total <= 0L) ? 0.0 : (double) clipHitsDelta / total;
+    }
+
+    /**
+     * One-line clip cache summary for the debugger.
+     */
+    public String clipCacheLine() {
+        return String.format(java.util.Locale.ROOT,
+                "clip cache hits=%.0f%% (%d/%d) clips=%d mem=%.1fMB",
+                clipHitRate() * 100.0, clipHitsDelta, clipHitsDelta + clipMissesDelta,
+                clipCount, clipBytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * One-line summary for overlays.
+     */
+    public String overlayLine() {
+        return String.format(java.util.Locale.ROOT,
+                "render p50/p99/max=%.0f/%.0f/%.0fus (%.0f%%) write p99=%.1fms jitter p99=%.1fms xruns=%d/%d",
+                render.p50Us(), render.p99Us(), render.maxUs(), renderLoad() * 100.0,
+                write.p99Ns / 1_000_000.0, jitter.p99Ns / 1_000_000.0,
+                ringUnderrunsDelta, deviceUnderrunsDelta);
+    }
+}
@@ -0,0 +1,669 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.audio.dsp.FastRandom;
+import com.smoky.bassshakertelemetry.audio.dsp.SineTable;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import static com.smoky.bassshakertelemetry.audio.AudioOutputEngine.SAMPLE_RATE;
+
+/**
+ * Block renderer for the haptic mix (render thread only).
+ *
+ * <p>Every source renders its whole chunk into a reusable mono buffer in one tight loop; routing, pan and
+ * ducking gains are then applied once per source per block while mixing into an interleaved float bus.
+ * The post stages (Smart Volume, transducer calibration, Output EQ, limiter, stream gate) and the int16
+ * conversion also run over the whole block. Channel mixing, the limiter/gate and the int16 conversion go
+ * through {@link MixKernels} (scalar, or SIMD when enabled).
+ */
+final class HapticRenderer {
+    static final int MAX_CHANNELS = 8;
+
+    // Fixed one-pole low-pass coefficients (were recomputed with Math.exp every sample).
+    private static final double VOICE_NOISE_COEFF = onePoleCoeff(65.0);
+    private static final double DAMAGE_NOISE_COEFF = onePoleCoeff(55.0);
+
+    // Fixed oscillators: accel bump (~32Hz) and biome chime (~80Hz). Phases are in cycles (see SineTable).
+    private static final double INV_SAMPLE_RATE = 1.0 / SAMPLE_RATE;
+    private static final double BUMP_STEP = 32.0 / SAMPLE_RATE;
+    private static final double CHIME_STEP = 80.0 / SAMPLE_RATE;
+
+    /**
+     * Per-chunk inputs prepared by the engine. Reused between chunks; the one-shot counters
+     * ({@code damageLeft}, {@code bumpLeft}, {@code chimeLeft}) are consumed by {@link #render}.
+     */
+    static final class Block {
+        int frames;
+        int channels;
+
+        // Compiled config for this revision / channel count (gains, coefficients, masks).
+        RenderParams params;
+
+        // Stream gate ramp (start -> end over the block).
+        double startGain;
+        double endGain;
+
+        // Movement texture inputs: speed at the block start and end (ramped per sample in between).
+        double speed;
+        double speedEnd;
+        boolean onGround;
+        boolean elytra;
+        boolean inWater;
+
+        // Ducking multipliers
+        double roadMul;
+        double damageMul;
+        double bumpMul;
+        double chimeMul;
+
+        int damageLeft;
+        int damageTotal;
+        double damageIntensity;
+        int bumpLeft;
+        int bumpTotal;
+        int chimeLeft;
+        int chimeTotal;
+
+        SoundScapeRouter router;
+        EnumMap<HapticBus, ImpulseVoice> dominantByBus;
+    }
+
+    // Independent noise streams per source, all derived from the renderer seed.
+    private final FastRandom roadRandom;
+    private final FastRandom flightRandom;
+    private final FastRandom swimRandom;
+    private final FastRandom damageRandom;
+
+    private int capacityFrames;
+    // Mono scratch for one source / one voice.
+    private float[] srcBuf;
+    // Per-voice envelope for the current block (filled once from the voice's table).
+    private float[] envBuf;
+    // Instrument (DSP graph) output for one voice.
+    private double[] dspBuf;
+    // Interleaved pre-post-stage mix, post-EQ (pre-limiter) samples and final (post-limiter, post-master) output.
+    private float[] mix;
+    private double[] pre;
+    private float[] out;
+    // Per-frame gains: stream gate * master, and Smart Volume.
+    private float[] frameGain;
+    private float[] frameSv;
+
+    private final float[] chanGain = new float[MAX_CHANNELS];
+
+    // Movement texture / damage filter states
+    private double roadNoiseState;
+    private double flightNoiseState;
+    private double swimNoiseState;
+    private double damageNoiseState;
+
+    private double bumpPhase;
+    private double chimePhase;
+
+    // Biquad states (transducer EQ and Output EQ), per channel. Reset when their settings change.
+    private final double[] tx1 = new double[MAX_CHANNELS];
+    private final double[] tx2 = new double[MAX_CHANNELS];
+    private final double[] ty1 = new double[MAX_CHANNELS];
+    private final double[] ty2 = new double[MAX_CHANNELS];
+    private final double[] ox1 = new double[MAX_CHANNELS];
+    private final double[] ox2 = new double[MAX_CHANNELS];
+    private final double[] oy1 = new double[MAX_CHANNELS];
+    private final double[] oy2 = new double[MAX_CHANNELS];
+    // Params the filter states were last run with.
+    private RenderParams eqParams;
+
+    private final SmartVolume smartVolume = new SmartVolume();
+    private final MixKernels kernels;
+
+    /**
+     * @param seed noise seed; the same seed and inputs reproduce the same output (regression renders).
+     */
+    HapticRenderer(int initialFrames, long seed) {
+        this(initialFrames, seed, MixKernels.DEFAULT);
+    }
+
+    HapticRenderer(int initialFrames, long seed, MixKernels kernels) {
+        this.kernels = (kernels == null) ? MixKernels.SCALAR : kernels;
+        ensureCapacity(Math.max(1, initialFrames));
+        FastRandom root = new FastRandom(seed);
+        this.roadRandom = root.split();
+        this.flightRandom = root.split();
+        this.swimRandom = root.split();
+        this.damageRandom = root.split();
+    }
+
+    /**
+     * Interleaved float output of the last {@link #render} call (frames x channels), already limited and
+     * scaled by the stream gate and master gain. Valid until the next render.
+     */
+    float[] output() {
+        return out;
+    }
+
+    /**
+     * Render one block into {@code pcm} as interleaved 16-bit little-endian PCM.
+     */
+    void render(Block b, ImpulseVoicePool voices, byte[] pcm) {
+        int frames = b.frames;
+        int channels = (b.channels == 8) ? 8 : 2;
+        RenderParams p = b.params;
+        ensureCapacity(frames);
+
+        int samples = frames * channels;
+        Arrays.fill(mix, 0, samples, 0.0f);
+
+        renderMovement(p, b, frames, channels);
+        renderDamage(p, b, frames, channels);
+        renderVoices(b, voices, frames, channels);
+        renderBump(p, b, frames, channels);
+        renderChime(p, b, frames, channels);
+
+        postProcess(p, b, frames, channels);
+        kernels.toPcm16(out, pcm, samples);
+    }
+
+    private void ensureCapacity(int frames) {
+        if (frames <= capacityFrames) {
+            return;
+        }
+        capacityFrames = frames;
+        srcBuf = new float[frames];
+        envBuf = new float[frames];
+        dspBuf = new double[frames];
+        mix = new float[frames * MAX_CHANNELS];
+        pre = new double[frames * MAX_CHANNELS];
+        out = new float[frames * MAX_CHANNELS];
+        frameGain = new float[frames];
+        frameSv = new float[frames];
+    }
+
+    private void renderMovement(RenderParams p, Block b, int frames, int channels) {
+        if (!p.roadTextureEnabled) {
+            return;
+        }
+        // Movement textures (continuous): land + flight + swim.
+        // Directional "wind" impulses are triggered elsewhere, but are gated by this same master switch.
+        double speed0 = Math.abs(b.speed);
+        double speed1 = Math.abs(b.speedEnd);
+
+        if (b.onGround) {
+            // Land movement: filtered noise rumble, speed-scaled.
+            // Keep this from feeling like an "engine/road" at normal walking speeds:
+            // ramp in later and with a gentler curve.
+            roadNoiseState = renderFilteredNoise(roadNoiseState, p.roadCoeff, roadRandom, frames);
+            if (applySpeedRamp(frames, speed0, speed1, 0.09, 0.18)) {
+                mixMono(frames, channels, p.roadMask, p.roadGain * b.roadMul);
+            }
+        }
+
+        if (b.elytra && p.flightGain > 0.0) {
+            // Flight movement texture: slightly brighter cutoff, engages at higher speed.
+            flightNoiseState = renderFilteredNoise(flightNoiseState, p.flightCoeff, flightRandom, frames);
+            if (applySpeedRamp(frames, speed0, speed1, 0.70, 1.40)) {
+                mixMono(frames, channels, p.roadMask, p.flightGain * b.roadMul);
+            }
+        }
+
+        if (b.inWater && p.swimGain > 0.0) {
+            // Swim movement texture: smoother ramp and a slightly higher cutoff than land.
+            swimNoiseState = renderFilteredNoise(swimNoiseState, p.swimCoeff, swimRandom, frames);
+            if (applySpeedRamp(frames, speed0, speed1, 0.05, 0.35)) {
+                mixMono(frames, channels, p.roadMask, p.swimGain * b.roadMul);
+            }
+        }
+    }
+
+    /**
+     * Scales srcBuf[0..frames) by the squared speed ramp {@code ((speed - threshold) / span)^2}, with speed
+     * moving linearly from {@code speed0} to {@code speed1} across the block. Returns false if the ramp is
+     * zero for the whole block.
+     */
+    private boolean applySpeedRamp(int frames, double speed0, double speed1, double threshold, double span) {
+        double r0 = clamp((speed0 - threshold) / span, 0.0, 1.0);
+        double r1 = clamp((speed1 - threshold) / span, 0.0, 1.0);
+        if (r0 == 0.0 && r1 == 0.0) {
+            return false;
+        }
+        float[] buf = srcBuf;
+        if (speed0 == speed1) {
+            float g = (float) (r0 * r0);
+            for (int i = 0; i < frames; i++) {
+                buf[i] *= g;
+            }
+            return true;
+        }
+        double step = (speed1 - speed0) / frames;
+        double v = speed0;
+        for (int i = 0; i < frames; i++) {
+            double r = clamp((v - threshold) / span, 0.0, 1.0);
+            buf[i] *= (float) (r * r);
+            v += step;
+        }
+        return true;
+    }
+
+    /** Fills srcBuf[0..frames) with one-pole low-passed white noise; returns the new filter state. */
+    private double renderFilteredNoise(double state, double a, FastRandom rnd, int frames) {
+        double s = state;
+        float[] buf = srcBuf;
+        for (int i = 0; i < frames; i++) {
+            double white = rnd.nextBipolar();
+            s += (white - s) * a;
+            buf[i] = (float) s;
+        }
+        return s;
+    }
+
+    private void renderDamage(RenderParams p, Block b, int frames, int channels) {
+        if (!p.damageBurstEnabled || b.damageLeft <= 0) {
+            return;
+        }
+        // White noise with quick decay.
+        // Softer, less "clicky" transient: apply a smooth attack envelope and low-pass the noise.
+        // This keeps the effect tactile (low-frequency) without harsh high-frequency punch.
+        int total = Math.max(1, b.damageTotal);
+        int count = Math.min(frames, b.damageLeft);
+        double invTotal = 1.0 / total;
+        double s = damageNoiseState;
+        float[] buf = srcBuf;
+        for (int i = 0; i < count; i++) {
+            double progress = 1.0 - ((b.damageLeft - i) * invTotal);
+            double white = damageRandom.nextBipolar();
+            s += (white - s) * DAMAGE_NOISE_COEFF;
+            double env = SineTable.sinCycles(progress * 0.5) * Math.exp(-progress * 5.0);
+            buf[i] = (float) (s * env);
+        }
+        damageNoiseState = s;
+        b.damageLeft -= count;
+
+        double gain = p.damageBurstGain * clamp(b.damageIntensity, 0.0, 1.0) * b.damageMul;
+        mixMono(count, channels, p.damageMask, gain);
+    }
+
+    private void renderVoices(Block b, ImpulseVoicePool voices, int frames, int channels) {
+        for (int vi = voices.size() - 1; vi >= 0; vi--) {
+            ImpulseVoice v = voices.get(vi);
+
+            // Scheduled voices are activated in their start block; the offset is what's left of the delay.
+            int start = 0;
+            if (v.delaySamplesLeft > 0) {
+                start = Math.min(v.delaySamplesLeft, frames);
+                v.delaySamplesLeft -= start;
+            }
+            if (start >= frames) {
+                continue;
+            }
+            if (v.samplesLeft <= 0 || v.gain <= 0.00001) {
+                continue;
+            }
+
+            int count = Math.min(frames - start, v.samplesLeft);
+            renderVoice(v, start, count);
+
+            HapticBus bus = (v.bus == null) ? HapticBus.MODDED : v.bus;
+            ImpulseVoice dom = (b.dominantByBus == null) ? null : b.dominantByBus.get(bus);
+            double voiceMul = (dom != null && v == dom) ? 1.0 : AudioOutputEngine.DUCK_FACTOR;
+
+            if (v.routedBy != b.router) {
+                // Only after a config/channel change; normally resolved once when the voice started.
+                v.routeMask = b.router.maskForVoice(v.debugKey, bus, v.forcedMask);
+                v.routedBy = b.router;
+            }
+            fillVoiceGains(v, channels, v.routeMask, (float) (v.gain * voiceMul));
+            mixChannels(start, count, channels);
+        }
+    }
+
+    /** Renders {@code count} samples of the voice's unit-gain signal (waveform * envelope) into srcBuf[start..]. */
+    private void renderVoice(ImpulseVoice v, int start, int count) {
+        int total = Math.max(1, v.totalSamples);
+        double invSpan = (total <= 1) ? 0.0 : 1.0 / (total - 1);
+        float[] buf = srcBuf;
+        float[] envs = envBuf;
+
+        ImpulseEnvelope envelope = (v.envelope != null) ? v.envelope : ImpulsePattern.SINGLE.envelope;
+        envelope.fill(envs, start, count, Math.max(0, total - v.samplesLeft), v.samplesLeft, total,
+                v.pulsePeriodSamples, v.pulseWidthSamples);
+
+        if (v.dspGraph != null && v.dspContext != null) {
+            v.dspContext.retune(v.startFreqHz, v.endFreqHz);
+            v.dspContext.resize(total);
+            // Sample indices run contiguously from here for the whole span, so the graph renders it as one block.
+            int at = Math.max(0, total - v.samplesLeft);
+            v.dspContext.sampleIndex = at;
+            double[] dsp = dspBuf;
+            v.dspGraph.process(v.dspContext, dsp, 0, count);
+            for (int k = 0; k < count; k++) {
+                buf[start + k] = (float) (dsp[k] * envs[start + k]);
+            }
+            if (v.clip != null) {
+                v.clip.record(dsp, at, count);
+            }
+            v.samplesLeft -= count;
+            return;
+        }
+
+        if (v.clip != null) {
+            // Cached rendering of a deterministic graph: plain sample playback.
+            float[] pcm = v.clip.samples;
+            int at = Math.max(0, total - v.samplesLeft);
+            int n = Math.max(0, Math.min(count, pcm.length - at));
+            for (int k = 0; k < n; k++) {
+                buf[start + k] = pcm[at + k] * envs[start + k];
+            }
+            for (int k = n; k < count; k++) {
+                buf[start + k] = 0.0f;
+            }
+            v.samplesLeft -= count;
+            return;
+        }
+
+        double f0 = v.startFreqHz;
+        double df = v.endFreqHz - v.startFreqHz;
+        double noiseMix = v.noiseMix;
+        double toneMix = 1.0 - noiseMix;
+        double phase = v.phase;
+        double noiseState = v.noiseState;
+        FastRandom rnd = v.noise;
+        for (int k = 0; k < count; k++) {
+            int samplesLeft = v.samplesLeft;
+            int sampleIndex = Math.max(0, total - samplesLeft);
+
+            double overallProgress = (total <= 1) ? 1.0 : Math.min(1.0, sampleIndex * invSpan);
+            double freqHz = f0 + (df * overallProgress);
+            double w = SineTable.sinCycles(phase) * toneMix;
+            if (noiseMix > 0.0) {
+                // Low-pass the noise component to keep impulses tactile and less "snappy".
+                double white = rnd.nextBipolar();
+                noiseState += (white - noiseState) * VOICE_NOISE_COEFF;
+                w += noiseState * noiseMix;
+            }
+
+            phase = SineTable.wrap(phase + (freqHz * INV_SAMPLE_RATE));
+
+            buf[start + k] = (float) (w * envs[start + k]);
+            v.samplesLeft = samplesLeft - 1;
+        }
+        v.phase = phase;
+        v.noiseState = noiseState;
+    }
+
+    private void renderBump(RenderParams p, Block b, int frames, int channels) {
+        if (p.accelBumpEnabled && b.bumpLeft > 0) {
+            int total = Math.max(1, b.bumpTotal);
+            int count = Math.min(frames, b.bumpLeft);
+            double invTotal = 1.0 / total;
+            double ph = bumpPhase;
+            float[] buf = srcBuf;
+            for (int i = 0; i < count; i++) {
+                double progress = 1.0 - ((b.bumpLeft - i) * invTotal);
+                double env = SineTable.sinCycles(progress * 0.5);
+                // Low thump around ~32Hz
+                buf[i] = (float) (SineTable.sinCycles(ph) * env);
+                ph = SineTable.wrap(ph + BUMP_STEP);
+            }
+            b.bumpLeft -= count;
+            mixMono(count, channels, p.bumpMask, p.accelBumpGain * b.bumpMul);
+        }
+        // The oscillator free-runs every frame, active or not.
+        bumpPhase = (bumpPhase + (BUMP_STEP * frames)) % 1.0;
+    }
+
+    private void renderChime(RenderParams p, Block b, int frames, int channels) {
+        if (p.biomeChimeEnabled && b.chimeLeft > 0) {
+            // A short low sine "bump".
+            int total = Math.max(1, b.chimeTotal);
+            int count = Math.min(frames, b.chimeLeft);
+            double invTotal = 1.0 / total;
+            double ph = chimePhase;
+            float[] buf = srcBuf;
+            for (int i = 0; i < count; i++) {
+                double progress = 1.0 - ((b.chimeLeft - i) * invTotal);
+                double env = SineTable.sinCycles(progress * 0.5); // bell-ish half-sine envelope
+                buf[i] = (float) (SineTable.sinCycles(ph) * env);
+                ph = SineTable.wrap(ph + CHIME_STEP);
+            }
+            b.chimeLeft -= count;
+            mixMono(count, channels, p.chimeMask, p.chimeGain * b.chimeMul);
+        }
+        chimePhase = (chimePhase + (CHIME_STEP * frames)) % 1.0;
+    }
+
+    /** Adds srcBuf[0..count) to the channels in {@code mask} (0 = all) with a constant gain. */
+    private void mixMono(int count, int channels, int mask, double gain) {
+        if (gain == 0.0 || count <= 0) {
+            return;
+        }
+        float g = (float) gain;
+        for (int c = 0; c < channels; c++) {
+            chanGain[c] = (mask == 0 || ((mask >>> c) & 1) != 0) ? g : 0.0f;
+        }
+        mixChannels(0, count, channels);
+    }
+
+    /** Per-channel gains for a voice: plain mask routing, or mask-normalized pan gains when spatial. */
+    private void fillVoiceGains(ImpulseVoice v, int channels, int mask, float g) {
+        if (!v.spatialEnabled) {
+            for (int c = 0; c < channels; c++) {
+                chanGain[c] = (mask == 0 || ((mask >>> c) & 1) != 0) ? g : 0.0f;
+            }
+            return;
+        }
+
+        int m = (mask == 0) ? ((channels == 8) ? 0xFF : 0x03) : mask;
+        v.ensureMaskedPan(channels, m);
+        if (channels == 2) {
+            chanGain[0] = ((m & 0x01) != 0) ? g * v.maskedPan2L : 0.0f;
+            chanGain[1] = ((m & 0x02) != 0) ? g * v.maskedPan2R : 0.0f;
+            return;
+        }
+        chanGain[0] = ((m & 0x01) != 0) ? g * v.maskedPan8FL : 0.0f;
+        chanGain[1] = ((m & 0x02) != 0) ? g * v.maskedPan8FR : 0.0f;
+        chanGain[2] = ((m & 0x04) != 0) ? g * v.maskedPan8C : 0.0f;
+        chanGain[3] = ((m & 0x08) != 0) ? g * v.maskedPan8LFE : 0.0f;
+        chanGain[4] = ((m & 0x10) != 0) ? g * v.maskedPan8SL : 0.0f;
+        chanGain[5] = ((m & 0x20) != 0) ? g * v.maskedPan8SR : 0.0f;
+        chanGain[6] = ((m & 0x40) != 0) ? g * v.maskedPan8BL : 0.0f;
+        chanGain[7] = ((m & 0x80) != 0) ? g * v.maskedPan8BR : 0.0f;
+    }
+
+    /** mix[frame, c] += srcBuf[frame] * chanGain[c] for frames [start, start + count). */
+    private void mixChannels(int start, int count, int channels) {
+        kernels.mixChannels(srcBuf, mix, chanGain, start, count, channels);
+    }
+
+    private void postProcess(RenderParams p, Block b, int frames, int channels) {
+        float[] gate = frameGain;
+        float[] sv = frameSv;
+
+        // Stream gate ramp (fade in/out when telemetry appears/disappears) * master.
+        double invFrames = 1.0 / frames;
+        for (int i = 0; i < frames; i++) {
+            double g = b.startGain + ((b.endGain - b.startGain) * (i * invFrames));
+            gate[i] = (float) (p.master * g);
+        }
+
+        // Smart Volume (AGC): updated once per frame from the pre-calibration mix and applied uniformly.
+        if (p.smartVolumeEnabled) {
+            smartVolume.updateTarget(p.smartVolumeTargetPct);
+            for (int i = 0; i < frames; i++) {
+                sv[i] = (float) smartVolume.observeFramePeak(mix, i * channels, channels);
+            }
+        } else {
+            smartVolume.resetIfDisabled();
+            Arrays.fill(sv, 0, frames, 1.0f);
+        }
+
+        if (p != eqParams) {
+            resetChangedFilters(p);
+        }
+
+        boolean calibrate = p.calibrate;
+        boolean eq = p.outputEqActive;
+        double ob0 = p.ob0, ob1 = p.ob1, ob2 = p.ob2, oa1 = p.oa1, oa2 = p.oa2;
+
+        float[] src = mix;
+        double[] dst = pre;
+        for (int c = 0; c < channels; c++) {
+            double tg = calibrate ? p.transducerGain[c] : 1.0;
+            boolean teq = calibrate && p.transducerEqActive[c];
+            double tb0 = p.tb0[c], tb1 = p.tb1[c], tb2 = p.tb2[c], ta1 = p.ta1[c], ta2 = p.ta2[c];
+            double tX1 = tx1[c], tX2 = tx2[c], tY1 = ty1[c], tY2 = ty2[c];
+            double oX1 = ox1[c], oX2 = ox2[c], oY1 = oy1[c], oY2 = oy2[c];
+            for (int i = 0, o = c; i < frames; i++, o += channels) {
+                double s = src[o] * sv[i] * tg;
+                if (teq) {
+                    double y = (tb0 * s) + (tb1 * tX1) + (tb2 * tX2) - (ta1 * tY1) - (ta2 * tY2);
+                    tX2 = tX1;
+                    tX1 = s;
+                    tY2 = tY1;
+                    tY1 = y;
+                    s = y;
+                }
+                if (eq) {
+                    double y = (ob0 * s) + (ob1 * oX1) + (ob2 * oX2) - (oa1 * oY1) - (oa2 * oY2);
+                    oX2 = oX1;
+                    oX1 = s;
+                    oY2 = oY1;
+                    oY1 = y;
+                    s = y;
+                }
+                dst[o] = s;
+            }
+            tx1[c] = tX1;
+            tx2[c] = tX2;
+            ty1[c] = tY1;
+            ty2[c] = tY2;
+            ox1[c] = oX1;
+            ox2[c] = oX2;
+            oy1[c] = oY1;
+            oy2[c] = oY2;
+        }
+
+        // Soft limiter: tanh(x * drive) / tanh(drive), then the stream gate * master.
+        kernels.limit(pre, gate, out, frames, channels, p.limiterDrive, p.limiterInvNorm);
+    }
+
+    /**
+     * Clears the biquad states whose settings changed (or that were switched off) with the new params, so old
+     * resonances are not dragged across a settings change.
+     */
+    private void resetChangedFilters(RenderParams p) {
+        RenderParams old = eqParams;
+        eqParams = p;
+        for (int c = 0; c < MAX_CHANNELS; c++) {
+            boolean was = old != null && old.calibrate && old.transducerEqActive[c];
+            boolean now = p.calibrate && p.transducerEqActive[c];
+            if (!now || !was
+                    || old.transducerEqFreqHz[c] != p.transducerEqFreqHz[c]
+                    || old.transducerEqGainDb[c] != p.transducerEqGainDb[c]) {
+                tx1[c] = tx2[c] = ty1[c] = ty2[c] = 0.0;
+            }
+        }
+        boolean outputUnchanged = old != null && old.outputEqActive && p.outputEqActive
+                && old.outputEqFreqHz == p.outputEqFreqHz
+                && old.outputEqGainDb == p.outputEqGainDb
+                && old.channels == p.channels;
+        if (!outputUnchanged) {
+            Arrays.fill(ox1, 0.0);
+            Arrays.fill(ox2, 0.0);
+            Arrays.fill(oy1, 0.0);
+            Arrays.fill(oy2, 0.0);
+        }
+    }
+
+    private static double onePoleCoeff(double cutoffHz) {
+        return 1.0 - Math.exp(-(2.0 * Math.PI * cutoffHz) / SAMPLE_RATE);
+    }
+
+    private static double clamp(double v, double min, double max) {
+        if (v < min) return min;
+        if (v > max) return max;
+        return v;
+    }
+
+    private static int clampInt(int v, int min, int max) {
+        if (v < min) return min;
+        if (v > max) return max;
+        return v;
+    }
+
+    private static final class SmartVolume {
+        // Keep this intentionally slow and bounded so it doesn't fight the priority/ducking mixer.
+        private static final double MAX_BOOST_DB = 12.0;
+        private static final double MAX_CUT_DB = 12.0;
+
+        // Detector time constants.
+        private static final double DETECT_ATTACK_S = 0.025;
+        private static final double DETECT_RELEASE_S = 0.250;
+
+        // Gain smoothing time constants.
+        private static final double GAIN_DOWN_S = 0.180;
+        private static final double GAIN_UP_S = 0.900;
+
+        // Derived constants (previously recomputed every frame).
+        private static final double DETECT_ATTACK_COEFF = coeffFromTime(DETECT_ATTACK_S);
+        private static final double DETECT_RELEASE_COEFF = coeffFromTime(DETECT_RELEASE_S);
+        private static final double GAIN_DOWN_COEFF = coeffFromTime(GAIN_DOWN_S);
+        private static final double GAIN_UP_COEFF = coeffFromTime(GAIN_UP_S);
+        private static final double MIN_GAIN = Math.pow(10.0, (-MAX_CUT_DB) / 20.0);
+        private static final double MAX_GAIN = Math.pow(10.0, (MAX_BOOST_DB) / 20.0);
+
+        private boolean active;
+        private double target = 0.65;
+        private double env = 0.0;
+        private double gain = 1.0;
+
+        void updateTarget(int targetPct) {
+            int pct = clampInt(targetPct, 10, 90);
+            this.target = pct / 100.0;
+            this.active = true;
+        }
+
+        /**
+         * Observe one interleaved frame and return the updated gain.
+         */
+        double observeFramePeak(float[] frames, int offset, int channelCount) {
+            int n = (channelCount == 8) ? 8 : 2;
+            double peak = 0.0;
+            for (int i = 0; i < n; i++) {
+                double a = Math.abs(frames[offset + i]);
+                if (a > peak) {
+                    peak = a;
+                }
+            }
+
+            double aAtk = DETECT_ATTACK_COEFF;
+            double aRel = DETECT_RELEASE_COEFF;
+            if (peak > env) {
+                env = (aAtk * env) + ((1.0 - aAtk) * peak);
+            } else {
+                env = (aRel * env) + ((1.0 - aRel) * peak);
+            }
+
+            double e = Math.max(1e-6, env);
+            double desired = target / e;
+
+            desired = clamp(desired, MIN_GAIN, MAX_GAIN);
+
+            double a = (desired < gain) ? GAIN_DOWN_COEFF : GAIN_UP_COEFF;
+            gain = (a * gain) + ((1.0 - a) * desired);
+            return gain;
+        }
+
+        void resetIfDisabled() {
+            if (!active) {
+                return;
+            }
+            active = false;
+            env = 0.0;
+            gain = 1.0;
+        }
+
+        private static double coeffFromTime(double seconds) {
+            double s = Math.max(0.001, seconds);
+            return Math.exp(-1.0 / (SAMPLE_RATE * s));
+        }
+    }
+}
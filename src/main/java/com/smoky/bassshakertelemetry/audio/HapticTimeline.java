@@ -0,0 +1,84 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Scripted input for {@link OfflineRenderer}: timestamped calls against an {@link AudioOutputEngine}.
+ *
+ * <p>Actions are the engine's normal public API ({@code triggerImpulse}, {@code triggerInstrumentImpulse},
+ * {@code updateTelemetry}, ...), so a timeline exercises exactly the code paths the game does. Actions at the
+ * same time run in insertion order. Wrap calls in {@code HapticEventContext.withSpatialHint(...)} to give them a
+ * direction/distance.
+ *
+ * <p>Not thread-safe; build it on one thread, then render.
+ */
+public final class HapticTimeline {
+    private final List<Entry> entries = new ArrayList<>();
+    private boolean sorted = true;
+
+    static final class Entry {
+        final long frame;
+        final Consumer<AudioOutputEngine> action;
+
+        private Entry(long frame, Consumer<AudioOutputEngine> action) {
+            this.frame = frame;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Runs {@code action} on the offline engine at {@code timeMs} from the start of the render.
+     */
+    public HapticTimeline at(double timeMs, Consumer<AudioOutputEngine> action) {
+        if (action == null) {
+            return this;
+        }
+        long frame = Math.max(0L, Math.round((Math.max(0.0, timeMs) / 1000.0) * AudioOutputEngine.SAMPLE_RATE));
+        if (!entries.isEmpty() && frame < entries.get(entries.size() - 1).frame) {
+            sorted = false;
+        }
+        entries.add(new Entry(frame, action));
+        return this;
+    }
+
+    /**
+     * Telemetry sample, as sent by the client tick ({@link AudioOutputEngine#updateTelemetry}).
+     */
+    public HapticTimeline telemetry(double timeMs, double speed, double accel, boolean elytra, boolean onGround, boolean inWater, boolean swimming) {
+        return at(timeMs, e -> e.updateTelemetry(speed, accel, elytra, onGround, inWater, swimming));
+    }
+
+    /**
+     * Marks telemetry live/stale ({@link AudioOutputEngine#setTelemetryLive}).
+     */
+    public HapticTimeline telemetryLive(double timeMs, boolean live) {
+        return at(timeMs, e -> e.setTelemetryLive(live));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Time of the last entry in ms (0 when empty).
+     */
+    public double endMs() {
+        long last = 0L;
+        for (Entry e : entries) {
+            last = Math.max(last, e.frame);
+        }
+        return (last * 1000.0) / AudioOutputEngine.SAMPLE_RATE;
+    }
+
+    List<Entry> entries() {
+        if (!sorted) {
+            // Stable: equal timestamps keep insertion order.
+            entries.sort((a, b) -> Long.compare(a.frame, b.frame));
+            sorted = true;
+        }
+        return Collections.unmodifiableList(entries);
+    }
+}
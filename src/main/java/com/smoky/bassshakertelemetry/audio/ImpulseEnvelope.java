@@ -0,0 +1,176 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstVibrationProfiles;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+import static com.smoky.bassshakertelemetry.audio.AudioOutputEngine.SAMPLE_RATE;
+
+/**
+ * Precomputed impulse envelope: a shape table sampled over the event (or over one pulse for looped
+ * patterns) plus click-free attack/release ramps.
+ *
+ * <p>Built-in patterns live in {@link ImpulsePattern}; custom curves come from the {@code envelopes}
+ * section of the vibration profiles file and are compiled once per profile reload. Both render the same
+ * way, so a custom curve costs the same as a built-in one.
+ *
+ * <p>Immutable and shared between voices.
+ */
+final class ImpulseEnvelope {
+    static final int TABLE_SIZE = 512;
+
+    // Custom curves compiled from the vibration profiles store they were read from.
+    private static volatile CustomSet custom;
+
+    final String id;
+    // TABLE_SIZE + 2 entries: [0..TABLE_SIZE] covers progress 0..1, the last one guards interpolation.
+    private final float[] table;
+    // Looped patterns index the table per pulse and apply a gentle overall decay.
+    private final boolean pulsed;
+    private final int attackSamples;
+    private final int releaseSamples;
+    private final double invAttack;
+    private final double invRelease;
+
+    private ImpulseEnvelope(String id, float[] table, boolean pulsed, double attackMs, double releaseMs) {
+        this.id = id;
+        this.table = table;
+        this.pulsed = pulsed;
+        this.attackSamples = (int) (SAMPLE_RATE * (attackMs / 1000.0));
+        this.releaseSamples = (int) (SAMPLE_RATE * (releaseMs / 1000.0));
+        this.invAttack = (attackSamples <= 0) ? 0.0 : 1.0 / attackSamples;
+        this.invRelease = (releaseSamples <= 0) ? 0.0 : 1.0 / releaseSamples;
+    }
+
+    static ImpulseEnvelope ofShape(String id, DoubleUnaryOperator shape, boolean pulsed, double attackMs, double releaseMs) {
+        float[] t = new float[TABLE_SIZE + 2];
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            t[i] = (float) shape.applyAsDouble(i / (double) TABLE_SIZE);
+        }
+        t[TABLE_SIZE + 1] = t[TABLE_SIZE];
+        return new ImpulseEnvelope(id, t, pulsed, attackMs, releaseMs);
+    }
+
+    /**
+     * Builds a one-shot envelope from evenly spaced points (first = start, last = end of the event).
+     */
+    static ImpulseEnvelope ofPoints(String id, double[] points, double attackMs, double releaseMs) {
+        int last = points.length - 1;
+        return ofShape(id, p -> {
+            double pos = p * last;
+            int i = Math.min(last - 1, (int) pos);
+            double frac = pos - i;
+            double v = points[i] + ((points[i + 1] - points[i]) * frac);
+            return clamp(v, 0.0, 1.0);
+        }, false, attackMs, releaseMs);
+    }
+
+    /**
+     * Resolves a profile/trigger pattern name. Unknown names fall back to {@code single} like before.
+     * Call from trigger threads, not the render thread (may compile custom curves).
+     */
+    static ImpulseEnvelope forPattern(String pattern) {
+        String key = (pattern == null) ? "" : pattern.trim().toLowerCase(java.util.Locale.ROOT);
+        ImpulsePattern builtIn = ImpulsePattern.fromId(key);
+        if (builtIn != null) {
+            return builtIn.envelope;
+        }
+        ImpulseEnvelope c = customEnvelopes().get(key);
+        return (c != null) ? c : ImpulsePattern.SINGLE.envelope;
+    }
+
+    private static Map<String, ImpulseEnvelope> customEnvelopes() {
+        BstVibrationProfiles.Store store = BstVibrationProfiles.get();
+        CustomSet set = custom;
+        if (set != null && set.source == store) {
+            return set.envelopes;
+        }
+
+        Map<String, ImpulseEnvelope> map = new HashMap<>();
+        if (store != null) {
+            for (Map.Entry<String, BstVibrationProfiles.EnvelopeCurve> e : store.envelopes().entrySet()) {
+                BstVibrationProfiles.EnvelopeCurve curve = e.getValue();
+                if (curve == null || curve.points == null || curve.points.length < 2) {
+                    continue;
+                }
+                String id = e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
+                if (id.isEmpty() || ImpulsePattern.fromId(id) != null) {
+                    continue;
+                }
+                map.put(id, ofPoints(id, curve.points.clone(), Math.max(0, curve.attackMs), Math.max(0, curve.releaseMs)));
+            }
+        }
+        custom = new CustomSet(store, map);
+        return map;
+    }
+
+    /**
+     * Writes {@code count} envelope values into {@code dst[offset..]}, starting at {@code sampleIndex}
+     * (samples already played) with {@code samplesLeft} remaining out of {@code totalSamples}.
+     */
+    void fill(float[] dst, int offset, int count, int sampleIndex, int samplesLeft, int totalSamples,
+              int pulsePeriodSamples, int pulseWidthSamples) {
+        float[] t = table;
+        double invSpan = (totalSamples <= 1) ? 0.0 : 1.0 / (totalSamples - 1);
+        boolean hasAttack = attackSamples > 0;
+        boolean hasRelease = releaseSamples > 0;
+
+        if (!pulsed) {
+            double pos = (totalSamples <= 1) ? TABLE_SIZE : sampleIndex * invSpan * TABLE_SIZE;
+            double step = invSpan * TABLE_SIZE;
+            for (int k = 0; k < count; k++) {
+                double p = Math.min(pos, TABLE_SIZE);
+                int i = (int) p;
+                double shape = t[i] + ((t[i + 1] - t[i]) * (p - i));
+                dst[offset + k] = (float) (shape * ramps(sampleIndex + k, samplesLeft - k, hasAttack, hasRelease));
+                pos += step;
+            }
+            return;
+        }
+
+        int period = Math.max(1, pulsePeriodSamples);
+        int width = Math.max(1, Math.min(pulseWidthSamples, period));
+        double pulseStep = TABLE_SIZE / (double) width;
+        int inPeriod = sampleIndex % period;
+        for (int k = 0; k < count; k++) {
+            int si = sampleIndex + k;
+            double env = 0.0;
+            if (inPeriod < width) {
+                double p = inPeriod * pulseStep;
+                int i = (int) p;
+                env = t[i] + ((t[i + 1] - t[i]) * (p - i));
+                double overallProgress = (totalSamples <= 1) ? 1.0 : Math.min(1.0, si * invSpan);
+                // Gentle overall decay so long loops don't feel too "stuck on".
+                env *= (0.65 + (0.35 * (1.0 - overallProgress)));
+            }
+            dst[offset + k] = (float) (env * ramps(si, samplesLeft - k, hasAttack, hasRelease));
+            if (++inPeriod >= period) {
+                inPeriod = 0;
+            }
+        }
+    }
+
+    private double ramps(int sampleIndex, int samplesLeft, boolean hasAttack, boolean hasRelease) {
+        double attack = hasAttack ? Math.min(1.0, sampleIndex * invAttack) : 1.0;
+        double release = hasRelease ? clamp(samplesLeft * invRelease, 0.0, 1.0) : 1.0;
+        return attack * release;
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        if (v < lo) return lo;
+        if (v > hi) return hi;
+        return v;
+    }
+
+    private static final class CustomSet {
+        final BstVibrationProfiles.Store source;
+        final Map<String, ImpulseEnvelope> envelopes;
+
+        CustomSet(BstVibrationProfiles.Store source, Map<String, ImpulseEnvelope> envelopes) {
+            this.source = source;
+            this.envelopes = envelopes;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Built-in impulse envelope patterns (the {@code pattern} field of vibration profiles and triggers).
+ *
+ * <p>Each pattern is tabulated once into an {@link ImpulseEnvelope}; voices never look at the name again.
+ */
+enum ImpulsePattern {
+    // Raised-cosine envelope (sin^2) reduces attack punch vs a simple half-sine.
+    SINGLE("single", ImpulsePattern::raisedCosine, false, 10.0, 15.0),
+    // Same general shape as "single" but with a longer attack/release to feel softer.
+    SOFT_SINGLE("soft_single", ImpulsePattern::raisedCosine, false, 20.0, 28.0),
+    // Constant sustain (tone-friendly). Attack/release prevents clicks.
+    FLAT("flat", p -> 1.0, false, 10.0, 15.0),
+    // Strong at the start, fades to 0 over the duration.
+    FADE_OUT("fade_out", p -> Math.pow(1.0 - p, 1.15), false, 10.0, 15.0),
+    // Punchy onset then rapid decay.
+    SHOCKWAVE("shockwave", p -> Math.exp(-p * 6.0), false, 10.0, 15.0),
+    // Like shockwave but with a shorter attack to feel more abrupt.
+    PUNCH("punch", p -> Math.exp(-p * 6.6), false, 3.0, 12.0),
+    // Repeating sin^2 pulses (table covers one pulse width).
+    PULSE_LOOP("pulse_loop", ImpulsePattern::raisedCosine, true, 10.0, 15.0);
+
+    private static final Map<String, ImpulsePattern> BY_ID = new HashMap<>();
+
+    static {
+        for (ImpulsePattern p : values()) {
+            BY_ID.put(p.id, p);
+        }
+    }
+
+    final String id;
+    final ImpulseEnvelope envelope;
+
+    ImpulsePattern(String id, DoubleUnaryOperator shape, boolean pulsed, double attackMs, double releaseMs) {
+        this.id = id;
+        this.envelope = ImpulseEnvelope.ofShape(id, shape, pulsed, attackMs, releaseMs);
+    }
+
+    /** Lookup by lowercase id; null if not a built-in pattern. */
+    static ImpulsePattern fromId(String id) {
+        return (id == null) ? null : BY_ID.get(id);
+    }
+
+    private static double raisedCosine(double p) {
+        double e = Math.sin(p * Math.PI);
+        return e * e;
+    }
+}
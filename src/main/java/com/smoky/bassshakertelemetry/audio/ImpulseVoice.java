@@ -0,0 +1,219 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
+import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.FastRandom;
+
+/**
+ * One active impulse voice. Owned by the BST-Audio thread and recycled through {@link ImpulseVoicePool}.
+ */
+final class ImpulseVoice {
+    int totalSamples;
+    int samplesLeft;
+    int delaySamplesLeft;
+
+    double freqHz;
+    double startFreqHz;
+    double endFreqHz;
+    double gain;
+    double noiseMix;
+    ImpulseEnvelope envelope;
+    String debugKey;
+    String instrumentId;
+    int forcedMask;
+    int pulsePeriodSamples;
+    int pulseWidthSamples;
+
+    // Oscillator phase in cycles (0..1).
+    double phase;
+    double noiseState;
+    // Per-voice noise stream, reseeded by the pool on every acquire.
+    final FastRandom noise = new FastRandom(0L);
+
+    DspGraphInstance dspGraph;
+    DspContext dspContext;
+    // With a graph: the clip being recorded for the cache (may be null). Without: the cached clip being played.
+    PcmClipCache.Clip clip;
+
+    int priority;
+    HapticBus bus;
+    long createdNanos;
+
+    // Resolved Sound Scape mask and the router snapshot it was resolved against.
+    int routeMask;
+    SoundScapeRouter routedBy;
+
+    // Pool bookkeeping (render thread only).
+    int poolSlot = -1;
+    int heapIndex = -1;
+
+    // Timing-wheel bookkeeping while the voice waits for its start sample (render thread only).
+    boolean scheduled;
+    long startSample;
+    int wheelBucket = -1;
+    ImpulseVoice wheelPrev;
+    ImpulseVoice wheelNext;
+
+    // --- Phase 3: Spatial panning ---
+    /** True when the caller provided a non-center direction hint for this voice. */
+    boolean spatialDesired;
+    boolean spatialEnabled;
+    double spatialAzimuthDeg;
+    double spatialDistanceM;
+
+    // Base pan gains (pre-mask, pre-normalization)
+    float basePan2L;
+    float basePan2R;
+
+    float basePan8FL;
+    float basePan8FR;
+    float basePan8C;
+    float basePan8LFE;
+    float basePan8SL;
+    float basePan8SR;
+    float basePan8BL;
+    float basePan8BR;
+
+    // Cached masked+normalized gains for the last (channels,mask) combination.
+    int cachedPanChannels = -1;
+    int cachedPanMask = Integer.MIN_VALUE;
+
+    float maskedPan2L;
+    float maskedPan2R;
+
+    float maskedPan8FL;
+    float maskedPan8FR;
+    float maskedPan8C;
+    float maskedPan8LFE;
+    float maskedPan8SL;
+    float maskedPan8SR;
+    float maskedPan8BL;
+    float maskedPan8BR;
+
+    /**
+     * Clears per-event state so a recycled voice can't leak the previous event's graph, labels or pan.
+     */
+    void reset() {
+        totalSamples = 0;
+        samplesLeft = 0;
+        delaySamplesLeft = 0;
+        startSample = 0L;
+        freqHz = 0.0;
+        startFreqHz = 0.0;
+        endFreqHz = 0.0;
+        gain = 0.0;
+        noiseMix = 0.0;
+        envelope = null;
+        debugKey = null;
+        instrumentId = null;
+        forcedMask = 0;
+        routeMask = 0;
+        routedBy = null;
+        pulsePeriodSamples = 0;
+        pulseWidthSamples = 0;
+        phase = 0.0;
+        noiseState = 0.0;
+        if (dspGraph != null) {
+            // Back to its instrument's pool; nothing else references it once the voice is done.
+            dspGraph.release();
+        }
+        dspGraph = null;
+        dspContext = null;
+        if (clip != null) {
+            // Unfinished recording (voice stolen or stopped early): free the key for the next miss.
+            clip.discard();
+        }
+        clip = null;
+        priority = 0;
+        bus = null;
+        createdNanos = 0L;
+        spatialDesired = false;
+        spatialEnabled = false;
+        spatialAzimuthDeg = 0.0;
+        spatialDistanceM = 0.0;
+        cachedPanChannels = -1;
+        cachedPanMask = Integer.MIN_VALUE;
+    }
+
+    void ensureMaskedPan(int channelCount, int mask) {
+        int ch = (channelCount == 8) ? 8 : 2;
+        if (cachedPanChannels == ch && cachedPanMask == mask) {
+            return;
+        }
+        cachedPanChannels = ch;
+        cachedPanMask = mask;
+
+        if (ch == 2) {
+            maskedPan2L = ((mask & 0x01) != 0) ? basePan2L : 0.0f;
+            maskedPan2R = ((mask & 0x02) != 0) ? basePan2R : 0.0f;
+
+            double n = Math.sqrt((maskedPan2L * maskedPan2L) + (maskedPan2R * maskedPan2R));
+            if (n < 1.0e-6) {
+                int count = 0;
+                if ((mask & 0x01) != 0) count++;
+                if ((mask & 0x02) != 0) count++;
+                if (count <= 0) {
+                    maskedPan2L = maskedPan2R = 0.0f;
+                    return;
+                }
+                float g = (float) (1.0 / Math.sqrt(count));
+                maskedPan2L = ((mask & 0x01) != 0) ? g : 0.0f;
+                maskedPan2R = ((mask & 0x02) != 0) ? g : 0.0f;
+                return;
+            }
+
+            float inv = (float) (1.0 / n);
+            maskedPan2L *= inv;
+            maskedPan2R *= inv;
+            return;
+        }
+
+        maskedPan8FL = ((mask & 0x01) != 0) ? basePan8FL : 0.0f;
+        maskedPan8FR = ((mask & 0x02) != 0) ? basePan8FR : 0.0f;
+        maskedPan8C = ((mask & 0x04) != 0) ? basePan8C : 0.0f;
+        maskedPan8LFE = ((mask & 0x08) != 0) ? basePan8LFE : 0.0f;
+        maskedPan8SL = ((mask & 0x10) != 0) ? basePan8SL : 0.0f;
+        maskedPan8SR = ((mask & 0x20) != 0) ? basePan8SR : 0.0f;
+        maskedPan8BL = ((mask & 0x40) != 0) ? basePan8BL : 0.0f;
+        maskedPan8BR = ((mask & 0x80) != 0) ? basePan8BR : 0.0f;
+
+        double n = 0.0;
+        n += maskedPan8FL * maskedPan8FL;
+        n += maskedPan8FR * maskedPan8FR;
+        n += maskedPan8C * maskedPan8C;
+        n += maskedPan8LFE * maskedPan8LFE;
+        n += maskedPan8SL * maskedPan8SL;
+        n += maskedPan8SR * maskedPan8SR;
+        n += maskedPan8BL * maskedPan8BL;
+        n += maskedPan8BR * maskedPan8BR;
+        n = Math.sqrt(n);
+
+        if (n < 1.0e-6) {
+            int count = Integer.bitCount(mask & 0xFF);
+            if (count <= 0) {
+                maskedPan8FL = maskedPan8FR = maskedPan8C = maskedPan8LFE = maskedPan8SL = maskedPan8SR = maskedPan8BL = maskedPan8BR = 0.0f;
+                return;
+            }
+            float g = (float) (1.0 / Math.sqrt(count));
+            maskedPan8FL = ((mask & 0x01) != 0) ? g : 0.0f;
+            maskedPan8FR = ((mask & 0x02) != 0) ? g : 0.0f;
+            maskedPan8C = ((mask & 0x04) != 0) ? g : 0.0f;
+            maskedPan8LFE = ((mask & 0x08) != 0) ? g : 0.0f;
+            maskedPan8SL = ((mask & 0x10) != 0) ? g : 0.0f;
+            maskedPan8SR = ((mask & 0x20) != 0) ? g : 0.0f;
+            maskedPan8BL = ((mask & 0x40) != 0) ? g : 0.0f;
+            maskedPan8BR = ((mask & 0x80) != 0) ? g : 0.0f;
+            return;
+        }
+
+        float inv = (float) (1.0 / n);
+        maskedPan8FL *= inv;
+        maskedPan8FR *= inv;
+        maskedPan8C *= inv;
+        maskedPan8LFE *= inv;
+        maskedPan8SL *= inv;
+        maskedPan8SR *= inv;
+        maskedPan8BL *= inv;
+        maskedPan8BR *= inv;
+    }
+}
@@ -0,0 +1,308 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.audio.dsp.FastRandom;
+
+/**
+ * Fixed-capacity pool of {@link ImpulseVoice}s for the BST-Audio thread.
+ *
+ * <p>All voices are allocated up front and recycled. Active voices live in a dense array (removal is a
+ * swap with the last element), and an indexed min-heap ordered by (priority, gain, age) finds the voice to
+ * steal when the configured limit is reached. A new event never steals from a voice that outranks it.
+ *
+ * <p>Delayed voices are {@link #schedule}d: they keep their place in the heap (so they still count against
+ * the limit and can be stolen) but wait in a {@link VoiceTimingWheel} instead of the active array, and
+ * {@link #activateDue} moves them in at the start of the block that contains their start sample.
+ *
+ * <p>Not thread-safe: render thread only (counters may be read from any thread).
+ */
+final class ImpulseVoicePool {
+    static final int MAX_VOICES = 64;
+    static final int MIN_VOICES = 4;
+    static final int DEFAULT_VOICES = 24;
+
+    private final ImpulseVoice[] active = new ImpulseVoice[MAX_VOICES];
+    private final ImpulseVoice[] free = new ImpulseVoice[MAX_VOICES];
+    // Min-heap: heap[0] is the weakest voice (first to be stolen).
+    private final ImpulseVoice[] heap = new ImpulseVoice[MAX_VOICES];
+    // Voices waiting in the wheel (dense, like active; poolSlot indexes whichever array holds the voice).
+    private final ImpulseVoice[] scheduled = new ImpulseVoice[MAX_VOICES];
+    private final VoiceTimingWheel wheel = new VoiceTimingWheel();
+
+    private int size;
+    private int scheduledCount;
+    private int heapSize;
+    private int freeCount;
+    private int limit = DEFAULT_VOICES;
+
+    // Seeds each acquired voice's noise stream (same pool seed + same events => same noise).
+    private final FastRandom voiceSeeds;
+
+    // Written by the render thread only; volatile so UI/debug can read them.
+    private volatile long stolenCount;
+    private volatile long rejectedCount;
+
+    ImpulseVoicePool(long seed) {
+        this.voiceSeeds = new FastRandom(seed);
+        for (int i = 0; i < MAX_VOICES; i++) {
+            free[freeCount++] = new ImpulseVoice();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    ImpulseVoice get(int index) {
+        return active[index];
+    }
+
+    /** Voices waiting for their start sample (not part of {@link #size()}). */
+    int scheduledCount() {
+        return scheduledCount;
+    }
+
+    ImpulseVoice getScheduled(int index) {
+        return scheduled[index];
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    long stolenCount() {
+        return stolenCount;
+    }
+
+    long rejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Apply a new voice limit. Shrinking steals the weakest voices immediately.
+     */
+    void setLimit(int newLimit) {
+        int l = Math.max(MIN_VOICES, Math.min(MAX_VOICES, newLimit));
+        if (l == limit) {
+            return;
+        }
+        limit = l;
+        while (size + scheduledCount > limit) {
+            release(heap[0]);
+            stolenCount++;
+        }
+    }
+
+    /**
+     * Take a voice for a new event. When the pool is full, the weakest active voice is stolen if it ranks
+     * at or below the incoming event; otherwise the event is rejected and null is returned.
+     *
+     * <p>The returned voice is reset, registered in the heap, and has priority/gain/createdNanos set.
+     */
+    ImpulseVoice acquire(int priority, double gain, long createdNanos) {
+        if (size + scheduledCount >= limit) {
+            ImpulseVoice weakest = heap[0];
+            boolean steal = weakest.priority < priority
+                    || (weakest.priority == priority && weakest.gain <= gain);
+            if (!steal) {
+                rejectedCount++;
+                return null;
+            }
+            release(weakest);
+            stolenCount++;
+        }
+
+        ImpulseVoice v = free[--freeCount];
+        free[freeCount] = null;
+        v.reset();
+        v.noise.setSeed(voiceSeeds.nextLong());
+        v.priority = priority;
+        v.gain = gain;
+        v.createdNanos = createdNanos;
+
+        v.poolSlot = size;
+        active[size++] = v;
+
+        int h = heapSize++;
+        heap[h] = v;
+        v.heapIndex = h;
+        siftUp(h);
+        return v;
+    }
+
+    /**
+     * Must be called after a voice's priority, gain or createdNanos changes (e.g. coalescing).
+     */
+    void keyChanged(ImpulseVoice v) {
+        int i = v.heapIndex;
+        if (i < 0) {
+            return;
+        }
+        siftUp(i);
+        siftDown(v.heapIndex);
+    }
+
+    /**
+     * Return the voice at a dense index to the pool. The last active voice is swapped into its place,
+     * so callers iterating should walk indices downward.
+     */
+    void releaseAt(int index) {
+        release(active[index]);
+    }
+
+    void release(ImpulseVoice v) {
+        if (v == null || v.poolSlot < 0) {
+            return;
+        }
+
+        heapRemove(v);
+        if (v.scheduled) {
+            wheel.remove(v);
+            removeScheduled(v);
+        } else {
+            removeActive(v);
+        }
+
+        v.reset();
+        v.scheduled = false;
+        v.poolSlot = -1;
+        free[freeCount++] = v;
+    }
+
+    /**
+     * Parks a just-acquired active voice until {@code startSample} (absolute sample clock). The caller keeps
+     * filling in its fields; it re-enters the active array through {@link #activateDue}.
+     */
+    void schedule(ImpulseVoice v, long startSample) {
+        if (v == null || v.poolSlot < 0 || v.scheduled) {
+            return;
+        }
+        removeActive(v);
+        v.scheduled = true;
+        v.startSample = startSample;
+        v.poolSlot = scheduledCount;
+        scheduled[scheduledCount++] = v;
+        wheel.insert(v);
+    }
+
+    /**
+     * Start of a block at {@code blockStart}: activates every scheduled voice that starts within the next
+     * {@code frames} samples, with {@code delaySamplesLeft} set to its offset into the block.
+     */
+    void activateDue(long blockStart, int frames) {
+        ImpulseVoice v = wheel.advance(blockStart + frames);
+        while (v != null) {
+            ImpulseVoice next = v.wheelNext;
+            v.wheelNext = null;
+            activate(v, (int) Math.max(0L, v.startSample - blockStart));
+            v = next;
+        }
+    }
+
+    /**
+     * Pulls a scheduled voice out of the wheel now; it starts {@code delaySamples} into the next block.
+     */
+    void startNow(ImpulseVoice v, int delaySamples) {
+        if (v == null || !v.scheduled) {
+            return;
+        }
+        wheel.remove(v);
+        activate(v, delaySamples);
+    }
+
+    private void activate(ImpulseVoice v, int delaySamples) {
+        removeScheduled(v);
+        v.scheduled = false;
+        v.delaySamplesLeft = delaySamples;
+        v.poolSlot = size;
+        active[size++] = v;
+    }
+
+    private void removeActive(ImpulseVoice v) {
+        int slot = v.poolSlot;
+        int last = --size;
+        ImpulseVoice moved = active[last];
+        active[slot] = moved;
+        moved.poolSlot = slot;
+        active[last] = null;
+    }
+
+    private void removeScheduled(ImpulseVoice v) {
+        int slot = v.poolSlot;
+        int last = --scheduledCount;
+        ImpulseVoice moved = scheduled[last];
+        scheduled[slot] = moved;
+        moved.poolSlot = slot;
+        scheduled[last] = null;
+    }
+
+    private void heapRemove(ImpulseVoice v) {
+        int i = v.heapIndex;
+        if (i < 0) {
+            return;
+        }
+        int last = --heapSize;
+        ImpulseVoice tail = heap[last];
+        heap[last] = null;
+        v.heapIndex = -1;
+        if (i == last) {
+            return;
+        }
+        heap[i] = tail;
+        tail.heapIndex = i;
+        siftUp(i);
+        siftDown(tail.heapIndex);
+    }
+
+    private void siftUp(int i) {
+        ImpulseVoice v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            ImpulseVoice p = heap[parent];
+            if (!weaker(v, p)) {
+                break;
+            }
+            heap[i] = p;
+            p.heapIndex = i;
+            i = parent;
+        }
+        heap[i] = v;
+        v.heapIndex = i;
+    }
+
+    private void siftDown(int i) {
+        int n = heapSize;
+        ImpulseVoice v = heap[i];
+        while (true) {
+            int left = (i << 1) + 1;
+            if (left >= n) {
+                break;
+            }
+            int right = left + 1;
+            int child = (right < n && weaker(heap[right], heap[left])) ? right : left;
+            ImpulseVoice c = heap[child];
+            if (!weaker(c, v)) {
+                break;
+            }
+            heap[i] = c;
+            c.heapIndex = i;
+            i = child;
+        }
+        heap[i] = v;
+        v.heapIndex = i;
+    }
+
+    // Lower priority first, then quieter, then older.
+    private static boolean weaker(ImpulseVoice a, ImpulseVoice b) {
+        if (a.priority != b.priority) {
+            return a.priority < b.priority;
+        }
+        if (a.gain != b.gain) {
+            return a.gain < b.gain;
+        }
+        return a.createdNanos < b.createdNanos;
+    }
+}
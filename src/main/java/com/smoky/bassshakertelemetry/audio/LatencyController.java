@@ -0,0 +1,165 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+
+/**
+ * Adaptive output latency: steers the total queued audio (render-ahead ring + device queue) towards the
+ * lowest level the device sustains without underruns.
+ *
+ * <p>One target (ms) drives three knobs: the render chunk size, how many blocks the renderer keeps ahead,
+ * and how full the writer lets the device buffer get. Underruns back off multiplicatively; after a quiet
+ * hold period the target steps down a little. A step-down that is followed by an underrun doubles the hold,
+ * so an unstable floor is not probed again every few seconds.
+ *
+ * <p>Render thread only (getters may be read from any thread).
+ */
+final class LatencyController {
+    static final int MIN_CHUNK_FRAMES = 240; // 5ms
+    static final int DEFAULT_CHUNK_FRAMES = 480; // 10ms
+    static final int MAX_CHUNK_FRAMES = 960; // 20ms
+
+    private static final double STEP_DOWN_MS = 5.0;
+    private static final long MIN_HOLD_NS = 5_000_000_000L;
+    private static final long MAX_HOLD_NS = 60_000_000_000L;
+    // An underrun this soon after a step-down means the previous level was the floor.
+    private static final long STEP_DOWN_GRACE_NS = 3_000_000_000L;
+
+    private volatile double targetMs;
+    private long holdNs = MIN_HOLD_NS;
+    private long lastChangeNs;
+    private long lastStepDownNs = Long.MIN_VALUE;
+
+    private long seenRingUnderruns;
+    private long seenDeviceUnderruns;
+
+    private volatile int chunkFrames = DEFAULT_CHUNK_FRAMES;
+    private volatile int aheadBlocks = 2;
+    // <= 0 means "let the device buffer fill completely".
+    private volatile int deviceLimitMs;
+    private volatile long adjustments;
+
+    int chunkFrames() {
+        return chunkFrames;
+    }
+
+    int aheadBlocks() {
+        return aheadBlocks;
+    }
+
+    int deviceLimitMs() {
+        return deviceLimitMs;
+    }
+
+    double targetMs() {
+        return targetMs;
+    }
+
+    long adjustments() {
+        return adjustments;
+    }
+
+    /**
+     * Start over from the configured render-ahead, e.g. after the device was (re)opened.
+     */
+    void reset(BstConfig.Data cfg, long nowNs, long ringUnderruns, long deviceUnderruns, int deviceBufferMs, int ringCapacity) {
+        seenRingUnderruns = ringUnderruns;
+        seenDeviceUnderruns = deviceUnderruns;
+        lastChangeNs = nowNs;
+        lastStepDownNs = Long.MIN_VALUE;
+        holdNs = MIN_HOLD_NS;
+
+        int ahead = clampInt(cfg.audioRenderAheadBlocks, 1, 8);
+        double start = (Math.max(0, deviceBufferMs)) + (ahead * (DEFAULT_CHUNK_FRAMES * 1000.0 / AudioOutputEngine.SAMPLE_RATE));
+        targetMs = clamp(start, minMs(cfg), maxMs(cfg));
+        apply(cfg, ringCapacity);
+    }
+
+    /**
+     * Called once per rendered block.
+     *
+     * @param ringCapacity blocks the PCM ring can hold (upper bound for render-ahead)
+     */
+    void update(BstConfig.Data cfg, long nowNs, long ringUnderruns, long deviceUnderruns, int ringCapacity) {
+        if (!cfg.adaptiveLatencyEnabled) {
+            chunkFrames = DEFAULT_CHUNK_FRAMES;
+            aheadBlocks = clampInt(cfg.audioRenderAheadBlocks, 1, ringCapacity);
+            deviceLimitMs = 0;
+            seenRingUnderruns = ringUnderruns;
+            seenDeviceUnderruns = deviceUnderruns;
+            return;
+        }
+
+        boolean underrun = ringUnderruns != seenRingUnderruns || deviceUnderruns != seenDeviceUnderruns;
+        seenRingUnderruns = ringUnderruns;
+        seenDeviceUnderruns = deviceUnderruns;
+
+        double min = minMs(cfg);
+        double max = maxMs(cfg);
+        double before = targetMs;
+
+        if (underrun) {
+            if (lastStepDownNs != Long.MIN_VALUE && (nowNs - lastStepDownNs) < STEP_DOWN_GRACE_NS) {
+                holdNs = Math.min(MAX_HOLD_NS, holdNs * 2);
+            }
+            targetMs = clamp((targetMs * 1.5) + chunkMs(), min, max);
+            lastChangeNs = nowNs;
+        } else if ((nowNs - lastChangeNs) >= holdNs && targetMs > min) {
+            targetMs = clamp(targetMs - STEP_DOWN_MS, min, max);
+            lastChangeNs = nowNs;
+            lastStepDownNs = nowNs;
+        } else {
+            // Config bounds may have moved.
+            targetMs = clamp(targetMs, min, max);
+        }
+
+        if (targetMs != before) {
+            adjustments++;
+        }
+        apply(cfg, ringCapacity);
+    }
+
+    private void apply(BstConfig.Data cfg, int ringCapacity) {
+        // Smaller blocks when the budget is tight, bigger (cheaper) blocks when we had to back off a lot.
+        int frames;
+        if (targetMs >= 60.0) {
+            frames = MAX_CHUNK_FRAMES;
+        } else if (targetMs >= 20.0) {
+            frames = DEFAULT_CHUNK_FRAMES;
+        } else {
+            frames = MIN_CHUNK_FRAMES;
+        }
+        double blockMs = frames * 1000.0 / AudioOutputEngine.SAMPLE_RATE;
+
+        // Keep at most half the budget in the ring; the rest may sit in the device buffer.
+        int maxAhead = clampInt(cfg.audioRenderAheadBlocks, 1, Math.max(1, ringCapacity));
+        int ahead = clampInt((int) Math.floor((targetMs * 0.5) / blockMs), 1, maxAhead);
+
+        chunkFrames = frames;
+        aheadBlocks = ahead;
+        deviceLimitMs = (int) Math.max(blockMs, Math.round(targetMs - (ahead * blockMs)));
+    }
+
+    private double chunkMs() {
+        return chunkFrames * 1000.0 / AudioOutputEngine.SAMPLE_RATE;
+    }
+
+    private static double minMs(BstConfig.Data cfg) {
+        return clampInt(cfg.adaptiveLatencyMinMs, 5, 200);
+    }
+
+    private static double maxMs(BstConfig.Data cfg) {
+        return Math.max(minMs(cfg), clampInt(cfg.adaptiveLatencyMaxMs, 5, 500));
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        if (v < lo) return lo;
+        if (v > hi) return hi;
+        return v;
+    }
+
+    private static int clampInt(int v, int lo, int hi) {
+        if (v < lo) return lo;
+        if (v > hi) return hi;
+        return v;
+    }
+}
@@ -0,0 +1,125 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The data-parallel inner loops of {@link HapticRenderer}: channel mixing, the limiter/gate stage and the
+ * float to int16 conversion.
+ *
+ * <p>{@link #SCALAR} is the reference implementation and the default. An optional SIMD implementation built
+ * on the incubating Vector API ships in the same jar (compiled from {@code src/vector/java}) and is only
+ * loaded when the JVM runs with {@code --add-modules jdk.incubator.vector -Dbst.simd=true}; it matches the
+ * scalar output to within 1 LSB of the int16 PCM ({@code MixKernelsCheck} in {@code src/jmh/java}, run by
+ * {@code ./gradlew checkMixKernels}).
+ */
+interface MixKernels {
+    String SIMD_PROPERTY = "bst.simd";
+
+    MixKernels SCALAR = new Scalar();
+
+    /** Kernels for new renderers: SIMD when requested and available, otherwise {@link #SCALAR}. */
+    MixKernels DEFAULT = Loader.select();
+
+    String name();
+
+    /** dst[frame * channels + c] += src[frame] * gains[c] for frames [start, start + count). */
+    void mixChannels(float[] src, float[] dst, float[] gains, int start, int count, int channels);
+
+    /**
+     * Soft limiter and gate over interleaved samples:
+     * dst[k] = (float) (clamp(tanh(pre[k] * drive) * invNorm, -1, 1) * gate[k / channels]).
+     */
+    void limit(double[] pre, float[] gate, float[] dst, int frames, int channels, double drive, double invNorm);
+
+    /** Interleaved float samples (-1..1) to 16-bit little-endian PCM. */
+    void toPcm16(float[] src, byte[] pcm, int samples);
+
+    /**
+     * The SIMD kernels if the Vector API module is present (regardless of {@code bst.simd}), else null.
+     * For {@code MixKernelsBenchmark} and {@code MixKernelsCheck}.
+     */
+    static MixKernels vector() {
+        return Loader.vector();
+    }
+
+    final class Scalar implements MixKernels {
+        private Scalar() {
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public void mixChannels(float[] src, float[] dst, float[] gains, int start, int count, int channels) {
+            int end = start + count;
+            for (int c = 0; c < channels; c++) {
+                float g = gains[c];
+                if (g == 0.0f) {
+                    continue;
+                }
+                for (int i = start, o = (start * channels) + c; i < end; i++, o += channels) {
+                    dst[o] += src[i] * g;
+                }
+            }
+        }
+
+        @Override
+        public void limit(double[] pre, float[] gate, float[] dst, int frames, int channels, double drive, double invNorm) {
+            for (int i = 0, o = 0; i < frames; i++) {
+                float g = gate[i];
+                for (int c = 0; c < channels; c++, o++) {
+                    double sample = Math.tanh(pre[o] * drive) * invNorm;
+                    if (sample < -1.0) sample = -1.0;
+                    if (sample > 1.0) sample = 1.0;
+                    dst[o] = (float) (sample * g);
+                }
+            }
+        }
+
+        @Override
+        public void toPcm16(float[] src, byte[] pcm, int samples) {
+            int idx = 0;
+            for (int k = 0; k < samples; k++) {
+                short s16 = (short) (src[k] * 32767);
+                pcm[idx++] = (byte) (s16 & 0xFF);
+                pcm[idx++] = (byte) ((s16 >>> 8) & 0xFF);
+            }
+        }
+    }
+
+    final class Loader {
+        private static final Logger LOGGER = LogManager.getLogger("bassshakertelemetry");
+        private static final String VECTOR_CLASS = "com.smoky.bassshakertelemetry.audio.VectorMixKernels";
+
+        private Loader() {
+        }
+
+        private static MixKernels select() {
+            if (!Boolean.getBoolean(SIMD_PROPERTY)) {
+                return SCALAR;
+            }
+            MixKernels v = vector();
+            if (v == null) {
+                LOGGER.warn("[BST] -D{}=true but jdk.incubator.vector is not available (add --add-modules jdk.incubator.vector); using scalar mixing", SIMD_PROPERTY);
+                return SCALAR;
+            }
+            LOGGER.info("[BST] Using SIMD mix kernels ({})", v.name());
+            return v;
+        }
+
+        private static MixKernels vector() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return null;
+            }
+            try {
+                return (MixKernels) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOGGER.warn("[BST] SIMD mix kernels failed to load ({})", e.toString());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Renders a {@link HapticTimeline} to PCM as fast as the CPU allows.
+ *
+ * <p>Uses a private {@link AudioOutputEngine} instance and the same per-block mix as the live render loop
+ * (voice pool, dominance/ducking, Sound Scape routing, calibration EQ, limiter), but with no device, no
+ * pacing and no websocket/debug side effects. Triggers see a clock derived from the sample position, and all
+ * noise is seeded from {@code seed}, so the same timeline, config and seed always produce the same bytes.
+ * That makes it usable for golden-output regression tests and for pre-rendering a session while tuning.
+ *
+ * <p>Timeline actions are applied at block boundaries (like the live loop, which drains triggers once per
+ * block), so {@code chunkFrames} is also the timing resolution.
+ *
+ * <p>Vibration profiles and instruments come from the loaded {@code BstVibrationProfiles} /
+ * {@code BstHapticInstruments} stores; only the audio config is taken from the snapshot.
+ */
+public final class OfflineRenderer {
+    public static final long DEFAULT_SEED = 0x5EEDL;
+
+    // Timeline time 0 maps here, so cooldowns that compare against "0 = never" behave like a running session.
+    private static final long CLOCK_ORIGIN_NS = 1_000_000_000_000L;
+    // Live revisions start at 1; the offline engine has its own router cache anyway.
+    private static final long OFFLINE_REVISION = 0L;
+
+    private OfflineRenderer() {
+    }
+
+    /**
+     * Rendered output: interleaved PCM_SIGNED 16-bit little-endian at 48kHz.
+     */
+    public static final class Result {
+        public final byte[] pcm;
+        public final int channels;
+        public final int frames;
+        // Wall time spent rendering (for throughput measurements).
+        public final long renderNanos;
+
+        private Result(byte[] pcm, int channels, int frames, long renderNanos) {
+            this.pcm = pcm;
+            this.channels = channels;
+            this.frames = frames;
+            this.renderNanos = renderNanos;
+        }
+
+        public AudioFormat format() {
+            return new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, AudioOutputEngine.SAMPLE_RATE, 16, channels, channels * 2, AudioOutputEngine.SAMPLE_RATE, false);
+        }
+
+        public double durationMs() {
+            return (frames * 1000.0) / AudioOutputEngine.SAMPLE_RATE;
+        }
+
+        /**
+         * Rendered audio time divided by wall time (e.g. 200 = 200x faster than real time).
+         */
+        public double realtimeFactor() {
+            return (renderNanos <= 0L) ? 0.0 : (durationMs() * 1_000_000.0) / renderNanos;
+        }
+
+        public void writeWav(Path path) throws IOException {
+            try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm), format(), frames)) {
+                AudioSystem.write(in, AudioFileFormat.Type.WAVE, path.toFile());
+            }
+        }
+    }
+
+    public static Result render(HapticTimeline timeline, BstConfig.Data cfg, double durationMs) {
+        return render(timeline, cfg, durationMs, DEFAULT_SEED, LatencyController.DEFAULT_CHUNK_FRAMES);
+    }
+
+    /**
+     * @param cfg         config snapshot (not modified; channel count follows Sound Scape settings as live)
+     * @param durationMs  length of the output
+     * @param seed        noise/voice seed; same seed = same output
+     * @param chunkFrames block size (clamped to 240..960 like the live loop)
+     */
+    public static Result render(HapticTimeline timeline, BstConfig.Data cfg, double durationMs, long seed, int chunkFrames) {
+        if (cfg == null) {
+            throw new IllegalArgumentException("cfg");
+        }
+        int channels = AudioOutputEngine.formatFor(cfg).getChannels();
+        int chunk = clampInt(chunkFrames, LatencyController.MIN_CHUNK_FRAMES, LatencyController.MAX_CHUNK_FRAMES);
+        long total = Math.round((Math.max(0.0, durationMs) / 1000.0) * AudioOutputEngine.SAMPLE_RATE);
+        int frameBytes = channels * 2;
+        if (total * frameBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Render too long for a single buffer: " + durationMs + "ms");
+        }
+        int totalFrames = (int) total;
+
+        long startNs = System.nanoTime();
+
+        AudioOutputEngine engine = new AudioOutputEngine(cfg, seed);
+        AudioOutputEngine.MixState mix = new AudioOutputEngine.MixState(chunk, seed ^ 0x9E3779B97F4A7C15L);
+        byte[] out = new byte[totalFrames * frameBytes];
+        byte[] block = new byte[chunk * frameBytes];
+
+        List<HapticTimeline.Entry> entries = (timeline == null) ? List.of() : timeline.entries();
+        int next = 0;
+
+        for (int pos = 0; pos < totalFrames; pos += chunk) {
+            int n = Math.min(chunk, totalFrames - pos);
+
+            while (next < entries.size() && entries.get(next).frame <= pos) {
+                HapticTimeline.Entry e = entries.get(next++);
+                engine.setOfflineTime(clockAt(e.frame));
+                e.action.accept(engine);
+                // Drain per action so a dense timeline can't overflow the bounded command queue.
+                engine.drainOffline(cfg, OFFLINE_REVISION, channels);
+            }
+
+            long nowNs = clockAt(pos);
+            engine.setOfflineTime(nowNs);
+            engine.drainOffline(cfg, OFFLINE_REVISION, channels);
+            engine.mixBlock(cfg, OFFLINE_REVISION, mix, n, channels, engine.hasFreshTelemetry(nowNs), nowNs, block);
+            System.arraycopy(block, 0, out, pos * frameBytes, n * frameBytes);
+        }
+
+        return new Result(out, channels, totalFrames, System.nanoTime() - startNs);
+    }
+
+    private static long clockAt(long frame) {
+        return CLOCK_ORIGIN_NS + (long) ((frame * 1_000_000_000.0) / AudioOutputEngine.SAMPLE_RATE);
+    }
+
+    private static int clampInt(int v, int min, int max) {
+        if (v < min) return min;
+        if (v > max) return max;
+        return v;
+    }
+}
@@ -0,0 +1,100 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer / single-consumer ring of preallocated PCM blocks.
+ *
+ * <p>The BST-Audio render thread renders straight into {@link #claim()} and then {@link #publish}es;
+ * the writer thread {@link #peek}s, writes the block to the device, and {@link #release}s it. No locks and
+ * no allocation after construction.
+ */
+final class PcmBlockRing {
+    private final int mask;
+    private final byte[][] blocks;
+    private final int[] lengths;
+    // Render-clock sample index of each block's first frame.
+    private final long[] startFrames;
+
+    // Next block the consumer reads (written by the consumer only).
+    private final AtomicLong head = new AtomicLong(0);
+    // Next block the producer fills (written by the producer only).
+    private final AtomicLong tail = new AtomicLong(0);
+
+    PcmBlockRing(int slots, int maxBlockBytes) {
+        int cap = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.mask = cap - 1;
+        this.blocks = new byte[cap][];
+        this.lengths = new int[cap];
+        this.startFrames = new long[cap];
+        for (int i = 0; i < cap; i++) {
+            blocks[i] = new byte[Math.max(1, maxBlockBytes)];
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int maxBlockBytes() {
+        return blocks[0].length;
+    }
+
+    /** Blocks published but not yet released (safe from any thread). */
+    int size() {
+        long s = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(s, capacity()));
+    }
+
+    // --- Producer side ---
+
+    /**
+     * Next free block to render into, or null when the ring is full. Does not reserve it until
+     * {@link #publish}.
+     */
+    byte[] claim() {
+        long t = tail.get();
+        if (t - head.get() >= capacity()) {
+            return null;
+        }
+        return blocks[(int) (t & mask)];
+    }
+
+    void publish(int length, long startFrame) {
+        long t = tail.get();
+        lengths[(int) (t & mask)] = length;
+        startFrames[(int) (t & mask)] = startFrame;
+        // Volatile write orders the block contents and length before the consumer can see it.
+        tail.set(t + 1);
+    }
+
+    /**
+     * Drops all queued blocks. Producer only, and only while no consumer is reading (e.g. device detached).
+     */
+    void clear() {
+        head.set(tail.get());
+    }
+
+    // --- Consumer side ---
+
+    /** Oldest published block, or null when empty. */
+    byte[] peek() {
+        long h = head.get();
+        if (h >= tail.get()) {
+            return null;
+        }
+        return blocks[(int) (h & mask)];
+    }
+
+    int peekLength() {
+        return lengths[(int) (head.get() & mask)];
+    }
+
+    long peekStartFrame() {
+        return startFrames[(int) (head.get() & mask)];
+    }
+
+    void release() {
+        head.set(head.get() + 1);
+    }
+}
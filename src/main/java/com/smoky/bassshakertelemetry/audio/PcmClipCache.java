@@ -0,0 +1,249 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstVibrationProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Size-bounded LRU cache of rendered output for deterministic instrument graphs
+ * ({@link com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance#deterministic()}).
+ *
+ * <p>A clip is the graph's unit output only; the pattern envelope and gain are still applied per voice, so one
+ * clip serves every pattern. Clips are keyed on the instrument, start/end frequency rounded to
+ * {@link #FREQ_STEP_HZ}, length in samples and direction band. On a miss the voice plays the graph live and
+ * records it into a {@link Clip}; once it has played start to end the clip is ready and later triggers play it
+ * back instead of running the graph. Only one voice records a key at a time; other misses just play the graph.
+ *
+ * <p>Nothing here locks. Trigger threads look clips up, allocate new ones and evict; the render thread only
+ * records, marks a clip ready or discards it (a compare-and-set and, for a discard, one map removal).
+ */
+final class PcmClipCache {
+    /** Frequency grid for keys (and for the frequencies cacheable voices actually play). */
+    static final double FREQ_STEP_HZ = 0.25;
+    // Total size of ready clips.
+    static final long MAX_BYTES = 8L << 20;
+    // Longer voices (2s) are not worth keeping.
+    static final int MAX_CLIP_SAMPLES = 96_000;
+    // Eviction trims down to this, so it doesn't run again on the next miss.
+    private static final long EVICT_TO_BYTES = MAX_BYTES - (MAX_BYTES >> 2);
+    // A recording that never finished or was discarded stops holding its key after this long.
+    private static final long STALE_RECORDING_NS = 5_000_000_000L;
+
+    private final ConcurrentHashMap<Key, Clip> clips = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong(0);
+    private final AtomicInteger ready = new AtomicInteger(0);
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    // LRU order: bumped on every hit.
+    private final AtomicLong useTick = new AtomicLong(0);
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    // Direction nodes read the profile encoding, so clips are only valid for the profile store they were made with.
+    private final AtomicReference<Object> profiles = new AtomicReference<>();
+
+    /** Snaps a frequency to the key grid. */
+    static double quantizeHz(double hz) {
+        return Math.round(hz / FREQ_STEP_HZ) * FREQ_STEP_HZ;
+    }
+
+    /**
+     * The cached clip for these parameters (check {@link Clip#complete()}), or a new empty one for the voice to
+     * record into. Null when the voice is too long to cache or another voice is already recording this key.
+     * Frequencies must already be quantized. Trigger threads only.
+     */
+    Clip lookup(Object instrument, double startFreqHz, double endFreqHz, int samples, String band) {
+        if (samples <= 0 || samples > MAX_CLIP_SAMPLES) {
+            return null;
+        }
+        Object p = BstVibrationProfiles.get();
+        Object seen = profiles.get();
+        if (p != seen && profiles.compareAndSet(seen, p)) {
+            clear();
+        }
+        Key key = new Key(instrument, (int) Math.round(startFreqHz / FREQ_STEP_HZ), (int) Math.round(endFreqHz / FREQ_STEP_HZ),
+                samples, (band == null) ? "center" : band);
+        long now = System.nanoTime();
+        Clip c = clips.get(key);
+        if (c != null) {
+            int s = c.state.get();
+            if (s == Clip.READY && c.profiles == p) {
+                c.lastUse = useTick.incrementAndGet();
+                hits.incrementAndGet();
+                return c;
+            }
+            if (s == Clip.RECORDING && c.profiles == p && (now - c.createdNs) < STALE_RECORDING_NS) {
+                misses.incrementAndGet();
+                return null;
+            }
+            // Left over (discarded, stale or from other profiles): make room for a new recording.
+            if (clips.remove(key, c)) {
+                c.retire();
+            }
+        }
+        misses.incrementAndGet();
+        Clip fresh = new Clip(this, key, p, now);
+        if (clips.putIfAbsent(key, fresh) != null) {
+            // Another trigger thread is recording it.
+            return null;
+        }
+        // Only the recording voice touches the buffer until the clip is ready.
+        fresh.samples = new float[samples];
+        if (bytes.get() > MAX_BYTES) {
+            evict();
+        }
+        return fresh;
+    }
+
+    /**
+     * Drops the least recently used ready clips until the cache is back under its budget. Runs on a trigger
+     * thread; concurrent callers skip it.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Clip> candidates = new ArrayList<>(ready.get());
+            for (Clip c : clips.values()) {
+                if (c.state.get() == Clip.READY) {
+                    candidates.add(c);
+                }
+            }
+            candidates.sort(Comparator.comparingLong(c -> c.lastUse));
+            for (Clip c : candidates) {
+                if (bytes.get() <= EVICT_TO_BYTES) {
+                    break;
+                }
+                if (clips.remove(c.key, c)) {
+                    c.retire();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    void clear() {
+        for (Clip c : clips.values()) {
+            if (clips.remove(c.key, c)) {
+                c.retire();
+            }
+        }
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    /** Size of the ready clips. */
+    long bytes() {
+        return bytes.get();
+    }
+
+    /** Number of ready clips. */
+    int size() {
+        return ready.get();
+    }
+
+    private record Key(Object instrument, int startFreqStep, int endFreqStep, int samples, String band) {
+    }
+
+    /**
+     * Rendered graph output for one key. Recorded by the render thread of the voice that missed; read-only once
+     * ready. Evicted clips stay valid for voices still playing them.
+     */
+    static final class Clip {
+        private static final int RECORDING = 0;
+        private static final int READY = 1;
+        private static final int GONE = 2;
+
+        private final PcmClipCache owner;
+        private final Key key;
+        private final Object profiles;
+        private final long createdNs;
+        private final AtomicInteger state = new AtomicInteger(RECORDING);
+        private volatile long lastUse;
+        // Set by the trigger thread that created the clip, before the voice command carries it to the render thread.
+        float[] samples;
+        // Samples recorded so far (render thread).
+        private int recorded;
+
+        private Clip(PcmClipCache owner, Key key, Object profiles, long createdNs) {
+            this.owner = owner;
+            this.key = key;
+            this.profiles = profiles;
+            this.createdNs = createdNs;
+        }
+
+        boolean complete() {
+            return state.get() == READY;
+        }
+
+        /**
+         * Appends {@code src[0..count)}, the voice's graph output from sample {@code at}. Marks the clip ready
+         * when the last sample arrives; anything but a contiguous recording from 0 discards it.
+         */
+        void record(double[] src, int at, int count) {
+            if (state.get() != RECORDING) {
+                return;
+            }
+            float[] dst = samples;
+            if (at != recorded || at + count > dst.length) {
+                discard();
+                return;
+            }
+            for (int k = 0; k < count; k++) {
+                dst[at + k] = (float) src[k];
+            }
+            recorded += count;
+            if (recorded == dst.length) {
+                publish();
+            }
+        }
+
+        private void publish() {
+            if (!state.compareAndSet(RECORDING, READY)) {
+                return;
+            }
+            lastUse = owner.useTick.incrementAndGet();
+            owner.bytes.addAndGet(bytes());
+            owner.ready.incrementAndGet();
+            if (owner.clips.get(key) != this) {
+                // Cleared while recording.
+                retire();
+            }
+        }
+
+        /**
+         * Gives up an unfinished recording (voice ended, was lengthened or never started) so the next miss can
+         * record the key. No-op for a ready clip.
+         */
+        void discard() {
+            if (state.compareAndSet(RECORDING, GONE)) {
+                owner.clips.remove(key, this);
+            }
+        }
+
+        // Already out of the map.
+        private void retire() {
+            if (state.getAndSet(GONE) == READY) {
+                owner.bytes.addAndGet(-bytes());
+                owner.ready.decrementAndGet();
+            }
+        }
+
+        long bytes() {
+            return key.samples() * (long) Float.BYTES;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.audio.backend.AudioOutputDevice;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dedicated "BST-Audio-Writer" thread: drains a {@link PcmBlockRing} into the attached
+ * {@link AudioOutputDevice}.
+ *
+ * <p>The device's blocking {@code write} now paces only this thread, so the render thread can stay a few
+ * blocks ahead and ride out GC pauses or tick spikes. The render thread still owns opening/closing the
+ * device; it {@link #attach}es it here and {@link #detach}es it before closing.
+ *
+ * <p>Before each write it also feeds the {@link SampleClock} (block start minus the device queue = the
+ * sample being heard now), which the render thread uses to place triggers at a constant latency.
+ */
+final class PcmDeviceWriter {
+    private static final Logger LOGGER = LogManager.getLogger("bassshakertelemetry");
+
+    private final PcmBlockRing ring;
+    private final Thread producer;
+    private final SampleClock clock;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    private volatile AudioOutputDevice device;
+    // True while the writer thread may touch the ring/device (Dekker-style handshake with detach()).
+    private volatile boolean active;
+    private volatile boolean failed;
+    // Set once the first block has been written after attach, so the initial fill isn't an underrun.
+    private volatile boolean primed;
+    // Max audio (ms) the writer keeps queued in the device buffer; <= 0 = no limit.
+    private volatile int deviceLimitMs;
+    private volatile int frameSize;
+
+    // Writer found the ring empty while a device was attached (renderer fell behind).
+    private final AtomicLong ringUnderruns = new AtomicLong(0);
+    // Device buffer was completely drained when we came to write (audible gap likely).
+    private final AtomicLong deviceUnderruns = new AtomicLong(0);
+    // How long each device.write() blocked.
+    private final TimingHistogram writeTimes = new TimingHistogram();
+
+    PcmDeviceWriter(PcmBlockRing ring, Thread producer, SampleClock clock) {
+        this.ring = ring;
+        this.producer = producer;
+        this.clock = clock;
+    }
+
+    void start() {
+        running = true;
+        Thread t = new Thread(this::runLoop, "BST-Audio-Writer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY);
+        thread = t;
+        t.start();
+    }
+
+    void stop() {
+        running = false;
+        Thread t = thread;
+        thread = null;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(1000);
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    void attach(AudioOutputDevice d) {
+        failed = false;
+        primed = false;
+        int fs = 0;
+        try {
+            fs = (d.format() == null) ? 0 : d.format().getFrameSize();
+        } catch (Exception ignored) {
+        }
+        frameSize = Math.max(0, fs);
+        clock.reset();
+        device = d;
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Stops writing to the current device and waits for an in-flight write to finish.
+     * Afterwards the caller may close the device and {@link PcmBlockRing#clear()} the ring.
+     *
+     * @return the previously attached device (may be null)
+     */
+    AudioOutputDevice detach() {
+        AudioOutputDevice d = device;
+        device = null;
+        long deadline = System.nanoTime() + 500_000_000L;
+        while (active && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(200_000L);
+        }
+        clock.reset();
+        return d;
+    }
+
+    void setDeviceLimitMs(int ms) {
+        deviceLimitMs = ms;
+    }
+
+    boolean hasFailed() {
+        return failed;
+    }
+
+    /** True once after a device write threw; the device has already been detached. */
+    boolean takeFailure() {
+        if (!failed) {
+            return false;
+        }
+        failed = false;
+        return true;
+    }
+
+    /** Wakes the writer after a block was published. */
+    void signal() {
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    long ringUnderruns() {
+        return ringUnderruns.get();
+    }
+
+    long deviceUnderruns() {
+        return deviceUnderruns.get();
+    }
+
+    TimingHistogram writeTimes() {
+        return writeTimes;
+    }
+
+    private long deviceQueueWaitNs(int bufferBytes, int available, int length) {
+        int limitMs = deviceLimitMs;
+        int fs = frameSize;
+        if (limitMs <= 0 || fs <= 0 || bufferBytes <= 0 || available < 0) {
+            return 0L;
+        }
+        double bytesPerMs = fs * (AudioOutputEngine.SAMPLE_RATE / 1000.0);
+        int queued = Math.max(0, bufferBytes - available);
+        double excess = (queued + length) - (limitMs * bytesPerMs);
+        // Always allow a write into an empty device so an oversized block can't stall us.
+        if (excess <= 0.0 || queued <= 0) {
+            return 0L;
+        }
+        long ns = (long) ((excess / bytesPerMs) * 1_000_000.0);
+        return Math.max(250_000L, Math.min(ns, 20_000_000L));
+    }
+
+    private void runLoop() {
+        while (running) {
+            AudioOutputDevice d = device;
+            if (d == null) {
+                LockSupport.parkNanos(5_000_000L);
+                continue;
+            }
+
+            active = true;
+            if (device != d) {
+                active = false;
+                continue;
+            }
+
+            byte[] block = ring.peek();
+            if (block == null) {
+                active = false;
+                if (primed) {
+                    ringUnderruns.incrementAndGet();
+                    primed = false;
+                }
+                // Parked until the renderer publishes (signal()) or 2ms passes.
+                LockSupport.parkNanos(2_000_000L);
+                continue;
+            }
+
+            try {
+                int length = ring.peekLength();
+                int bufferBytes = d.bufferSizeBytes();
+                int available = (bufferBytes > 0) ? d.availableBytes() : -1;
+                if (primed && available >= bufferBytes && bufferBytes > 0) {
+                    deviceUnderruns.incrementAndGet();
+                }
+
+                // Adaptive latency: don't let the device buffer fill past the controller's target.
+                long waitNs = deviceQueueWaitNs(bufferBytes, available, length);
+                if (waitNs > 0L) {
+                    active = false;
+                    LockSupport.parkNanos(waitNs);
+                    continue;
+                }
+
+                long writeStartNs = System.nanoTime();
+                int fs = frameSize;
+                if (fs > 0 && bufferBytes > 0 && available >= 0) {
+                    int queuedFrames = Math.max(0, bufferBytes - available) / fs;
+                    clock.observe(writeStartNs, ring.peekStartFrame() - queuedFrames);
+                }
+                d.write(block, 0, length);
+                writeTimes.record(System.nanoTime() - writeStartNs);
+                primed = true;
+            } catch (Exception e) {
+                LOGGER.warn("[BST] Audio write failed ({}); reopening device", e.toString());
+                device = null;
+                clock.reset();
+                failed = true;
+                active = false;
+                LockSupport.unpark(producer);
+                continue;
+            }
+
+            ring.release();
+            active = false;
+            // Wake the renderer if it was waiting for a free block.
+            LockSupport.unpark(producer);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+
+import static com.smoky.bassshakertelemetry.audio.AudioOutputEngine.SAMPLE_RATE;
+
+/**
+ * Everything the mix reads from {@link BstConfig.Data}, compiled once per (config revision, channel count):
+ * pre-clamped gains, enable flags, one-pole and biquad coefficients, per-transducer calibration and the
+ * continuous-source routing masks.
+ *
+ * <p>Immutable and primitive-only (arrays are never written after {@link #compile}); the render thread swaps
+ * in a new instance when the revision changes and otherwise never touches the config.
+ */
+final class RenderParams {
+    static final int MAX_CHANNELS = HapticRenderer.MAX_CHANNELS;
+
+    // RBJ peaking EQ Q for both the Output EQ and the per-transducer EQ (keeps the UI minimal).
+    private static final double EQ_Q = 1.0;
+
+    private static final String[] CHANNEL_IDS_7_1 = new String[]{"FL", "FR", "C", "LFE", "SL", "SR", "BL", "BR"};
+
+    final long revision;
+    final int channels;
+
+    // Output stage
+    final double master;
+    final double limiterDrive;
+    final double limiterInvNorm;
+    final boolean smartVolumeEnabled;
+    final int smartVolumeTargetPct;
+
+    // Movement textures: raw gains (dominance) and clamped render gains / one-pole coefficients.
+    final boolean roadTextureEnabled;
+    final double roadTextureGain;
+    final double movementFlightGain;
+    final double movementSwimGain;
+    final double roadGain;
+    final double flightGain;
+    final double swimGain;
+    final double roadCoeff;
+    final double flightCoeff;
+    final double swimCoeff;
+
+    // One-shots
+    final boolean damageBurstEnabled;
+    final double damageBurstGain;
+    final boolean accelBumpEnabled;
+    final double accelBumpGain;
+    final boolean biomeChimeEnabled;
+    final double biomeChimeGain;
+    final double chimeGain;
+
+    // Continuous-source routing masks (from the router snapshot for this revision).
+    final int roadMask;
+    final int damageMask;
+    final int bumpMask;
+    final int chimeMask;
+
+    // Per-transducer calibration (Sound Scape only): linear gain (incl. comfort limit) and peaking EQ.
+    final boolean calibrate;
+    final float[] transducerGain = new float[MAX_CHANNELS];
+    final boolean[] transducerEqActive = new boolean[MAX_CHANNELS];
+    final int[] transducerEqFreqHz = new int[MAX_CHANNELS];
+    final int[] transducerEqGainDb = new int[MAX_CHANNELS];
+    final double[] tb0 = new double[MAX_CHANNELS];
+    final double[] tb1 = new double[MAX_CHANNELS];
+    final double[] tb2 = new double[MAX_CHANNELS];
+    final double[] ta1 = new double[MAX_CHANNELS];
+    final double[] ta2 = new double[MAX_CHANNELS];
+
+    // Output EQ (same coefficients on every channel).
+    final boolean outputEqActive;
+    final int outputEqFreqHz;
+    final int outputEqGainDb;
+    final double ob0;
+    final double ob1;
+    final double ob2;
+    final double oa1;
+    final double oa2;
+
+    private RenderParams(BstConfig.Data cfg, long revision, int channels, SoundScapeRouter router) {
+        this.revision = revision;
+        this.channels = (channels == 8) ? 8 : 2;
+
+        double headroom = clamp(cfg.outputHeadroom, 0.10, 1.0);
+        this.master = clamp(cfg.masterVolume, 0.0, 1.0) * headroom;
+        this.limiterDrive = clamp(cfg.limiterDrive, 1.0, 8.0);
+        this.limiterInvNorm = 1.0 / Math.tanh(limiterDrive);
+        this.smartVolumeEnabled = cfg.smartVolumeEnabled;
+        this.smartVolumeTargetPct = cfg.smartVolumeTargetPct;
+
+        this.roadTextureEnabled = cfg.roadTextureEnabled;
+        this.roadTextureGain = cfg.roadTextureGain;
+        this.movementFlightGain = cfg.movementFlightGain;
+        this.movementSwimGain = cfg.movementSwimGain;
+        this.roadGain = clamp(cfg.roadTextureGain, 0.0, 0.50);
+        this.flightGain = (cfg.movementFlightGain > 0.0001) ? clamp(cfg.movementFlightGain, 0.0, 1.0) : 0.0;
+        this.swimGain = (cfg.movementSwimGain > 0.0001) ? clamp(cfg.movementSwimGain, 0.0, 1.0) : 0.0;
+        this.roadCoeff = onePoleCoeff(clamp(cfg.roadTextureCutoffHz, 10.0, 80.0));
+        this.flightCoeff = onePoleCoeff(clamp(cfg.roadTextureCutoffHz + 18.0, 14.0, 90.0));
+        this.swimCoeff = onePoleCoeff(clamp(cfg.roadTextureCutoffHz + 10.0, 12.0, 85.0));
+
+        this.damageBurstEnabled = cfg.damageBurstEnabled;
+        this.damageBurstGain = cfg.damageBurstGain;
+        this.accelBumpEnabled = cfg.accelBumpEnabled;
+        this.accelBumpGain = cfg.accelBumpGain;
+        this.biomeChimeEnabled = cfg.biomeChimeEnabled;
+        this.biomeChimeGain = cfg.biomeChimeGain;
+        this.chimeGain = clamp(cfg.biomeChimeGain, 0.0, 1.0);
+
+        this.roadMask = router.roadMask;
+        this.damageMask = router.damageMask;
+        this.bumpMask = router.bumpMask;
+        this.chimeMask = router.chimeMask;
+
+        // Phase 3: per-transducer calibration is only meaningful in Sound Scape mode.
+        this.calibrate = cfg.soundScapeEnabled;
+        int n = this.channels;
+        for (int c = 0; c < MAX_CHANNELS; c++) {
+            transducerGain[c] = 1.0f;
+            transducerEqFreqHz[c] = -1;
+        }
+        if (calibrate && cfg.soundScapeCalibration != null) {
+            for (int c = 0; c < n; c++) {
+                String id = (n == 2) ? ((c == 0) ? "FL" : "FR") : CHANNEL_IDS_7_1[c];
+                BstConfig.Data.TransducerCalibration cal = cfg.soundScapeCalibration.get(id);
+                double db = (cal == null) ? 0.0 : cal.gainDb;
+                double comfort = (cal == null) ? 1.0 : clamp(cal.comfortLimit01, 0.0, 1.0);
+                transducerGain[c] = (float) (dbToLinear(db) * comfort);
+
+                int f = (cal == null) ? 45 : clampInt(cal.eqFreqHz, 10, 120);
+                int g = (cal == null) ? 0 : clampInt(cal.eqGainDb, -12, 12);
+                transducerEqFreqHz[c] = f;
+                transducerEqGainDb[c] = g;
+                if (g != 0) {
+                    double[] k = peakingCoeffs(f, g);
+                    transducerEqActive[c] = true;
+                    tb0[c] = k[0];
+                    tb1[c] = k[1];
+                    tb2[c] = k[2];
+                    ta1[c] = k[3];
+                    ta2[c] = k[4];
+                }
+            }
+        }
+
+        this.outputEqActive = cfg.outputEqEnabled && cfg.outputEqGainDb != 0;
+        this.outputEqFreqHz = clampInt(cfg.outputEqFreqHz, 10, 120);
+        this.outputEqGainDb = clampInt(cfg.outputEqGainDb, -12, 12);
+        double[] k = peakingCoeffs(outputEqFreqHz, outputEqGainDb);
+        this.ob0 = k[0];
+        this.ob1 = k[1];
+        this.ob2 = k[2];
+        this.oa1 = k[3];
+        this.oa2 = k[4];
+    }
+
+    static RenderParams compile(BstConfig.Data cfg, long revision, int channels, SoundScapeRouter router) {
+        return new RenderParams(cfg, revision, channels, router);
+    }
+
+    boolean matches(long revision, int channels) {
+        return this.revision == revision && this.channels == ((channels == 8) ? 8 : 2);
+    }
+
+    /** Normalized RBJ peaking EQ coefficients {b0, b1, b2, a1, a2}. */
+    private static double[] peakingCoeffs(int freqHz, int gainDb) {
+        double A = Math.pow(10.0, gainDb / 40.0);
+        double w0 = (2.0 * Math.PI * freqHz) / SAMPLE_RATE;
+        double cos = Math.cos(w0);
+        double sin = Math.sin(w0);
+        double alpha = sin / (2.0 * EQ_Q);
+
+        double bb0 = 1.0 + alpha * A;
+        double bb1 = -2.0 * cos;
+        double bb2 = 1.0 - alpha * A;
+        double aa0 = 1.0 + (alpha / A);
+        double aa1 = -2.0 * cos;
+        double aa2 = 1.0 - (alpha / A);
+        return new double[]{bb0 / aa0, bb1 / aa0, bb2 / aa0, aa1 / aa0, aa2 / aa0};
+    }
+
+    private static double onePoleCoeff(double cutoffHz) {
+        return 1.0 - Math.exp(-(2.0 * Math.PI * cutoffHz) / SAMPLE_RATE);
+    }
+
+    private static double dbToLinear(double db) {
+        double d = db;
+        if (!Double.isFinite(d)) {
+            d = 0.0;
+        }
+        d = clamp(d, -24.0, 24.0);
+        return Math.pow(10.0, d / 20.0);
+    }
+
+    private static double clamp(double v, double min, double max) {
+        if (v < min) return min;
+        if (v > max) return max;
+        return v;
+    }
+
+    private static int clampInt(int v, int min, int max) {
+        if (v < min) return min;
+        if (v > max) return max;
+        return v;
+    }
+}
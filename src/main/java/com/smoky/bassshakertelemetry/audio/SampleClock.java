@@ -0,0 +1,114 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.smoky.bassshakertelemetry.audio.AudioOutputEngine.SAMPLE_RATE;
+
+/**
+ * Drift-corrected mapping from {@code System.nanoTime()} to the output sample index that is audible at that
+ * instant (in the render thread's sample clock).
+ *
+ * <p>The writer thread {@link #observe}s one point per device write: the first sample of the block it is about
+ * to write, minus what is still queued in the device. A small phase/rate loop smooths the (coarse) device
+ * queue readings and follows the sound card's clock drift; a reading far off the prediction (underrun, device
+ * reopen) re-anchors. Any thread may call {@link #sampleAt}; it reads the fit through a seqlock.
+ *
+ * <p>{@link #observe}/{@link #reset} have a single writer at a time: the writer thread while a device is
+ * attached, the render thread while detached.
+ */
+final class SampleClock {
+    /** Returned by {@link #sampleAt} while no device is playing. */
+    static final long UNLOCKED = Long.MIN_VALUE;
+
+    private static final double NOMINAL_SAMPLES_PER_NS = SAMPLE_RATE / 1_000_000_000.0;
+    // Sound cards run within a fraction of a percent of nominal; anything more is a bad reading.
+    private static final double MAX_RATE_DEVIATION = 0.005;
+    // Readings further than this from the prediction are a discontinuity, not jitter.
+    private static final double RELOCK_SAMPLES = SAMPLE_RATE * 0.050;
+    private static final double PHASE_GAIN = 0.05;
+    private static final double RATE_GAIN = 0.002;
+
+    // Odd while the writer is mid-update.
+    private final AtomicLong seq = new AtomicLong(0);
+
+    private boolean locked;
+    private long anchorNs;
+    private double anchorSample;
+    private double samplesPerNs = NOMINAL_SAMPLES_PER_NS;
+
+    /**
+     * Adds a reading: {@code playingSample} was being heard at {@code nowNs}.
+     */
+    void observe(long nowNs, long playingSample) {
+        boolean l = locked;
+        double s = anchorSample;
+        double rate = samplesPerNs;
+        long dt = nowNs - anchorNs;
+
+        if (!l) {
+            publish(true, nowNs, playingSample, NOMINAL_SAMPLES_PER_NS);
+            return;
+        }
+        if (dt <= 0L) {
+            return;
+        }
+
+        double predicted = s + (dt * rate);
+        double err = playingSample - predicted;
+        if (Math.abs(err) > RELOCK_SAMPLES) {
+            publish(true, nowNs, playingSample, NOMINAL_SAMPLES_PER_NS);
+            return;
+        }
+        rate += (RATE_GAIN * err) / dt;
+        rate = clamp(rate,
+                NOMINAL_SAMPLES_PER_NS * (1.0 - MAX_RATE_DEVIATION),
+                NOMINAL_SAMPLES_PER_NS * (1.0 + MAX_RATE_DEVIATION));
+        publish(true, nowNs, predicted + (PHASE_GAIN * err), rate);
+    }
+
+    /** Device gone: {@link #sampleAt} reports {@link #UNLOCKED} until the next reading. */
+    void reset() {
+        publish(false, 0L, 0.0, NOMINAL_SAMPLES_PER_NS);
+    }
+
+    /**
+     * Output sample audible at {@code ns} (may be in the future or past), or {@link #UNLOCKED}.
+     */
+    long sampleAt(long ns) {
+        while (true) {
+            long q = seq.getAcquire();
+            if ((q & 1L) != 0L) {
+                Thread.onSpinWait();
+                continue;
+            }
+            boolean l = locked;
+            long t0 = anchorNs;
+            double s0 = anchorSample;
+            double rate = samplesPerNs;
+            VarHandle.acquireFence();
+            if (seq.get() != q) {
+                continue;
+            }
+            return l ? (long) Math.floor(s0 + ((ns - t0) * rate)) : UNLOCKED;
+        }
+    }
+
+    private void publish(boolean l, long t0, double s0, double rate) {
+        long q = seq.get();
+        seq.set(q + 1L);
+        // Field stores must not become visible before the odd sequence.
+        VarHandle.releaseFence();
+        locked = l;
+        anchorNs = t0;
+        anchorSample = s0;
+        samplesPerNs = rate;
+        seq.setRelease(q + 2L);
+    }
+
+    private static double clamp(double v, double min, double max) {
+        if (v < min) return min;
+        if (v > max) return max;
+        return v;
+    }
+}
@@ -0,0 +1,234 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+
+import java.util.Map;
+
+/**
+ * Sound Scape routing: resolves category / per-effect override / per-bus targets into channel bitmasks
+ * (bit 0 = FL ... bit 7 = BR) for the current output channel count.
+ *
+ * <p>Immutable once constructed. The engine compiles one snapshot per (config revision, channel count)
+ * and publishes it atomically; voices cache their resolved mask against the snapshot that produced it.
+ */
+final class SoundScapeRouter {
+    final long revision;
+    final int channelCount;
+    private final int allMask;
+
+    // Precomputed per-chunk masks for the continuous sources.
+    final int roadMask;
+    final int damageMask;
+    final int bumpMask;
+    final int chimeMask;
+
+    // Indexed by HapticBus.ordinal().
+    private final int[] busMaskByOrdinal;
+    private final Map<String, Integer> groupMasks = new java.util.HashMap<>();
+    private final Map<String, Integer> categoryMasks = new java.util.HashMap<>();
+    private final Map<String, Integer> overrideMasks = new java.util.HashMap<>();
+    private final Map<String, Integer> busMasks = new java.util.HashMap<>();
+
+    SoundScapeRouter(BstConfig.Data cfg, int channelCount, long revision) {
+        this.revision = revision;
+        this.channelCount = (channelCount == 8) ? 8 : 2;
+        this.allMask = (this.channelCount == 8) ? 0xFF : 0x03;
+
+        Map<String, java.util.List<String>> groups = (cfg == null) ? null : cfg.soundScapeGroups;
+        if (groups != null) {
+            for (Map.Entry<String, java.util.List<String>> e : groups.entrySet()) {
+                if (e == null) continue;
+                String name = (e.getKey() == null) ? "" : e.getKey().trim();
+                if (name.isEmpty()) continue;
+                int mask = 0;
+                java.util.List<String> members = e.getValue();
+                if (members != null) {
+                    for (String m : members) {
+                        mask |= channelIdToMask(m);
+                    }
+                }
+                if (mask != 0) {
+                    groupMasks.put(name.toLowerCase(java.util.Locale.ROOT), mask);
+                }
+            }
+        }
+
+        // Ensure All exists.
+        groupMasks.putIfAbsent("all", allMask);
+
+        Map<String, String> cats = (cfg == null) ? null : cfg.soundScapeCategoryRouting;
+        if (cats != null) {
+            for (Map.Entry<String, String> e : cats.entrySet()) {
+                if (e == null) continue;
+                String k = (e.getKey() == null) ? "" : e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
+                if (k.isEmpty()) continue;
+                categoryMasks.put(k, targetToMask(e.getValue()));
+            }
+        }
+
+        Map<String, String> overrides = (cfg == null) ? null : cfg.soundScapeOverrides;
+        if (overrides != null) {
+            for (Map.Entry<String, String> e : overrides.entrySet()) {
+                if (e == null) continue;
+                String k = (e.getKey() == null) ? "" : e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
+                if (k.isEmpty()) continue;
+                overrideMasks.put(k, targetToMask(e.getValue()));
+            }
+        }
+
+        Map<String, String> buses = (cfg == null) ? null : cfg.soundScapeBusRouting;
+        if (buses != null) {
+            for (Map.Entry<String, String> e : buses.entrySet()) {
+                if (e == null) continue;
+                String k = (e.getKey() == null) ? "" : e.getKey().trim().toLowerCase(java.util.Locale.ROOT);
+                if (k.isEmpty()) continue;
+                busMasks.put(k, targetToMask(e.getValue()));
+            }
+        }
+
+        // Defaults: if a bus isn't explicitly set, treat it as All.
+        busMasks.putIfAbsent("ui", allMask);
+        busMasks.putIfAbsent("danger", allMask);
+        busMasks.putIfAbsent("environmental", allMask);
+        busMasks.putIfAbsent("continuous", allMask);
+        busMasks.putIfAbsent("impact", allMask);
+        busMasks.putIfAbsent("modded", allMask);
+
+        this.roadMask = maskForCategory(BstConfig.SoundScapeCategories.ROAD);
+        this.damageMask = maskForCategory(BstConfig.SoundScapeCategories.DAMAGE);
+        this.bumpMask = maskForCategory(BstConfig.SoundScapeCategories.ACCEL_BUMP);
+        this.chimeMask = maskForCategory(BstConfig.SoundScapeCategories.BIOME_CHIME);
+
+        HapticBus[] allBuses = HapticBus.values();
+        this.busMaskByOrdinal = new int[allBuses.length];
+        for (HapticBus b : allBuses) {
+            busMaskByOrdinal[b.ordinal()] = lookupBusMask(b);
+        }
+    }
+
+    /** True if this snapshot was compiled for the given config revision and output channel count. */
+    boolean matches(long revision, int channelCount) {
+        return this.revision == revision && this.channelCount == ((channelCount == 8) ? 8 : 2);
+    }
+
+    /**
+     * Final channel mask for a voice: an explicit forced mask wins, otherwise the effect-key routing
+     * intersected with its bus routing.
+     */
+    int maskForVoice(String debugKey, HapticBus bus, int forcedMask) {
+        if (forcedMask != 0) {
+            return forcedMask;
+        }
+        return maskForEffectKey(debugKey) & maskForBus(bus);
+    }
+
+    int maskForCategory(String categoryKey) {
+        if (categoryKey == null) {
+            return allMask;
+        }
+        String k = categoryKey.trim().toLowerCase(java.util.Locale.ROOT);
+        if (k.isEmpty()) {
+            return allMask;
+        }
+        Integer m = categoryMasks.get(k);
+        return (m == null || m == 0) ? allMask : m;
+    }
+
+    int maskForEffectKey(String debugKey) {
+        if (debugKey == null || debugKey.isBlank()) {
+            return maskForCategory(BstConfig.SoundScapeCategories.CUSTOM);
+        }
+        String k = debugKey.trim().toLowerCase(java.util.Locale.ROOT);
+        Integer o = overrideMasks.get(k);
+        if (o != null && o != 0) {
+            return o;
+        }
+        String cat = classifyCategory(k);
+        return maskForCategory(cat);
+    }
+
+    int maskForBus(HapticBus bus) {
+        if (bus == null) {
+            return allMask;
+        }
+        return busMaskByOrdinal[bus.ordinal()];
+    }
+
+    private int lookupBusMask(HapticBus bus) {
+        String key = switch (bus) {
+            case UI -> "ui";
+            case DANGER -> "danger";
+            case ENVIRONMENTAL -> "environmental";
+            case CONTINUOUS -> "continuous";
+            case IMPACT -> "impact";
+            case MODDED -> "modded";
+        };
+        Integer m = busMasks.get(key);
+        return (m == null || m == 0) ? allMask : m;
+    }
+
+    private String classifyCategory(String key) {
+        if (key.startsWith("damage.")) return BstConfig.SoundScapeCategories.DAMAGE;
+        if (key.startsWith("movement.")) return BstConfig.SoundScapeCategories.FOOTSTEPS;
+        if (key.startsWith("mining.")) return BstConfig.SoundScapeCategories.MINING_SWING;
+        if (key.startsWith("mount.") || key.startsWith("flight.")) return BstConfig.SoundScapeCategories.MOUNTED;
+        if (key.startsWith("gameplay.")) return BstConfig.SoundScapeCategories.GAMEPLAY;
+
+        // Sound buckets (from SoundHapticsHandler) and everything else default here.
+        return BstConfig.SoundScapeCategories.SOUND;
+    }
+
+    private int targetToMask(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return allMask;
+        }
+        String v = raw.trim();
+        String lower = v.toLowerCase(java.util.Locale.ROOT);
+        if (lower.startsWith("ch:")) {
+            return channelIdToMask(v.substring(3));
+        }
+        if (lower.startsWith("grp:")) {
+            String name = v.substring(4).trim().toLowerCase(java.util.Locale.ROOT);
+            if (name.isEmpty()) {
+                return allMask;
+            }
+            Integer m = groupMasks.get(name);
+            return (m == null || m == 0) ? allMask : m;
+        }
+
+        // Allow bare channel ids.
+        int asCh = channelIdToMask(v);
+        if (asCh != 0) {
+            return asCh;
+        }
+
+        // Treat as group name.
+        Integer m = groupMasks.get(lower);
+        return (m == null || m == 0) ? allMask : m;
+    }
+
+    private int channelIdToMask(String raw) {
+        if (raw == null) return 0;
+        String v = raw.trim().toUpperCase(java.util.Locale.ROOT);
+        if (v.isEmpty()) return 0;
+
+        // Stereo fallback: any non-FL/FR channel collapses to both.
+        if (channelCount == 2) {
+            if ("FL".equals(v) || "L".equals(v)) return 0x01;
+            if ("FR".equals(v) || "R".equals(v)) return 0x02;
+            return 0x03;
+        }
+
+        return switch (v) {
+            case "FL", "L" -> 0x01;
+            case "FR", "R" -> 0x02;
+            case "C" -> 0x04;
+            case "LFE" -> 0x08;
+            case "SL" -> 0x10;
+            case "SR" -> 0x20;
+            case "BL" -> 0x40;
+            case "BR" -> 0x80;
+            default -> 0;
+        };
+    }
+}
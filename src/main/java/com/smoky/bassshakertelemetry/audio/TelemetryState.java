@@ -0,0 +1,132 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latest two timestamped movement samples, published by client threads and read by the render thread through
+ * a seqlock (the reader never blocks a writer and never takes a lock).
+ *
+ * <p>The render thread evaluates speed at any instant with {@link View#speedAt}: it interpolates between the
+ * two samples, delayed by one publish interval (capped), and extrapolates briefly when samples stop. With
+ * tick-rate samples that smooths the old 50 ms speed steps; with render-frame samples the delay shrinks to a
+ * frame.
+ */
+final class TelemetryState {
+    static final int FLAG_ELYTRA = 1;
+    static final int FLAG_ON_GROUND = 2;
+    static final int FLAG_IN_WATER = 4;
+    static final int FLAG_SWIMMING = 8;
+
+    // Never delay (interpolate behind) by more than a client tick.
+    private static final long MAX_INTERP_DELAY_NS = 50_000_000L;
+    // How far past the newest sample the slope is followed (covers late ticks without overshooting far).
+    private static final long MAX_EXTRAPOLATE_NS = 25_000_000L;
+    // Samples further apart than this are a resume, not a ramp: jump to the newest value.
+    private static final long MAX_SAMPLE_GAP_NS = 250_000_000L;
+
+    // Odd while a writer is mid-update.
+    private final AtomicLong seq = new AtomicLong(0);
+
+    private long t0;
+    private double s0;
+    private long t1;
+    private double s1;
+    private int flags;
+
+    /**
+     * Render-thread copy of the state; reused every block.
+     */
+    static final class View {
+        long t0;
+        double s0;
+        long t1;
+        double s1;
+        int flags;
+
+        boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+
+        /**
+         * Speed at {@code nowNs}: linear between the samples (one interval behind), then the slope held
+         * for a short while past the newest sample. Never negative.
+         */
+        double speedAt(long nowNs) {
+            if (t1 == 0L) {
+                return 0.0;
+            }
+            long interval = t1 - t0;
+            if (t0 == 0L || interval <= 0L || interval > MAX_SAMPLE_GAP_NS) {
+                return Math.max(0.0, s1);
+            }
+            long target = nowNs - Math.min(interval, MAX_INTERP_DELAY_NS);
+            double v;
+            if (target <= t0) {
+                v = s0;
+            } else {
+                long dt = Math.min(target - t0, interval + MAX_EXTRAPOLATE_NS);
+                v = s0 + ((s1 - s0) * ((double) dt / interval));
+            }
+            return Math.max(0.0, v);
+        }
+    }
+
+    /**
+     * Adds a sample. Writers are client threads (tick and render frame); they serialize among themselves.
+     */
+    synchronized void publish(long nowNs, double speed, int flags) {
+        long s = seq.get();
+        seq.set(s + 1L);
+        // Field stores must not become visible before the odd sequence.
+        VarHandle.releaseFence();
+
+        if (nowNs > t1) {
+            t0 = t1;
+            s0 = s1;
+        }
+        t1 = nowNs;
+        s1 = speed;
+        this.flags = flags;
+
+        seq.setRelease(s + 2L);
+    }
+
+    /**
+     * Updates the movement flags only (speed samples come from another publisher).
+     */
+    synchronized void publishFlags(int flags) {
+        long s = seq.get();
+        seq.set(s + 1L);
+        VarHandle.releaseFence();
+        this.flags = flags;
+        seq.setRelease(s + 2L);
+    }
+
+    /** Render thread: consistent copy of both samples. */
+    void read(View out) {
+        while (true) {
+            long s = seq.getAcquire();
+            if ((s & 1L) != 0L) {
+                Thread.onSpinWait();
+                continue;
+            }
+            out.t0 = t0;
+            out.s0 = s0;
+            out.t1 = t1;
+            out.s1 = s1;
+            out.flags = flags;
+            VarHandle.acquireFence();
+            if (seq.get() == s) {
+                return;
+            }
+        }
+    }
+
+    static int flags(boolean elytra, boolean onGround, boolean inWater, boolean swimming) {
+        return (elytra ? FLAG_ELYTRA : 0)
+                | (onGround ? FLAG_ON_GROUND : 0)
+                | (inWater ? FLAG_IN_WATER : 0)
+                | (swimming ? FLAG_SWIMMING : 0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket, allocation-free latency histogram (nanoseconds).
+ *
+ * <p>Buckets are log-linear: 8 sub-buckets per power of two, so any percentile is within ~6% of the true
+ * value. One thread {@link #record}s; one (possibly different) thread calls {@link #summarize()} to read the
+ * interval since its previous call. Counts are cumulative and the interval is a diff against the last
+ * summary, so recording never races with a reset.
+ */
+public final class TimingHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // 2^40 ns ~ 18 minutes; anything longer lands in the last bucket.
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong windowMax = new AtomicLong();
+
+    // Consumer side only.
+    private final long[] lastCounts = new long[BUCKETS];
+
+    /**
+     * Percentiles for one summary interval (0 when nothing was recorded).
+     */
+    public static final class Summary {
+        public static final Summary EMPTY = new Summary(0L, 0L, 0L, 0L);
+
+        public final long count;
+        public final long p50Ns;
+        public final long p99Ns;
+        public final long maxNs;
+
+        Summary(long count, long p50Ns, long p99Ns, long maxNs) {
+            this.count = count;
+            this.p50Ns = p50Ns;
+            this.p99Ns = p99Ns;
+            this.maxNs = maxNs;
+        }
+
+        public double p50Us() {
+            return p50Ns / 1000.0;
+        }
+
+        public double p99Us() {
+            return p99Ns / 1000.0;
+        }
+
+        public double maxUs() {
+            return maxNs / 1000.0;
+        }
+    }
+
+    /** Producer side; lock- and allocation-free. */
+    public void record(long nanos) {
+        long v = Math.max(0L, nanos);
+        counts.incrementAndGet(bucketOf(v));
+        long m = windowMax.get();
+        while (v > m && !windowMax.compareAndSet(m, v)) {
+            m = windowMax.get();
+        }
+    }
+
+    /**
+     * p50/p99/max of everything recorded since the previous call. Single consumer.
+     */
+    public Summary summarize() {
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            total += c - lastCounts[i];
+        }
+        long max = windowMax.getAndSet(0L);
+        if (total <= 0L) {
+            snapshotCounts();
+            return Summary.EMPTY;
+        }
+
+        long p50Rank = (long) Math.ceil(total * 0.50);
+        long p99Rank = (long) Math.ceil(total * 0.99);
+        long p50 = -1L;
+        long p99 = -1L;
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            long d = c - lastCounts[i];
+            lastCounts[i] = c;
+            if (d <= 0L) {
+                continue;
+            }
+            seen += d;
+            if (p50 < 0L && seen >= p50Rank) {
+                p50 = bucketMidpoint(i);
+            }
+            if (p99 < 0L && seen >= p99Rank) {
+                p99 = bucketMidpoint(i);
+            }
+        }
+        // Records that raced in after the first pass are counted next interval.
+        if (p50 < 0L) p50 = max;
+        if (p99 < 0L) p99 = max;
+        // Never report a percentile above the observed max.
+        if (max > 0L) {
+            p50 = Math.min(p50, max);
+            p99 = Math.min(p99, max);
+        }
+        return new Summary(total, p50, p99, max);
+    }
+
+    private void snapshotCounts() {
+        for (int i = 0; i < BUCKETS; i++) {
+            lastCounts[i] = counts.get(i);
+        }
+    }
+
+    static int bucketOf(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        if (exp > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) ((v >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return ((exp - SUB_BITS + 1) * SUB_BUCKETS) + sub;
+    }
+
+    static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exp = (index / SUB_BUCKETS) + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exp - SUB_BITS);
+        long lower = (SUB_BUCKETS + sub) * width;
+        return lower + (width / 2);
+    }
+}
@@ -0,0 +1,121 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
+import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+
+/**
+ * Immutable request handed from trigger threads to the BST-Audio render thread.
+ *
+ * <p>All parameters are already clamped/converted to samples by the producer, so the render thread
+ * only has to coalesce or allocate a voice. The DSP graph/context (if any) are taken from the instrument's
+ * pool by the producer and ownership passes to the render thread with the command, which releases the graph
+ * back to the pool when it is done with it. Cache hits carry a {@link PcmClipCache.Clip} and no graph.
+ */
+final class VoiceCommand {
+    enum Kind {
+        START,
+        STOP_CALIBRATION
+    }
+
+    final Kind kind;
+    final long createdNanos;
+
+    final double startFreqHz;
+    final double endFreqHz;
+    final int samples;
+    final double gain01;
+    final double noiseMix01;
+    final ImpulseEnvelope envelope;
+    final int pulsePeriodSamples;
+    final int pulseWidthSamples;
+    final int priority;
+    final int delaySamples;
+    final String debugKey;
+    final HapticBus bus;
+    final String instrumentId;
+    final int forcedMask;
+    final DspGraphInstance dspGraph;
+    final DspContext dspContext;
+    // Cached rendering to play back instead of a graph, or the empty clip the graph voice records into.
+    final PcmClipCache.Clip clip;
+    final double azimuthDeg;
+    final double distanceM;
+    final boolean spatialDesired;
+
+    private VoiceCommand(Kind kind,
+                         long createdNanos,
+                         double startFreqHz,
+                         double endFreqHz,
+                         int samples,
+                         double gain01,
+                         double noiseMix01,
+                         ImpulseEnvelope envelope,
+                         int pulsePeriodSamples,
+                         int pulseWidthSamples,
+                         int priority,
+                         int delaySamples,
+                         String debugKey,
+                         HapticBus bus,
+                         String instrumentId,
+                         int forcedMask,
+                         DspGraphInstance dspGraph,
+                         DspContext dspContext,
+                         PcmClipCache.Clip clip,
+                         double azimuthDeg,
+                         double distanceM,
+                         boolean spatialDesired) {
+        this.kind = kind;
+        this.createdNanos = createdNanos;
+        this.startFreqHz = startFreqHz;
+        this.endFreqHz = endFreqHz;
+        this.samples = samples;
+        this.gain01 = gain01;
+        this.noiseMix01 = noiseMix01;
+        this.envelope = envelope;
+        this.pulsePeriodSamples = pulsePeriodSamples;
+        this.pulseWidthSamples = pulseWidthSamples;
+        this.priority = priority;
+        this.delaySamples = delaySamples;
+        this.debugKey = (debugKey == null) ? "" : debugKey;
+        this.bus = bus;
+        this.instrumentId = (instrumentId == null) ? "" : instrumentId;
+        this.forcedMask = forcedMask;
+        this.dspGraph = dspGraph;
+        this.dspContext = dspContext;
+        this.clip = clip;
+        this.azimuthDeg = azimuthDeg;
+        this.distanceM = distanceM;
+        this.spatialDesired = spatialDesired;
+    }
+
+    static VoiceCommand start(long createdNanos,
+                              double startFreqHz,
+                              double endFreqHz,
+                              int samples,
+                              double gain01,
+                              double noiseMix01,
+                              ImpulseEnvelope envelope,
+                              int pulsePeriodSamples,
+                              int pulseWidthSamples,
+                              int priority,
+                              int delaySamples,
+                              String debugKey,
+                              HapticBus bus,
+                              String instrumentId,
+                              int forcedMask,
+                              DspGraphInstance dspGraph,
+                              DspContext dspContext,
+                              PcmClipCache.Clip clip,
+                              double azimuthDeg,
+                              double distanceM,
+                              boolean spatialDesired) {
+        return new VoiceCommand(Kind.START, createdNanos, startFreqHz, endFreqHz, samples, gain01, noiseMix01, envelope,
+                pulsePeriodSamples, pulseWidthSamples, priority, delaySamples, debugKey, bus, instrumentId,
+                forcedMask, dspGraph, dspContext, clip, azimuthDeg, distanceM, spatialDesired);
+    }
+
+    static VoiceCommand stopCalibration() {
+        return new VoiceCommand(Kind.STOP_CALIBRATION, System.nanoTime(), 0.0, 0.0, 0, 0.0, 0.0, ImpulsePattern.SINGLE.envelope, 1, 1, 0, 0, "", HapticBus.MODDED, "",
+                0, null, null, null, 0.0, 0.0, false);
+    }
+}
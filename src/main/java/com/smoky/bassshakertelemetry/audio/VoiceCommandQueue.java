@@ -0,0 +1,107 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer / single-consumer queue for {@link VoiceCommand}s.
+ *
+ * <p>Any thread may {@link #offer} without blocking (a full queue drops the command and counts it);
+ * only the BST-Audio render thread may {@link #poll}. Each slot carries a sequence number so producers
+ * claim slots with a single CAS and the consumer never needs a lock.
+ */
+final class VoiceCommandQueue {
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final AtomicReferenceArray<VoiceCommand> slots;
+
+    // Next slot producers will claim.
+    private final AtomicLong producerIndex = new AtomicLong(0);
+    // Next slot the consumer will read. Only written by the consumer; atomic so depth() can read it.
+    private final AtomicLong consumerIndex = new AtomicLong(0);
+
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong highWater = new AtomicLong(0);
+
+    VoiceCommandQueue(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = cap - 1;
+        this.sequence = new AtomicLongArray(cap);
+        this.slots = new AtomicReferenceArray<>(cap);
+        for (int i = 0; i < cap; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Enqueue without blocking.
+     *
+     * @return false when the queue is full (the command is dropped and counted).
+     */
+    boolean offer(VoiceCommand cmd) {
+        if (cmd == null) {
+            return false;
+        }
+        long pos = producerIndex.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long seq = sequence.get(idx);
+            long dif = seq - pos;
+            if (dif == 0) {
+                if (producerIndex.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(idx, cmd);
+                    // Publish: consumer waits for seq == pos + 1.
+                    sequence.set(idx, pos + 1);
+                    long depth = (pos + 1) - consumerIndex.get();
+                    if (depth > highWater.get()) {
+                        highWater.set(depth);
+                    }
+                    return true;
+                }
+                pos = producerIndex.get();
+            } else if (dif < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = producerIndex.get();
+            }
+        }
+    }
+
+    /**
+     * Dequeue one command, or null when empty. Render thread only.
+     */
+    VoiceCommand poll() {
+        long pos = consumerIndex.get();
+        int idx = (int) (pos & mask);
+        long seq = sequence.get(idx);
+        if (seq != pos + 1) {
+            return null;
+        }
+        VoiceCommand cmd = slots.get(idx);
+        slots.lazySet(idx, null);
+        // Hand the slot back to producers one lap ahead.
+        sequence.set(idx, pos + mask + 1);
+        consumerIndex.lazySet(pos + 1);
+        return cmd;
+    }
+
+    /** Approximate number of queued commands (safe from any thread). */
+    int depth() {
+        long d = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(d, capacity()));
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    int highWaterMark() {
+        return (int) Math.min(highWater.get(), capacity());
+    }
+}
@@ -0,0 +1,142 @@
+package com.smoky.bassshakertelemetry.audio;
+
+/**
+ * Hierarchical timing wheel for delayed {@link ImpulseVoice}s, keyed by the render thread's sample clock.
+ *
+ * <p>Fine slots cover 256 ticks of 256 samples (about 1.4 s at 48 kHz), coarse slots cover 64 groups of 256
+ * ticks (about 87 s); anything later waits in an overflow list that is re-filed once per coarse revolution.
+ * Lists are intrusive (no allocation) and a block only visits the slots it overlaps, so a waiting voice costs
+ * nothing until its start block. Render thread only.
+ */
+final class VoiceTimingWheel {
+    static final int TICK_SHIFT = 8;
+
+    private static final int FINE_BITS = 8;
+    private static final int FINE_SLOTS = 1 << FINE_BITS;
+    private static final int FINE_MASK = FINE_SLOTS - 1;
+    private static final int COARSE_SLOTS = 64;
+    private static final int COARSE_MASK = COARSE_SLOTS - 1;
+    private static final int COARSE_BASE = FINE_SLOTS;
+    private static final int OVERFLOW = COARSE_BASE + COARSE_SLOTS;
+
+    private final ImpulseVoice[] heads = new ImpulseVoice[OVERFLOW + 1];
+
+    // First tick not fully handed out yet; every voice still in the wheel starts at or after it.
+    private long tick;
+    private int count;
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Files a voice by its {@code startSample}. Starts already in the past are filed under the current tick.
+     */
+    void insert(ImpulseVoice v) {
+        long st = Math.max(tick, v.startSample >> TICK_SHIFT);
+        int bucket;
+        if (st - tick < FINE_SLOTS) {
+            bucket = (int) (st & FINE_MASK);
+        } else if ((st >> FINE_BITS) - (tick >> FINE_BITS) < COARSE_SLOTS) {
+            bucket = COARSE_BASE + (int) ((st >> FINE_BITS) & COARSE_MASK);
+        } else {
+            bucket = OVERFLOW;
+        }
+        push(v, bucket);
+        count++;
+    }
+
+    void remove(ImpulseVoice v) {
+        if (v.wheelBucket < 0) {
+            return;
+        }
+        unlink(v);
+        count--;
+    }
+
+    /**
+     * Unlinks every voice starting before {@code endSample} and returns them as a chain through
+     * {@link ImpulseVoice#wheelNext} (null when none is due).
+     */
+    ImpulseVoice advance(long endSample) {
+        long endTick = (endSample - 1L) >> TICK_SHIFT;
+        if (count == 0) {
+            tick = Math.max(tick, endSample >> TICK_SHIFT);
+            return null;
+        }
+
+        ImpulseVoice due = null;
+        while (tick <= endTick) {
+            int slot = (int) (tick & FINE_MASK);
+            ImpulseVoice v = heads[slot];
+            boolean whole = tick < endTick || (endSample >> TICK_SHIFT) > endTick;
+            while (v != null) {
+                ImpulseVoice next = v.wheelNext;
+                if (whole || v.startSample < endSample) {
+                    unlink(v);
+                    count--;
+                    v.wheelNext = due;
+                    due = v;
+                }
+                v = next;
+            }
+            if (!whole) {
+                // The block ends inside this tick; the rest of the slot is picked up next block.
+                break;
+            }
+            tick++;
+            if ((tick & FINE_MASK) == 0L) {
+                cascade();
+            }
+        }
+        return due;
+    }
+
+    // Entering a new group of fine ticks: re-file its coarse slot (and, once per revolution, the overflow).
+    private void cascade() {
+        long group = tick >> FINE_BITS;
+        if ((group & COARSE_MASK) == 0L) {
+            refile(OVERFLOW);
+        }
+        refile(COARSE_BASE + (int) (group & COARSE_MASK));
+    }
+
+    private void refile(int bucket) {
+        ImpulseVoice v = heads[bucket];
+        heads[bucket] = null;
+        while (v != null) {
+            ImpulseVoice next = v.wheelNext;
+            v.wheelBucket = -1;
+            count--;
+            insert(v);
+            v = next;
+        }
+    }
+
+    private void push(ImpulseVoice v, int bucket) {
+        ImpulseVoice head = heads[bucket];
+        v.wheelBucket = bucket;
+        v.wheelPrev = null;
+        v.wheelNext = head;
+        if (head != null) {
+            head.wheelPrev = v;
+        }
+        heads[bucket] = v;
+    }
+
+    private void unlink(ImpulseVoice v) {
+        ImpulseVoice prev = v.wheelPrev;
+        ImpulseVoice next = v.wheelNext;
+        if (prev != null) {
+            prev.wheelNext = next;
+        } else {
+            heads[v.wheelBucket] = next;
+        }
+        if (next != null) {
+            next.wheelPrev = prev;
+        }
+        v.wheelBucket = -1;
+        v.wheelPrev = null;
+        v.wheelNext = null;
+    }
+}
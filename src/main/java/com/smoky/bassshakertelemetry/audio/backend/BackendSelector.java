@@ -1,14 +1,20 @@
 package com.smoky.bassshakertelemetry.audio.backend;
 
 import com.smoky.bassshakertelemetry.config.BstConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.nio.file.Path;
 
 /**
  * Backend selection helper.
  *
- * <p>Phase 1 foundation: config selects an id, but we currently ship JavaSound as the stable backend.
- * Other ids fall back to JavaSound for now.
+ * <p>Ids: {@code javasound} (default, sound card), {@code null} (discard, real-time paced),
+ * {@code wav} (capture to a WAV file) and {@code mmap} (raw PCM ring in a memory-mapped file).
+ * Unknown ids fall back to JavaSound.
  */
 public final class BackendSelector {
+    private static final int DEFAULT_HEADLESS_BUFFER_MS = 20;
+
     private BackendSelector() {
     }
 
@@ -17,12 +23,43 @@ public final class BackendSelector {
         String id = (raw == null) ? "" : raw.trim().toLowerCase(java.util.Locale.ROOT);
 
         // Future: openal/wasapi/asio.
-        // For Phase 1 stabilization we keep a single proven backend.
         switch (id) {
+            case "null":
+            case "none":
+                return new NullAudioBackend();
+            case "wav":
+                return new WavFileBackend();
+            case "mmap":
+                return new MappedRingBackend();
             case "javasound":
             case "":
             default:
                 return new JavaSoundBackend();
         }
     }
+
+    /**
+     * Emulated device buffer for headless backends; mirrors {@code javaSoundBufferMs} so latency tuning
+     * behaves the same with and without a sound card.
+     */
+    static int headlessBufferMs(BstConfig.Data cfg) {
+        int ms = (cfg == null) ? 0 : cfg.javaSoundBufferMs;
+        if (ms <= 0) {
+            return DEFAULT_HEADLESS_BUFFER_MS;
+        }
+        return Math.max(5, Math.min(ms, 500));
+    }
+
+    /**
+     * Output file for file-based backends: {@code audioBackendFile} if set (relative paths resolve against the
+     * config dir), otherwise {@code defaultName} in the config dir.
+     */
+    static Path outputPath(BstConfig.Data cfg, String defaultName) {
+        String raw = (cfg == null) ? null : cfg.audioBackendFile;
+        Path configDir = FMLPaths.CONFIGDIR.get();
+        if (raw == null || raw.isBlank()) {
+            return configDir.resolve(defaultName);
+        }
+        return configDir.resolve(raw.trim());
+    }
 }
@@ -0,0 +1,146 @@
+package com.smoky.bassshakertelemetry.audio.backend;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publishes the output stream as a raw PCM ring in a memory-mapped file, paced in real time, so external
+ * processes (capture rigs, hardware bridges) can read it without a socket or an extra copy.
+ *
+ * <p>Layout (little-endian): a {@value #HEADER_BYTES}-byte header followed by {@code capacityBytes} of
+ * interleaved 16-bit PCM. Header fields:
+ * <pre>
+ *   0  int  magic 'BSTR'
+ *   4  int  version (1)
+ *   8  int  sample rate
+ *  12  int  channels
+ *  16  int  bits per sample (16)
+ *  20  int  frame size in bytes
+ *  24  int  capacityBytes (whole frames)
+ *  32  long writePos: total bytes ever written (release store, after the data)
+ * </pre>
+ * Byte {@code n} of the stream lives at {@code HEADER_BYTES + (n % capacityBytes)}. A reader keeps its own
+ * read position; if {@code writePos - readPos > capacityBytes} it was overrun and should skip ahead.
+ *
+ * <p>The file is reused, not truncated, when the output reopens (device restart, format change), so readers
+ * can keep it mapped. Reopening rewrites the header and then resets {@code writePos} to 0 (release store): a
+ * reader that sees {@code writePos} go backwards must re-read the header (the format and capacity may have
+ * changed) and restart from read position 0. The file only grows or shrinks when the capacity changes.
+ */
+public final class MappedRingBackend implements HapticAudioBackend {
+    private static final Logger LOGGER = LogManager.getLogger("bassshakertelemetry");
+
+    static final String DEFAULT_FILE_NAME = "bassshakertelemetry_pcm.ring";
+
+    static final int HEADER_BYTES = 64;
+    private static final int MAGIC = 0x52545342; // "BSTR" as little-endian bytes
+    private static final int VERSION = 1;
+    private static final int WRITE_POS_OFFSET = 32;
+    // One second of audio: plenty of slack for a polling reader.
+    private static final int RING_SECONDS = 1;
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    @Override
+    public String id() {
+        return "mmap";
+    }
+
+    @Override
+    public AudioOutputDevice open(AudioFormat preferredFormat, BstConfig.Data cfg) {
+        Path path = BackendSelector.outputPath(cfg, DEFAULT_FILE_NAME);
+        int frameSize = Math.max(1, preferredFormat.getFrameSize());
+        int sampleRate = Math.round(preferredFormat.getSampleRate());
+        int capacity = Math.max(1, sampleRate * RING_SECONDS) * frameSize;
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            long fileBytes = (long) HEADER_BYTES + capacity;
+            MappedByteBuffer map;
+            try (FileChannel ch = FileChannel.open(path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                if (ch.size() > fileBytes) {
+                    try {
+                        ch.truncate(fileBytes);
+                    } catch (IOException e) {
+                        // Still mapped by a reader (Windows refuses): the tail is unused, capacityBytes says so.
+                        LOGGER.debug("[BST] Could not shrink mapped PCM ring '{}' ({})", path, e.toString());
+                    }
+                }
+                // Grows the file if needed. The mapping stays valid after the channel is closed.
+                map = ch.map(FileChannel.MapMode.READ_WRITE, 0L, fileBytes);
+            }
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, sampleRate);
+            map.putInt(12, Math.max(1, preferredFormat.getChannels()));
+            map.putInt(16, 16);
+            map.putInt(20, frameSize);
+            map.putInt(24, capacity);
+            // Last, so a reader that sees the reset also sees the header above.
+            LONG_VIEW.setRelease(map, WRITE_POS_OFFSET, 0L);
+
+            LOGGER.info("[BST] Opened mapped PCM ring: file='{}' fmt={}ch capacityBytes={}",
+                    path, preferredFormat.getChannels(), capacity);
+            return new RingDevice(preferredFormat, BackendSelector.headlessBufferMs(cfg), map, capacity);
+        } catch (Exception e) {
+            LOGGER.error("[BST] Failed to open mapped PCM ring '{}'", path, e);
+            return null;
+        }
+    }
+
+    private static final class RingDevice extends PacedOutputDevice {
+        private final MappedByteBuffer map;
+        private final int capacity;
+        private long writePos;
+
+        private RingDevice(AudioFormat format, int bufferMs, MappedByteBuffer map, int capacity) {
+            super(format, bufferMs);
+            this.map = map;
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected void sink(byte[] buffer, int offset, int length) {
+            int off = offset;
+            int left = length;
+            while (left > 0) {
+                int at = (int) (writePos % capacity);
+                int n = Math.min(left, capacity - at);
+                map.put(HEADER_BYTES + at, buffer, off, n);
+                off += n;
+                left -= n;
+                writePos += n;
+            }
+            // Readers that see the new position also see the bytes before it.
+            LONG_VIEW.setRelease(map, WRITE_POS_OFFSET, writePos);
+        }
+
+        @Override
+        protected void closeSink() {
+            try {
+                map.force();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
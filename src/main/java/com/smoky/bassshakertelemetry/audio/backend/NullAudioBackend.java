@@ -0,0 +1,34 @@
+package com.smoky.bassshakertelemetry.audio.backend;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Discards audio but keeps real-time pacing (CI boxes, machines without a sound card, render benchmarks).
+ */
+public final class NullAudioBackend implements HapticAudioBackend {
+    private static final Logger LOGGER = LogManager.getLogger("bassshakertelemetry");
+
+    @Override
+    public String id() {
+        return "null";
+    }
+
+    @Override
+    public AudioOutputDevice open(AudioFormat preferredFormat, BstConfig.Data cfg) {
+        int bufferMs = BackendSelector.headlessBufferMs(cfg);
+        LOGGER.info("[BST] Opened null audio sink: fmt={}ch bufferMs={}", preferredFormat.getChannels(), bufferMs);
+        return new PacedOutputDevice(preferredFormat, bufferMs) {
+            @Override
+            protected void sink(byte[] buffer, int offset, int length) {
+            }
+
+            @Override
+            protected void closeSink() {
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.smoky.bassshakertelemetry.audio.backend;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Base for headless devices: emulates a sound card buffer that drains at the format's sample rate.
+ *
+ * <p>{@link #write} blocks while the emulated buffer is full and {@link #availableBytes()} reports the free
+ * space, so the engine's writer thread, underrun counters and adaptive latency behave as they do with
+ * JavaSound. When the buffer runs dry the emulated playhead stops (like a device playing silence), so a
+ * stall does not let the writer burst ahead afterwards.
+ */
+abstract class PacedOutputDevice implements AudioOutputDevice {
+    private final AudioFormat format;
+    private final int bufferBytes;
+    private final double bytesPerNs;
+
+    private long startNs;
+    private long writtenBytes;
+    private boolean started;
+
+    PacedOutputDevice(AudioFormat format, int bufferMs) {
+        this.format = format;
+        int frameSize = Math.max(1, format.getFrameSize());
+        double sampleRate = Math.max(1.0, format.getSampleRate());
+        int frames = (int) Math.round((Math.max(5, bufferMs) / 1000.0) * sampleRate);
+        this.bufferBytes = Math.max(frameSize, frames * frameSize);
+        this.bytesPerNs = (sampleRate * frameSize) / 1_000_000_000.0;
+    }
+
+    /**
+     * Hands {@code length} bytes to the sink (file, mapped ring, nothing). Called from {@link #write}.
+     */
+    protected abstract void sink(byte[] buffer, int offset, int length) throws Exception;
+
+    /**
+     * Flushes and releases the sink. Called once from {@link #stopFlushClose()}.
+     */
+    protected abstract void closeSink() throws Exception;
+
+    @Override
+    public AudioFormat format() {
+        return format;
+    }
+
+    @Override
+    public int channels() {
+        return Math.max(1, format.getChannels());
+    }
+
+    @Override
+    public int bufferSizeBytes() {
+        return bufferBytes;
+    }
+
+    @Override
+    public synchronized int availableBytes() {
+        return bufferBytes - queuedBytes(System.nanoTime());
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            startNs = System.nanoTime();
+            writtenBytes = 0L;
+        }
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        // A block larger than the whole buffer still goes through once the buffer is empty.
+        int limit = Math.max(bufferBytes, length);
+        while (true) {
+            long waitNs;
+            synchronized (this) {
+                int queued = queuedBytes(System.nanoTime());
+                if ((queued + length) <= limit) {
+                    break;
+                }
+                waitNs = (long) ((queued + length - limit) / bytesPerNs);
+            }
+            LockSupport.parkNanos(Math.max(100_000L, waitNs));
+        }
+
+        try {
+            sink(buffer, offset, length);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Headless audio sink write failed", e);
+        }
+
+        synchronized (this) {
+            writtenBytes += length;
+        }
+    }
+
+    @Override
+    public void stopFlushClose() {
+        try {
+            closeSink();
+        } catch (Exception ignored) {
+        }
+    }
+
+    // Caller holds the monitor.
+    private int queuedBytes(long nowNs) {
+        if (!started) {
+            return (int) Math.min(bufferBytes, writtenBytes);
+        }
+        long consumed = (long) ((nowNs - startNs) * bytesPerNs);
+        if (consumed >= writtenBytes) {
+            // Ran dry: hold the playhead at the write position.
+            startNs = nowNs - (long) (writtenBytes / bytesPerNs);
+            return 0;
+        }
+        return (int) Math.min(bufferBytes, writtenBytes - consumed);
+    }
+}
@@ -0,0 +1,138 @@
+package com.smoky.bassshakertelemetry.audio.backend;
+
+import com.smoky.bassshakertelemetry.config.BstConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sound.sampled.AudioFormat;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the output stream to a 16-bit PCM WAV file, paced in real time.
+ *
+ * <p>The file is rewritten each time the device opens. Sizes in the RIFF header are patched on close, so a
+ * capture cut short by a crash still holds the audio but reports a zero length.
+ */
+public final class WavFileBackend implements HapticAudioBackend {
+    private static final Logger LOGGER = LogManager.getLogger("bassshakertelemetry");
+
+    static final String DEFAULT_FILE_NAME = "bassshakertelemetry_capture.wav";
+
+    private static final int HEADER_BYTES = 44;
+    // Batch block writes into fewer syscalls.
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    @Override
+    public String id() {
+        return "wav";
+    }
+
+    @Override
+    public AudioOutputDevice open(AudioFormat preferredFormat, BstConfig.Data cfg) {
+        Path path = BackendSelector.outputPath(cfg, DEFAULT_FILE_NAME);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            FileChannel ch = FileChannel.open(path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            WavDevice d = new WavDevice(preferredFormat, BackendSelector.headlessBufferMs(cfg), ch);
+            LOGGER.info("[BST] Opened WAV capture: file='{}' fmt={}ch", path, preferredFormat.getChannels());
+            return d;
+        } catch (Exception e) {
+            LOGGER.error("[BST] Failed to open WAV capture file '{}'", path, e);
+            return null;
+        }
+    }
+
+    private static void putHeader(ByteBuffer b, AudioFormat format, long dataBytes) {
+        int channels = Math.max(1, format.getChannels());
+        int sampleRate = Math.round(format.getSampleRate());
+        int blockAlign = Math.max(1, format.getFrameSize());
+        int data = (int) Math.min(dataBytes, 0xFFFF_FFFFL - 36);
+
+        b.clear();
+        b.put((byte) 'R').put((byte) 'I').put((byte) 'F').put((byte) 'F');
+        b.putInt(36 + data);
+        b.put((byte) 'W').put((byte) 'A').put((byte) 'V').put((byte) 'E');
+        b.put((byte) 'f').put((byte) 'm').put((byte) 't').put((byte) ' ');
+        b.putInt(16);
+        b.putShort((short) 1); // PCM
+        b.putShort((short) channels);
+        b.putInt(sampleRate);
+        b.putInt(sampleRate * blockAlign);
+        b.putShort((short) blockAlign);
+        b.putShort((short) 16);
+        b.put((byte) 'd').put((byte) 'a').put((byte) 't').put((byte) 'a');
+        b.putInt(data);
+        b.flip();
+    }
+
+    private static final class WavDevice extends PacedOutputDevice {
+        private final FileChannel channel;
+        private final ByteBuffer pending = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private long dataBytes;
+        private boolean closed;
+
+        private WavDevice(AudioFormat format, int bufferMs, FileChannel channel) throws Exception {
+            super(format, bufferMs);
+            this.channel = channel;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            putHeader(header, format, 0L);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+
+        @Override
+        protected void sink(byte[] buffer, int offset, int length) throws Exception {
+            int off = offset;
+            int left = length;
+            while (left > 0) {
+                int n = Math.min(left, pending.remaining());
+                pending.put(buffer, off, n);
+                off += n;
+                left -= n;
+                if (!pending.hasRemaining()) {
+                    drain();
+                }
+            }
+            dataBytes += length;
+        }
+
+        @Override
+        protected void closeSink() throws Exception {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                drain();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                putHeader(header, format(), dataBytes);
+                channel.position(0L);
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void drain() throws Exception {
+            pending.flip();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.smoky.bassshakertelemetry.audio.dsp;
+
+/**
+ * Signal buffers for one block of a compiled graph: one buffer per value slot (see {@link DspInputs}).
+ *
+ * <p>During {@link DspNode#process} the buffers of a node's inputs hold the current block; the slot for
+ * unwired inputs is all zeros.
+ */
+public final class DspBlock {
+    private final double[][] signals;
+    private final double[] row;
+
+    DspBlock(int slots, int frames) {
+        this.signals = new double[slots][frames];
+        this.row = new double[slots];
+    }
+
+    /** Block buffer of a slot ({@code frames} valid samples from index 0). */
+    public double[] signal(int slot) {
+        return signals[slot];
+    }
+
+    /**
+     * Per-sample view: sample {@code i} of every slot, in the layout {@link DspNode#next} expects. Only the
+     * slots already processed this block are current.
+     */
+    public double[] sampleValues(int i) {
+        double[] r = row;
+        double[][] s = signals;
+        for (int k = 0; k < r.length; k++) {
+            r[k] = s[k][i];
+        }
+        return r;
+    }
+}
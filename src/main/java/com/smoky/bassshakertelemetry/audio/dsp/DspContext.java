@@ -1,14 +1,12 @@
 package com.smoky.bassshakertelemetry.audio.dsp;
 
-import java.util.Random;
-
 /**
  * Runtime context for DSP patch evaluation.
  */
 public final class DspContext {
     public static final float SAMPLE_RATE = 48_000f;
 
-    public final Random random;
+    public final FastRandom random;
 
     public double startFreqHz;
     public double endFreqHz;
@@ -23,7 +21,17 @@ public final class DspContext {
     public String directionBand;
 
     public DspContext(long seed, double startFreqHz, double endFreqHz, int totalSamples) {
-        this.random = new Random(seed);
+        this.random = new FastRandom(seed);
+        this.startFreqHz = startFreqHz;
+        this.endFreqHz = endFreqHz;
+        this.totalSamples = Math.max(1, totalSamples);
+        this.sampleIndex = 0;
+        this.directionBand = "center";
+    }
+
+    /** Same state as {@code new DspContext(seed, startFreqHz, endFreqHz, totalSamples)}. */
+    public void reset(long seed, double startFreqHz, double endFreqHz, int totalSamples) {
+        this.random.setSeed(seed);
         this.startFreqHz = startFreqHz;
         this.endFreqHz = endFreqHz;
         this.totalSamples = Math.max(1, totalSamples);
@@ -41,6 +49,10 @@ public final class DspContext {
     }
 
     public double overallProgress01() {
+        return overallProgress01(sampleIndex);
+    }
+
+    public double overallProgress01(int sampleIndex) {
         if (totalSamples <= 1) {
             return 1.0;
         }
@@ -48,7 +60,12 @@ public final class DspContext {
     }
 
     public double frequencyHz() {
-        double p = overallProgress01();
+        return frequencyHz(sampleIndex);
+    }
+
+    /** Swept frequency at {@code sampleIndex} (for block processing, which does not move {@link #sampleIndex}). */
+    public double frequencyHz(int sampleIndex) {
+        double p = overallProgress01(sampleIndex);
         return startFreqHz + ((endFreqHz - startFreqHz) * p);
     }
 
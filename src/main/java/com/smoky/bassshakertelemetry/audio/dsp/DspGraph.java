@@ -1,6 +1,5 @@
 package com.smoky.bassshakertelemetry.audio.dsp;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,8 +22,46 @@ public final class DspGraph {
             this.inputs = (inputs == null) ? Map.of() : Map.copyOf(inputs);
             this.params = (params == null) ? Map.of() : Map.copyOf(params);
         }
+
+        /**
+         * Numeric param lookup. Params are immutable, so nodes may read these once at construction.
+         */
+        public double paramDouble(String key, double fallback) {
+            Object v = (key == null) ? null : params.get(key);
+            if (v instanceof Number n) {
+                return n.doubleValue();
+            }
+            try {
+                return (v == null) ? fallback : Double.parseDouble(String.valueOf(v));
+            } catch (Exception ignored) {
+                return fallback;
+            }
+        }
+
+        public String paramString(String key, String fallback) {
+            Object v = (key == null) ? null : params.get(key);
+            if (v == null) return fallback;
+            String s = String.valueOf(v);
+            return s.isBlank() ? fallback : s;
+        }
+
+        public int paramInt(String key, int fallback) {
+            Object v = (key == null) ? null : params.get(key);
+            if (v instanceof Number n) {
+                return n.intValue();
+            }
+            try {
+                return (v == null) ? fallback : Integer.parseInt(String.valueOf(v));
+            } catch (Exception ignored) {
+                return fallback;
+            }
+        }
     }
 
+    // Compile-time DFS marks.
+    private static final byte VISITING = 1;
+    private static final byte DONE = 2;
+
     private final List<NodeDef> nodes;
     private final String outputNodeId;
 
@@ -41,22 +78,103 @@ public final class DspGraph {
         return outputNodeId;
     }
 
+    /**
+     * Compiles the graph into a runnable instance with fresh node state.
+     *
+     * <p>Each node resolves its inputs to value slots once; nodes are then ordered so every input is computed
+     * before the node that reads it (the order the old per-sample pull visited them). An input that closes a
+     * cycle reads its source's value from the previous sample. Nodes the output doesn't depend on are kept
+     * for {@link DspGraphInstance#evalById} but not run by {@code out}/{@code process}, and nodes with a
+     * constant output are folded (see {@link DspNode#constantOutput}). {@link DspGraphInstance#analysis()}
+     * reports what was found.
+     */
     public DspGraphInstance instantiate(DspNodeFactory factory) {
+        int n = nodes.size();
         Map<String, Integer> indexById = new HashMap<>();
-        for (int i = 0; i < nodes.size(); i++) {
+        for (int i = 0; i < n; i++) {
             indexById.put(nodes.get(i).id, i);
         }
 
         int outIndex = indexById.getOrDefault(outputNodeId, -1);
-        if (outIndex < 0 && !nodes.isEmpty()) {
-            outIndex = nodes.size() - 1;
+        if (outIndex < 0 && n > 0) {
+            outIndex = n - 1;
+        }
+
+        // Slot n is never written and always reads 0 (unwired inputs).
+        DspNode[] runtime = new DspNode[n];
+        int[][] deps = new int[n][];
+        for (int i = 0; i < n; i++) {
+            DspInputs in = new DspInputs(nodes.get(i), indexById, n);
+            runtime[i] = factory.create(nodes.get(i), in);
+            deps[i] = in.dependencies();
+        }
+
+        // Nodes feeding the output come first; out() runs only those. The rest follow for evalById().
+        int[] order = new int[n];
+        byte[] mark = new byte[n];
+        int count = 0;
+        if (outIndex >= 0) {
+            count = visit(outIndex, deps, mark, order, count);
+        }
+        int liveSteps = count;
+        for (int i = 0; i < n; i++) {
+            count = visit(i, deps, mark, order, count);
         }
 
-        List<DspNode> runtime = new ArrayList<>(nodes.size());
-        for (NodeDef def : nodes) {
-            runtime.add(factory.create(def));
+        // Constant folding, in evaluation order: a node whose inputs are all folded (or unwired) may fold too.
+        // Feedback inputs come later in the order, so nodes on a cycle never fold.
+        boolean[] folded = new boolean[n];
+        double[] constants = new double[n + 1];
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            boolean constantInputs = true;
+            for (int d : deps[i]) {
+                if (!folded[d]) {
+                    constantInputs = false;
+                    break;
+                }
+            }
+            if (constantInputs) {
+                double c = runtime[i].constantOutput(constants);
+                if (!Double.isNaN(c)) {
+                    folded[i] = true;
+                    constants[i] = c;
+                }
+            }
         }
 
-        return new DspGraphInstance(nodes, runtime, indexById, outIndex);
+        DspGraphAnalysis analysis = new DspGraphAnalysis(this, runtime, deps, order, liveSteps, folded, outIndex, indexById);
+        return new DspGraphInstance(nodes, indexById, runtime, deps, order, liveSteps, folded, constants, outIndex, analysis);
+    }
+
+    // Iterative post-order DFS (user graphs may be long chains); appends root's unscheduled subgraph to order.
+    private static int visit(int root, int[][] deps, byte[] mark, int[] order, int count) {
+        if (mark[root] != 0) {
+            return count;
+        }
+        int[] stack = new int[deps.length];
+        int[] next = new int[deps.length];
+        int sp = 0;
+        stack[sp++] = root;
+        mark[root] = VISITING;
+        while (sp > 0) {
+            int v = stack[sp - 1];
+            int[] d = deps[v];
+            if (next[sp - 1] < d.length) {
+                int u = d[next[sp - 1]++];
+                // VISITING: feedback edge, read from the previous sample. DONE: already scheduled.
+                if (mark[u] == 0) {
+                    mark[u] = VISITING;
+                    stack[sp] = u;
+                    next[sp] = 0;
+                    sp++;
+                }
+            } else {
+                mark[v] = DONE;
+                order[count++] = v;
+                sp--;
+            }
+        }
+        return count;
     }
 }
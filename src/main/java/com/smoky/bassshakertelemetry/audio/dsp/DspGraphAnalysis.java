@@ -0,0 +1,157 @@
+package com.smoky.bassshakertelemetry.audio.dsp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the graph compiler ({@link DspGraph#instantiate}) found in a graph: definition problems it repaired,
+ * nodes it pruned or folded, and an estimate of the per-sample cost.
+ *
+ * <p>Nothing here is fatal. Unknown node types output 0, inputs naming missing nodes read 0, a missing output
+ * falls back to the last node, and a cycle is kept: the input that closes it reads the previous sample.
+ */
+public final class DspGraphAnalysis {
+    /** Nodes in the definition. */
+    public final int nodeCount;
+    /** Nodes that run for every sample of a voice (the output depends on them and they were not folded). */
+    public final int liveNodes;
+    /**
+     * Estimated per-sample cost of a voice: the sum of {@link DspNode#cost()} over live nodes, in units of one
+     * biquad filter sample.
+     */
+    public final double cost;
+
+    /** Nodes whose type no node implements, as {@code id (type)}. */
+    public final List<String> unknownTypes;
+    /** Inputs naming a node that does not exist, as {@code id.input -> source}. */
+    public final List<String> missingInputs;
+    /** Edges that close a cycle, as {@code source -> id}; they read the source's previous sample. */
+    public final List<String> feedback;
+    /** Node ids defined more than once (the last definition wins). */
+    public final List<String> duplicateIds;
+    /** Nodes the output does not depend on; not run during playback. */
+    public final List<String> unused;
+    /** Live nodes with a constant output, computed once at compile time instead of per sample. */
+    public final List<String> folded;
+    /** The output id named by the graph, when no node has it. */
+    public final String missingOutput;
+    /** The node actually used as output (empty for an empty graph). */
+    public final String outputId;
+
+    DspGraphAnalysis(DspGraph graph,
+                     DspNode[] nodes,
+                     int[][] deps,
+                     int[] order,
+                     int liveSteps,
+                     boolean[] folded,
+                     int outputIndex,
+                     Map<String, Integer> indexById) {
+        List<DspGraph.NodeDef> defs = graph.nodes();
+        int n = defs.size();
+        this.nodeCount = n;
+
+        List<String> unknown = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        List<String> dupes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (DspGraph.NodeDef def : defs) {
+            if (!seen.add(def.id) && !dupes.contains(def.id)) {
+                dupes.add(def.id);
+            }
+            if (DspNodeFactory.kind(def.type) == null) {
+                unknown.add(def.id + " (" + def.type + ")");
+            }
+            for (Map.Entry<String, String> e : def.inputs.entrySet()) {
+                String from = e.getValue();
+                if (from != null && !from.isBlank() && !indexById.containsKey(from)) {
+                    missing.add(def.id + "." + e.getKey() + " -> " + from);
+                }
+            }
+        }
+
+        int[] pos = new int[n];
+        for (int k = 0; k < order.length; k++) {
+            pos[order[k]] = k;
+        }
+        List<String> loops = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int d : deps[i]) {
+                if (pos[d] >= pos[i]) {
+                    loops.add(defs.get(d).id + " -> " + defs.get(i).id);
+                }
+            }
+        }
+
+        List<String> dead = new ArrayList<>();
+        for (int k = liveSteps; k < order.length; k++) {
+            dead.add(defs.get(order[k]).id);
+        }
+
+        List<String> constant = new ArrayList<>();
+        int live = 0;
+        double c = 0.0;
+        for (int k = 0; k < liveSteps; k++) {
+            int i = order[k];
+            if (folded[i]) {
+                constant.add(defs.get(i).id);
+            } else {
+                live++;
+                c += nodes[i].cost();
+            }
+        }
+
+        String out = graph.outputNodeId();
+        this.missingOutput = (n > 0 && !indexById.containsKey(out)) ? out : null;
+        this.outputId = (outputIndex >= 0 && outputIndex < n) ? defs.get(outputIndex).id : "";
+
+        this.unknownTypes = Collections.unmodifiableList(unknown);
+        this.missingInputs = Collections.unmodifiableList(missing);
+        this.feedback = Collections.unmodifiableList(loops);
+        this.duplicateIds = Collections.unmodifiableList(dupes);
+        this.unused = Collections.unmodifiableList(dead);
+        this.folded = Collections.unmodifiableList(constant);
+        this.liveNodes = live;
+        this.cost = c;
+    }
+
+    /**
+     * Human-readable list of the repaired problems and cycles (empty if none).
+     */
+    public List<String> problems() {
+        List<String> out = new ArrayList<>();
+        if (nodeCount == 0) {
+            out.add("graph has no nodes (silent)");
+        }
+        if (missingOutput != null) {
+            out.add(missingOutput.isBlank()
+                    ? ("no output set, using '" + outputId + "'")
+                    : ("output '" + missingOutput + "' not found, using '" + outputId + "'"));
+        }
+        for (String s : unknownTypes) {
+            out.add("unknown node type: " + s + " outputs 0");
+        }
+        for (String s : missingInputs) {
+            out.add("input " + s + " names no node, reads 0");
+        }
+        for (String s : duplicateIds) {
+            out.add("duplicate node id '" + s + "'");
+        }
+        for (String s : feedback) {
+            out.add("feedback loop " + s + " reads the previous sample");
+        }
+        return out;
+    }
+
+    /**
+     * One-line summary for the graph editor.
+     */
+    public String summary() {
+        return String.format(java.util.Locale.ROOT,
+                "cost %.1f/sample | %d of %d nodes run (%d folded, %d unused)",
+                cost, liveNodes, nodeCount, folded.size(), unused.size());
+    }
+}
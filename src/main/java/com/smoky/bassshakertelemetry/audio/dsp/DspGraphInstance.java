@@ -1,40 +1,216 @@
 package com.smoky.bassshakertelemetry.audio.dsp;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Runtime instance of a graph. Holds node state and per-sample cache.
+ * Runtime instance of a graph: node state plus the compiled evaluation order (see {@link DspGraph#instantiate}).
+ *
+ * <p>{@link #out} runs the nodes in order over a flat value array indexed by node position; node {@code i}
+ * writes {@code values[i]}. Values persist between samples, which is what feedback edges read.
+ * {@link #process} runs each node over a whole block instead (one loop per node); graphs with feedback fall
+ * back to per-sample evaluation there. Folded (constant) nodes are not steps: their slots are filled once.
  */
 public final class DspGraphInstance {
+    /** Longest block a node processes between two {@link DspNode#control} calls. */
+    public static final int CONTROL_SAMPLES = 64;
+
     private final List<DspGraph.NodeDef> defs;
-    private final List<DspNode> nodes;
     private final Map<String, Integer> indexById;
     private final int outputIndex;
 
-    private final double[] cache;
-    private final int[] cacheSample;
+    // Evaluation order: steps[k] writes values[stepSlot[k]].
+    private final DspNode[] steps;
+    private final int[] stepSlot;
+    private final int[] stepOf;
+    // Steps [0, liveSteps) are the ones the output depends on.
+    private final int liveSteps;
+    // A live step reads a slot not computed yet this sample (a cycle): block mode would read the wrong sample.
+    private final boolean feedback;
+    // No live step draws from ctx.random.
+    private final boolean deterministic;
+
+    // One slot per node plus a trailing slot that stays 0.
+    private final double[] values;
+    // Values of folded slots (0 elsewhere); what values[] starts from.
+    private final double[] constants;
+    private final int[] foldedSlots;
+    private final DspGraphAnalysis analysis;
+
+    // Steps already run for doneSample.
+    private int doneSample = Integer.MIN_VALUE;
+    private int doneSteps;
+
+    // Block buffers, allocated on the first process() call.
+    private DspBlock block;
 
-    public DspGraphInstance(List<DspGraph.NodeDef> defs,
-                            List<DspNode> nodes,
-                            Map<String, Integer> indexById,
-                            int outputIndex) {
+    // Context for voices that take this instance from a pool (see reset()).
+    private final DspContext context = new DspContext(0L, 0.0, 0.0, 1);
+    // Pool to hand the instance back to, if it came from one.
+    DspInstancePool pool;
+
+    DspGraphInstance(List<DspGraph.NodeDef> defs,
+                     Map<String, Integer> indexById,
+                     DspNode[] nodes,
+                     int[][] deps,
+                     int[] order,
+                     int liveSteps,
+                     boolean[] folded,
+                     double[] constants,
+                     int outputIndex,
+                     DspGraphAnalysis analysis) {
         this.defs = defs;
-        this.nodes = nodes;
         this.indexById = indexById;
         this.outputIndex = outputIndex;
-        this.cache = new double[nodes.size()];
-        this.cacheSample = new int[nodes.size()];
-        for (int i = 0; i < cacheSample.length; i++) {
-            cacheSample[i] = Integer.MIN_VALUE;
+        this.analysis = analysis;
+
+        int foldedCount = 0;
+        for (boolean f : folded) {
+            if (f) foldedCount++;
+        }
+        this.steps = new DspNode[order.length - foldedCount];
+        this.stepSlot = new int[steps.length];
+        this.foldedSlots = new int[foldedCount];
+        this.stepOf = new int[nodes.length];
+        int live = 0;
+        int s = 0;
+        int f = 0;
+        for (int k = 0; k < order.length; k++) {
+            int i = order[k];
+            if (folded[i]) {
+                foldedSlots[f++] = i;
+                stepOf[i] = -1;
+                continue;
+            }
+            if (k < liveSteps) {
+                live++;
+            }
+            steps[s] = nodes[i];
+            stepSlot[s] = i;
+            stepOf[i] = s;
+            s++;
+        }
+        this.liveSteps = live;
+        this.constants = constants;
+        this.values = constants.clone();
+
+        boolean fb = false;
+        for (int k = 0; k < this.liveSteps && !fb; k++) {
+            for (int d : deps[stepSlot[k]]) {
+                if (stepOf[d] >= k) {
+                    fb = true;
+                    break;
+                }
+            }
+        }
+        this.feedback = fb;
+
+        boolean det = true;
+        for (int k = 0; k < this.liveSteps; k++) {
+            det &= steps[k].deterministic();
+        }
+        this.deterministic = det;
+    }
+
+    /**
+     * True if the output only depends on the context's frequencies, length and direction band (no node that
+     * reaches the output uses {@code ctx.random}), so one rendering can stand in for every such voice.
+     */
+    public boolean deterministic() {
+        return deterministic;
+    }
+
+    /** What the compiler found in the graph (shared by all instances of one compile). */
+    public DspGraphAnalysis analysis() {
+        return analysis;
+    }
+
+    /** This instance's own context, set up by {@link #reset}. */
+    public DspContext context() {
+        return context;
+    }
+
+    /**
+     * Puts every node back into its just-built state and sets up {@link #context()} for a new voice, so the
+     * output matches a freshly instantiated graph with {@code new DspContext(seed, ...)}.
+     */
+    public void reset(long seed, double startFreqHz, double endFreqHz, int totalSamples) {
+        for (DspNode n : steps) {
+            n.reset();
+        }
+        System.arraycopy(constants, 0, values, 0, values.length);
+        doneSample = Integer.MIN_VALUE;
+        doneSteps = 0;
+        context.reset(seed, startFreqHz, endFreqHz, totalSamples);
+    }
+
+    /**
+     * Hands the instance back to its {@link DspInstancePool} (no-op otherwise). The caller must not touch it
+     * afterwards.
+     */
+    public void release() {
+        DspInstancePool p = pool;
+        if (p != null) {
+            p.release(this);
         }
     }
 
     public double out(DspContext ctx) {
-        if (outputIndex < 0 || outputIndex >= nodes.size()) {
+        if (outputIndex < 0 || outputIndex >= stepOf.length) {
             return 0.0;
         }
-        return evalIndex(ctx, outputIndex);
+        run(ctx, liveSteps);
+        return values[outputIndex];
+    }
+
+    /**
+     * Renders {@code frames} output samples, for sample indices {@code ctx.sampleIndex} onward, into
+     * {@code out[offset..]}. Same result as calling {@link #out} per sample with {@code ctx.sampleIndex}
+     * counting up, except that nodes sharing {@code ctx.random} draw from it block by block rather than
+     * interleaved. Leaves {@code ctx.sampleIndex} unchanged.
+     */
+    public void process(DspContext ctx, double[] out, int offset, int frames) {
+        if (outputIndex < 0 || outputIndex >= stepOf.length) {
+            Arrays.fill(out, offset, offset + frames, 0.0);
+            return;
+        }
+        int base = ctx.sampleIndex;
+        if (feedback) {
+            for (int i = 0; i < frames; i++) {
+                ctx.sampleIndex = base + i;
+                out[offset + i] = out(ctx);
+            }
+            ctx.sampleIndex = base;
+            return;
+        }
+
+        DspBlock blk = block;
+        if (blk == null) {
+            blk = new DspBlock(values.length, CONTROL_SAMPLES);
+            // No step writes these.
+            for (int i : foldedSlots) {
+                Arrays.fill(blk.signal(i), constants[i]);
+            }
+            block = blk;
+        }
+        DspNode[] s = steps;
+        int[] slot = stepSlot;
+        double[] result = blk.signal(outputIndex);
+        for (int done = 0; done < frames; ) {
+            int n = Math.min(CONTROL_SAMPLES, frames - done);
+            ctx.sampleIndex = base + done;
+            for (int k = 0; k < liveSteps; k++) {
+                DspNode node = s[k];
+                node.control(ctx);
+                node.process(ctx, blk, blk.signal(slot[k]), n);
+            }
+            System.arraycopy(result, 0, out, offset + done, n);
+            done += n;
+        }
+        ctx.sampleIndex = base;
+        // values[] was not updated; don't let out()/evalById() reuse it for this sample.
+        doneSample = Integer.MIN_VALUE;
     }
 
     /**
@@ -50,70 +226,27 @@ public final class DspGraphInstance {
         if (idx == null) {
             return 0.0;
         }
-        return evalIndex(ctx, idx);
-    }
-
-    public double input(DspContext ctx, DspGraph.NodeDef def, String inputName) {
-        if (def == null || inputName == null) {
-            return 0.0;
-        }
-        String fromId = def.inputs.get(inputName);
-        if (fromId == null || fromId.isBlank()) {
-            return 0.0;
-        }
-        Integer idx = indexById.get(fromId);
-        if (idx == null) {
-            return 0.0;
-        }
-        return evalIndex(ctx, idx);
-    }
-
-    public Object param(DspGraph.NodeDef def, String key) {
-        return (def == null || key == null) ? null : def.params.get(key);
-    }
-
-    public String paramString(DspGraph.NodeDef def, String key, String fallback) {
-        Object v = param(def, key);
-        if (v == null) return fallback;
-        String s = String.valueOf(v);
-        return (s == null || s.isBlank()) ? fallback : s;
-    }
-
-    public double paramDouble(DspGraph.NodeDef def, String key, double fallback) {
-        Object v = param(def, key);
-        if (v instanceof Number n) {
-            return n.doubleValue();
-        }
-        try {
-            return (v == null) ? fallback : Double.parseDouble(String.valueOf(v));
-        } catch (Exception ignored) {
-            return fallback;
+        int k = stepOf[idx];
+        if (k >= 0) {
+            run(ctx, k + 1);
         }
+        return values[idx];
     }
 
-    public int paramInt(DspGraph.NodeDef def, String key, int fallback) {
-        Object v = param(def, key);
-        if (v instanceof Number n) {
-            return n.intValue();
-        }
-        try {
-            return (v == null) ? fallback : Integer.parseInt(String.valueOf(v));
-        } catch (Exception ignored) {
-            return fallback;
+    private void run(DspContext ctx, int upTo) {
+        if (doneSample != ctx.sampleIndex) {
+            doneSample = ctx.sampleIndex;
+            doneSteps = 0;
         }
-    }
-
-    private double evalIndex(DspContext ctx, int index) {
-        if (index < 0 || index >= nodes.size()) {
-            return 0.0;
+        DspNode[] s = steps;
+        int[] slot = stepSlot;
+        double[] v = values;
+        for (int k = doneSteps; k < upTo; k++) {
+            v[slot[k]] = s[k].next(ctx, v);
         }
-        if (cacheSample[index] == ctx.sampleIndex) {
-            return cache[index];
+        if (upTo > doneSteps) {
+            doneSteps = upTo;
         }
-        cacheSample[index] = ctx.sampleIndex;
-        double v = nodes.get(index).next(ctx, this);
-        cache[index] = v;
-        return v;
     }
 
     public DspGraph.NodeDef defById(String id) {
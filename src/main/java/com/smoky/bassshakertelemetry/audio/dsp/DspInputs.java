@@ -0,0 +1,57 @@
+package com.smoky.bassshakertelemetry.audio.dsp;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Input wiring handed to a node while its graph is compiled.
+ *
+ * <p>A node resolves each named input once, in its constructor, to a slot of the value array it receives in
+ * {@link DspNode#next}. Unwired inputs and edges to unknown nodes resolve to a slot that always reads 0.
+ * The slots a node resolves, in that order, are its dependencies: they are evaluated before it each sample.
+ */
+public final class DspInputs {
+    private final DspGraph.NodeDef def;
+    private final Map<String, Integer> indexById;
+    private final int zeroSlot;
+
+    private int[] deps = new int[2];
+    private int depCount;
+
+    DspInputs(DspGraph.NodeDef def, Map<String, Integer> indexById, int zeroSlot) {
+        this.def = def;
+        this.indexById = indexById;
+        this.zeroSlot = zeroSlot;
+    }
+
+    /**
+     * Value slot of the node wired to {@code inputName}.
+     */
+    public int slot(String inputName) {
+        String fromId = (def == null || inputName == null) ? null : def.inputs.get(inputName);
+        if (fromId == null || fromId.isBlank()) {
+            return zeroSlot;
+        }
+        Integer idx = indexById.get(fromId);
+        if (idx == null) {
+            return zeroSlot;
+        }
+        if (depCount == deps.length) {
+            deps = Arrays.copyOf(deps, depCount * 2);
+        }
+        deps[depCount++] = idx;
+        return idx;
+    }
+
+    /**
+     * True if the definition names a source for {@code inputName} (even one that does not exist).
+     */
+    public boolean isWired(String inputName) {
+        String fromId = (def == null || inputName == null) ? null : def.inputs.get(inputName);
+        return fromId != null && !fromId.isBlank();
+    }
+
+    int[] dependencies() {
+        return Arrays.copyOf(deps, depCount);
+    }
+}
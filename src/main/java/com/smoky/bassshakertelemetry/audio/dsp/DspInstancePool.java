@@ -0,0 +1,98 @@
+package com.smoky.bassshakertelemetry.audio.dsp;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reusable {@link DspGraphInstance}s for one graph (one per instrument).
+ *
+ * <p>Trigger threads {@link #acquire} a reset instance instead of compiling the graph again; the render
+ * thread hands it back through {@link DspGraphInstance#release} when the voice ends. Slots are claimed with
+ * a single atomic swap each, so neither side blocks or allocates once the pool is warm. A retired pool (its
+ * instrument was replaced) drops instances handed back to it.
+ */
+public final class DspInstancePool {
+    /** Instances built ahead of the first trigger. */
+    public static final int PREWARM = 4;
+    private static final int CAPACITY = 16;
+
+    private static final DspNodeFactory FACTORY = new DspNodeFactory();
+
+    private final DspGraph graph;
+    private final AtomicReferenceArray<DspGraphInstance> slots = new AtomicReferenceArray<>(CAPACITY);
+    private final boolean deterministic;
+    private final DspGraphAnalysis analysis;
+    private volatile boolean retired;
+
+    public DspInstancePool(DspGraph graph) {
+        this.graph = graph;
+        // The first instance doubles as the answer to deterministic().
+        DspGraphInstance first = create();
+        this.deterministic = first.deterministic();
+        this.analysis = first.analysis();
+        slots.set(0, first);
+    }
+
+    /** Compiler report for the pooled graph; see {@link DspGraphInstance#analysis()}. */
+    public DspGraphAnalysis analysis() {
+        return analysis;
+    }
+
+    /** See {@link DspGraphInstance#deterministic()}. */
+    public boolean deterministic() {
+        return deterministic;
+    }
+
+    /**
+     * An instance with fresh node state, its {@link DspGraphInstance#context()} reset to the given voice.
+     * Builds a new one when the pool is empty.
+     */
+    public DspGraphInstance acquire(long seed, double startFreqHz, double endFreqHz, int totalSamples) {
+        DspGraphInstance g = null;
+        for (int i = 0; i < CAPACITY && g == null; i++) {
+            if (slots.get(i) != null) {
+                g = slots.getAndSet(i, null);
+            }
+        }
+        if (g == null) {
+            g = create();
+        }
+        g.reset(seed, startFreqHz, endFreqHz, totalSamples);
+        return g;
+    }
+
+    /** Fills the pool up to {@code count} idle instances. */
+    public void prewarm(int count) {
+        int n = Math.min(count, CAPACITY);
+        for (int i = 0; i < n && !retired; i++) {
+            if (slots.get(i) == null) {
+                slots.compareAndSet(i, null, create());
+            }
+        }
+    }
+
+    /** Stops pooling: idle instances are dropped now, in-flight ones when they are released. */
+    public void retire() {
+        retired = true;
+        for (int i = 0; i < CAPACITY; i++) {
+            slots.set(i, null);
+        }
+    }
+
+    void release(DspGraphInstance g) {
+        if (retired) {
+            return;
+        }
+        for (int i = 0; i < CAPACITY; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, g)) {
+                return;
+            }
+        }
+        // Full: let it go.
+    }
+
+    private DspGraphInstance create() {
+        DspGraphInstance g = graph.instantiate(FACTORY);
+        g.pool = this;
+        return g;
+    }
+}
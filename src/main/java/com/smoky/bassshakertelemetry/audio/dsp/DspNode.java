@@ -1,11 +1,69 @@
 package com.smoky.bassshakertelemetry.audio.dsp;
 
 /**
- * A stateful DSP node evaluated once per sample.
+ * A stateful DSP node.
+ *
+ * <p>Nodes read their inputs from the slots they resolved through {@link DspInputs} at construction, and read
+ * params once into fields; neither {@code next} nor {@code process} should do lookups or parsing.
  */
 public interface DspNode {
     /**
-     * Compute the node output for the current sample.
+     * Compute the node output for the current sample. {@code values} holds this sample's outputs of the
+     * node's inputs.
      */
-    double next(DspContext ctx, DspGraphInstance g);
+    double next(DspContext ctx, double[] values);
+
+    /**
+     * Back to the state the node had right after construction (the graph instance is being reused for a new
+     * voice). Nodes that keep state between samples must override this.
+     */
+    default void reset() {
+    }
+
+    /**
+     * False if the output depends on {@code ctx.random}, i.e. differs between voices with the same
+     * frequencies, length and direction band.
+     */
+    default boolean deterministic() {
+        return true;
+    }
+
+    /**
+     * For constant folding: the value this node would output on every sample if each input held the constant
+     * in {@code values} (indexed like {@link #next}), or NaN if the output would still vary (time, state or
+     * randomness). Called at compile time, before the node has run.
+     */
+    default double constantOutput(double[] values) {
+        return Double.NaN;
+    }
+
+    /**
+     * Rough per-sample cost in units of one biquad filter sample (see {@link DspGraphAnalysis#cost}).
+     */
+    default double cost() {
+        return 1.0;
+    }
+
+    /**
+     * Control-rate update, called at the start of every {@link #process} block (at most
+     * {@link DspGraphInstance#CONTROL_SAMPLES} apart). For state that may change while a voice plays but not
+     * per sample.
+     */
+    default void control(DspContext ctx) {
+    }
+
+    /**
+     * Block form of {@link #next}: writes {@code out[0..frames)} for samples {@code ctx.sampleIndex} onward.
+     * Must leave {@code ctx.sampleIndex} unchanged.
+     *
+     * <p>The default calls {@link #next} once per sample, so per-sample nodes work unchanged.
+     */
+    default void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        int base = ctx.sampleIndex;
+        for (int i = 0; i < frames; i++) {
+            ctx.sampleIndex = base + i;
+            out[i] = next(ctx, block.sampleValues(i));
+        }
+        ctx.sampleIndex = base;
+    }
 }
@@ -6,21 +6,47 @@ import com.smoky.bassshakertelemetry.audio.dsp.nodes.*;
  * Creates runtime nodes from graph definitions.
  */
 public final class DspNodeFactory {
-    public DspNode create(DspGraph.NodeDef def) {
+    /**
+     * Canonical node kind for a definition's {@code type} (aliases resolved), or null if no node implements it.
+     */
+    public static String kind(String type) {
+        String t = (type == null) ? "" : type.trim().toLowerCase(java.util.Locale.ROOT);
+        return switch (t) {
+            case "harmonic", "harmonic_generator", "osc" -> "harmonic";
+            case "noise", "noise_generator" -> "noise";
+            case "envelope", "adsr" -> "envelope";
+            case "filter", "lpf", "hpf", "bpf", "notch" -> "filter";
+            case "randomizer", "random" -> "randomizer";
+            case "compressor", "limiter", "compressor_limiter" -> "compressor";
+            case "mixer", "mix" -> "mixer";
+            case "direction", "direction_encoder", "dir" -> "direction";
+            case "constant", "const" -> "constant";
+            default -> null;
+        };
+    }
+
+    /**
+     * @param inputs resolves the node's input names to value slots (see {@link DspInputs})
+     */
+    public DspNode create(DspGraph.NodeDef def, DspInputs inputs) {
         if (def == null) {
             return new ConstantNode(0.0);
         }
-        String t = (def.type == null) ? "" : def.type.trim().toLowerCase(java.util.Locale.ROOT);
-        return switch (t) {
-            case "harmonic", "harmonic_generator", "osc" -> new HarmonicGeneratorNode(def);
-            case "noise", "noise_generator" -> new NoiseNode(def);
-            case "envelope", "adsr" -> new EnvelopeNode(def);
-            case "filter", "lpf", "hpf", "bpf", "notch" -> new FilterNode(def);
-            case "randomizer", "random" -> new RandomizerNode(def);
-            case "compressor", "limiter", "compressor_limiter" -> new CompressorLimiterNode(def);
-            case "mixer", "mix" -> new MixerNode(def);
-            case "direction", "direction_encoder", "dir" -> new DirectionEncoderNode(def);
-            default -> new ConstantNode(0.0);
+        String k = kind(def.type);
+        if (k == null) {
+            // Unknown type: silent (reported by DspGraphAnalysis).
+            return new ConstantNode(0.0);
+        }
+        return switch (k) {
+            case "harmonic" -> new HarmonicGeneratorNode(def, inputs);
+            case "noise" -> new NoiseNode(def);
+            case "envelope" -> new EnvelopeNode(def, inputs);
+            case "filter" -> new FilterNode(def, inputs);
+            case "randomizer" -> new RandomizerNode(def);
+            case "compressor" -> new CompressorLimiterNode(def, inputs);
+            case "mixer" -> new MixerNode(def, inputs);
+            case "direction" -> new DirectionEncoderNode(def, inputs);
+            default -> new ConstantNode(def.paramDouble("value", 0.0));
         };
     }
 }
@@ -0,0 +1,47 @@
+package com.smoky.bassshakertelemetry.audio.dsp;
+
+/**
+ * Small non-synchronized SplitMix64 generator for audio-rate noise.
+ *
+ * <p>Unlike {@link java.util.Random} there is no CAS per draw, so each noise source (and each voice) owns
+ * one instance. {@link #split()} derives an independent stream, which keeps renders reproducible from a
+ * single seed.
+ *
+ * <p>Not thread-safe: one owner thread per instance.
+ */
+public final class FastRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    public FastRandom(long seed) {
+        this.state = seed;
+    }
+
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Uniform in {@code [0, 1)}. */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /** Uniform in {@code [-1, 1)} (white noise sample). */
+    public double nextBipolar() {
+        return (nextDouble() * 2.0) - 1.0;
+    }
+
+    /** New generator seeded from this stream; the two sequences are statistically independent. */
+    public FastRandom split() {
+        return new FastRandom(nextLong());
+    }
+}
@@ -1,8 +1,9 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInputs;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 
 /**
@@ -15,38 +16,69 @@ import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
  * - releaseMs
  */
 public final class CompressorLimiterNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private final int in;
 
     private double env;
 
-    public CompressorLimiterNode(DspGraph.NodeDef def) {
-        this.def = def;
+    // Params are immutable per NodeDef; coefficients are computed once instead of per sample.
+    private final double thr;
+    private final double invRatio;
+    private final double attackCoeff;
+    private final double releaseCoeff;
+
+    public CompressorLimiterNode(DspGraph.NodeDef def, DspInputs inputs) {
+        this.in = inputs.slot("in");
         this.env = 0.0;
+
+        this.thr = clamp(def.paramDouble("threshold", 0.75), 0.05, 1.0);
+        this.invRatio = 1.0 / Math.max(1.0, def.paramDouble("ratio", 4.0));
+        int aMs = Math.max(0, def.paramInt("attackMs", 8));
+        int rMs = Math.max(1, def.paramInt("releaseMs", 70));
+        this.attackCoeff = 1.0 - Math.exp(-1.0 / Math.max(1.0, (aMs / 1000.0) * DspContext.SAMPLE_RATE));
+        this.releaseCoeff = 1.0 - Math.exp(-1.0 / Math.max(1.0, (rMs / 1000.0) * DspContext.SAMPLE_RATE));
+    }
+
+    @Override
+    public void reset() {
+        env = 0.0;
+    }
+
+    @Override
+    public double constantOutput(double[] values) {
+        // The envelope follower never rises, so zero passes through unchanged.
+        return (values[in] == 0.0) ? 0.0 : Double.NaN;
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        double in = g.input(ctx, def, "in");
+    public double cost() {
+        return 8.0;
+    }
 
-        double thr = clamp(g.paramDouble(def, "threshold", 0.75), 0.05, 1.0);
-        double ratio = Math.max(1.0, g.paramDouble(def, "ratio", 4.0));
-        int aMs = Math.max(0, g.paramInt(def, "attackMs", 8));
-        int rMs = Math.max(1, g.paramInt(def, "releaseMs", 70));
+    @Override
+    public double next(DspContext ctx, double[] values) {
+        return step(values[in]);
+    }
 
-        double a = 1.0 - Math.exp(-1.0 / Math.max(1.0, (aMs / 1000.0) * DspContext.SAMPLE_RATE));
-        double r = 1.0 - Math.exp(-1.0 / Math.max(1.0, (rMs / 1000.0) * DspContext.SAMPLE_RATE));
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        double[] src = block.signal(in);
+        for (int i = 0; i < frames; i++) {
+            out[i] = step(src[i]);
+        }
+    }
 
+    private double step(double in) {
         double x = Math.abs(in);
         if (x > env) {
-            env += (x - env) * a;
+            env += (x - env) * attackCoeff;
         } else {
-            env += (x - env) * r;
+            env += (x - env) * releaseCoeff;
         }
 
         double gain = 1.0;
         if (env > thr) {
             double over = env / thr;
-            double compressed = Math.pow(over, (1.0 / ratio));
+            double compressed = Math.pow(over, invRatio);
             gain = (thr * compressed) / env;
         }
 
@@ -1,9 +1,11 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 
+import java.util.Arrays;
+
 public final class ConstantNode implements DspNode {
     private final double value;
 
@@ -12,7 +14,22 @@ public final class ConstantNode implements DspNode {
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
+    public double next(DspContext ctx, double[] values) {
+        return value;
+    }
+
+    @Override
+    public double constantOutput(double[] values) {
         return value;
     }
+
+    @Override
+    public double cost() {
+        return 0.2;
+    }
+
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        Arrays.fill(out, 0, frames, value);
+    }
 }
@@ -1,8 +1,9 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInputs;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 import com.smoky.bassshakertelemetry.config.BstVibrationProfiles;
 
@@ -24,48 +25,111 @@ import com.smoky.bassshakertelemetry.config.BstVibrationProfiles;
  * - mix (0..1): 0 = passthrough, 1 = fully delayed
  */
 public final class DirectionEncoderNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private final int in;
+
+    // Params, read once.
+    private final boolean useProfile;
+    // Null when the band follows the event ("auto").
+    private final String fixedBand;
+    private final int fixedTimeOffsetMs;
+    private final double fixedIntensityMul;
+    private final double mix;
+
+    // Last direction hint seen and its normalized band name.
+    private String lastHint;
+    private String hintBand = "center";
+
+    // Resolved band encoding.
+    private int timeOffsetMs;
+    private double intensityMul = 1.0;
 
     // Ring buffer delay line (supports small delays; sized defensively).
     private final double[] delay;
     private int write;
 
-    public DirectionEncoderNode(DspGraph.NodeDef def) {
-        this.def = def;
+    public DirectionEncoderNode(DspGraph.NodeDef def, DspInputs inputs) {
+        this.in = inputs.slot("in");
+        this.useProfile = def.paramInt("useProfileEncoding", 1) != 0;
+        String bandName = def.paramString("band", "auto").toLowerCase(java.util.Locale.ROOT);
+        this.fixedBand = (bandName.isBlank() || bandName.equals("auto")) ? null : bandName;
+        this.fixedTimeOffsetMs = (int) Math.round(def.paramDouble("timeOffsetMs", 0.0));
+        this.fixedIntensityMul = def.paramDouble("intensityMul", 1.0);
+        this.mix = clamp(def.paramDouble("mix", 1.0), 0.0, 1.0);
         // 12ms @ 48k = 576 samples. Give a little extra headroom.
         this.delay = new double[768];
         this.write = 0;
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        double in = g.input(ctx, def, "in");
+    public void reset() {
+        java.util.Arrays.fill(delay, 0.0);
+        write = 0;
+        lastHint = null;
+        hintBand = "center";
+        timeOffsetMs = 0;
+        intensityMul = 1.0;
+    }
+
+    @Override
+    public double constantOutput(double[] values) {
+        // The delay line only ever holds zeros.
+        return (values[in] == 0.0) ? 0.0 : Double.NaN;
+    }
+
+    @Override
+    public double cost() {
+        return 2.5;
+    }
+
+    @Override
+    public double next(DspContext ctx, double[] values) {
+        resolve(ctx);
+        return step(values[in]);
+    }
+
+    @Override
+    public void control(DspContext ctx) {
+        resolve(ctx);
+    }
 
-        boolean useProfile = g.paramInt(def, "useProfileEncoding", 1) != 0;
-        String bandName = g.paramString(def, "band", "auto").toLowerCase(java.util.Locale.ROOT);
-        if (bandName.isBlank() || bandName.equals("auto")) {
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        double[] src = block.signal(in);
+        for (int i = 0; i < frames; i++) {
+            out[i] = step(src[i]);
+        }
+    }
+
+    // Band delay/intensity for the current event and profile store (per sample in next(), at control rate in blocks).
+    private void resolve(DspContext ctx) {
+        String bandName = fixedBand;
+        if (bandName == null) {
             String hint = (ctx == null) ? null : ctx.directionBand;
-            bandName = (hint == null || hint.isBlank()) ? "center" : hint.trim().toLowerCase(java.util.Locale.ROOT);
+            if (hint != lastHint) {
+                lastHint = hint;
+                hintBand = (hint == null || hint.isBlank()) ? "center" : hint.trim().toLowerCase(java.util.Locale.ROOT);
+            }
+            bandName = hintBand;
         }
 
-        int timeOffsetMs;
-        double intensityMul;
+        int t;
+        double m;
         if (useProfile) {
             BstVibrationProfiles.Store store = BstVibrationProfiles.get();
             BstVibrationProfiles.Encoding enc = (store == null) ? null : store.encoding;
             BstVibrationProfiles.Encoding.Band b = band(enc, bandName);
-            timeOffsetMs = (b == null) ? 0 : b.timeOffsetMs;
-            intensityMul = (b == null) ? 1.0 : b.intensityMul;
+            t = (b == null) ? 0 : b.timeOffsetMs;
+            m = (b == null) ? 1.0 : b.intensityMul;
         } else {
-            timeOffsetMs = (int) Math.round(g.paramDouble(def, "timeOffsetMs", 0.0));
-            intensityMul = g.paramDouble(def, "intensityMul", 1.0);
+            t = fixedTimeOffsetMs;
+            m = fixedIntensityMul;
         }
 
-        timeOffsetMs = clampInt(timeOffsetMs, 0, 12);
-        intensityMul = clamp(intensityMul, 0.0, 2.0);
-
-        double mix = clamp(g.paramDouble(def, "mix", 1.0), 0.0, 1.0);
+        timeOffsetMs = clampInt(t, 0, 12);
+        intensityMul = clamp(m, 0.0, 2.0);
+    }
 
+    private double step(double in) {
         double delayed = readDelay(timeOffsetMs);
 
         // Write after read to avoid a 1-sample off-by-one for 0ms.
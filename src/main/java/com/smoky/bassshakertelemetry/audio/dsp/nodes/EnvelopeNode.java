@@ -1,8 +1,9 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInputs;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 
 /**
@@ -12,31 +13,45 @@ import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
  * - attackMs, decayMs, sustainLevel01, releaseMs (ADSR-style)
  */
 public final class EnvelopeNode implements DspNode {
-    private final DspGraph.NodeDef def;
-
-    public EnvelopeNode(DspGraph.NodeDef def) {
-        this.def = def;
+    private final int in;
+
+    // Segment lengths in samples.
+    private final int a;
+    private final int d;
+    private final int r;
+    private final double sustain;
+
+    public EnvelopeNode(DspGraph.NodeDef def, DspInputs inputs) {
+        this.in = inputs.slot("in");
+        this.a = Math.max(0, msToSamples(def.paramInt("attackMs", 6)));
+        this.d = Math.max(0, msToSamples(def.paramInt("decayMs", 30)));
+        this.r = Math.max(0, msToSamples(def.paramInt("releaseMs", 60)));
+        this.sustain = clamp01(def.paramDouble("sustainLevel01", 0.35));
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        double in = g.input(ctx, def, "in");
-        double env = adsr(ctx,
-                g.paramInt(def, "attackMs", 6),
-                g.paramInt(def, "decayMs", 30),
-                g.paramDouble(def, "sustainLevel01", 0.35),
-                g.paramInt(def, "releaseMs", 60)
-        );
-        return in * env;
+    public double constantOutput(double[] values) {
+        // Scales its input, so zero stays zero.
+        return (values[in] == 0.0) ? 0.0 : Double.NaN;
     }
 
-    private static double adsr(DspContext ctx, int attackMs, int decayMs, double sustain, int releaseMs) {
-        int a = Math.max(0, msToSamples(attackMs));
-        int d = Math.max(0, msToSamples(decayMs));
-        int r = Math.max(0, msToSamples(releaseMs));
+    @Override
+    public double next(DspContext ctx, double[] values) {
+        return values[in] * adsr(ctx.sampleIndex, Math.max(1, ctx.totalSamples));
+    }
 
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        double[] src = block.signal(in);
+        int base = ctx.sampleIndex;
         int total = Math.max(1, ctx.totalSamples);
-        int i = Math.max(0, Math.min(ctx.sampleIndex, total - 1));
+        for (int i = 0; i < frames; i++) {
+            out[i] = src[i] * adsr(base + i, total);
+        }
+    }
+
+    private double adsr(int sampleIndex, int total) {
+        int i = Math.max(0, Math.min(sampleIndex, total - 1));
 
         // Keep release at the end.
         int sustainEnd = Math.max(0, total - r);
@@ -49,11 +64,11 @@ public final class EnvelopeNode implements DspNode {
         int afterA = i - a;
         if (d > 0 && afterA >= 0 && afterA < d) {
             double p = afterA / (double) d;
-            return lerp(1.0, clamp01(sustain), smooth(p));
+            return lerp(1.0, sustain, smooth(p));
         }
 
         if (i < sustainEnd) {
-            return clamp01(sustain);
+            return sustain;
         }
 
         if (r <= 0) {
@@ -61,7 +76,7 @@ public final class EnvelopeNode implements DspNode {
         }
 
         double pr = (i - sustainEnd) / (double) r;
-        return clamp01(sustain) * (1.0 - smooth(clamp01(pr)));
+        return sustain * (1.0 - smooth(clamp01(pr)));
     }
 
     private static int msToSamples(int ms) {
@@ -1,8 +1,9 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInputs;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 
 /**
@@ -14,40 +15,37 @@ import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
  * - q
  */
 public final class FilterNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private final int in;
 
     // State
     private double x1, x2, y1, y2;
 
-    // Coeffs
+    // Coeffs (params are immutable, so computed once)
     private double b0, b1, b2, a1, a2;
-    private int lastCutoff = Integer.MIN_VALUE;
-    private String lastMode = "";
-    private int lastQx1000 = Integer.MIN_VALUE;
 
-    public FilterNode(DspGraph.NodeDef def) {
-        this.def = def;
+    public FilterNode(DspGraph.NodeDef def, DspInputs inputs) {
+        this.in = inputs.slot("in");
+
+        String mode = def.paramString("mode", def.type).toLowerCase(java.util.Locale.ROOT);
+        int cutoffHz = clampInt((int) Math.round(def.paramDouble("cutoffHz", 65.0)), 5, 220);
+        int qx = (int) Math.round(clamp(def.paramDouble("q", 0.707), 0.15, 5.0) * 1000.0);
+        updateCoeffs(mode, cutoffHz, qx / 1000.0);
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        double in = g.input(ctx, def, "in");
-
-        String mode = g.paramString(def, "mode", def.type).toLowerCase(java.util.Locale.ROOT);
-        int cutoffHz = (int) Math.round(g.paramDouble(def, "cutoffHz", 65.0));
-        double q = g.paramDouble(def, "q", 0.707);
-
-        cutoffHz = clampInt(cutoffHz, 5, 220);
-        int qx = (int) Math.round(clamp(q, 0.15, 5.0) * 1000.0);
-
-        if (cutoffHz != lastCutoff || qx != lastQx1000 || !mode.equals(lastMode)) {
-            lastCutoff = cutoffHz;
-            lastQx1000 = qx;
-            lastMode = mode;
-            updateCoeffs(mode, cutoffHz, qx / 1000.0);
-            // Reset a little when retuning to keep things stable.
-            x1 = x2 = y1 = y2 = 0.0;
-        }
+    public void reset() {
+        x1 = x2 = y1 = y2 = 0.0;
+    }
+
+    @Override
+    public double constantOutput(double[] values) {
+        // Starts from zero state, so zero input stays zero.
+        return (values[in] == 0.0) ? 0.0 : Double.NaN;
+    }
+
+    @Override
+    public double next(DspContext ctx, double[] values) {
+        double in = values[this.in];
 
         double y = (b0 * in) + (b1 * x1) + (b2 * x2) - (a1 * y1) - (a2 * y2);
         x2 = x1;
@@ -57,6 +55,26 @@ public final class FilterNode implements DspNode {
         return y;
     }
 
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        double[] src = block.signal(in);
+        // State in locals for the block.
+        double sx1 = x1, sx2 = x2, sy1 = y1, sy2 = y2;
+        for (int i = 0; i < frames; i++) {
+            double x = src[i];
+            double y = (b0 * x) + (b1 * sx1) + (b2 * sx2) - (a1 * sy1) - (a2 * sy2);
+            sx2 = sx1;
+            sx1 = x;
+            sy2 = sy1;
+            sy1 = y;
+            out[i] = y;
+        }
+        x1 = sx1;
+        x2 = sx2;
+        y1 = sy1;
+        y2 = sy2;
+    }
+
     private void updateCoeffs(String mode, double cutoffHz, double q) {
         double w0 = (2.0 * Math.PI * cutoffHz) / DspContext.SAMPLE_RATE;
         double cos = Math.cos(w0);
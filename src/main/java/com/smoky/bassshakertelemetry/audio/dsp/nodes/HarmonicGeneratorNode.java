@@ -1,48 +1,103 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInputs;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
+import com.smoky.bassshakertelemetry.audio.dsp.SineTable;
 
 /**
  * Harmonic generator (additive sine).
+ *
+ * <p>The fundamental comes from {@link SineTable}; higher harmonics use the Chebyshev recurrence
+ * sin((h+1)&theta;) = 2cos&theta;&middot;sin(h&theta;) - sin((h-1)&theta;), so the cost per harmonic is one multiply-add.
+ * Harmonics at or above Nyquist are skipped.
  */
 public final class HarmonicGeneratorNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private static final double NYQUIST_HZ = DspContext.SAMPLE_RATE * 0.5;
+
+    private final int fm;
+
+    // Params are immutable per NodeDef, so read them once.
+    private final double fmDepth;
+    private final double baseAmp;
+    private final int harmonics;
+    private final double rolloff;
+    private final boolean hasFm;
+
+    // Phase in cycles (0..1).
     private double phase;
 
-    public HarmonicGeneratorNode(DspGraph.NodeDef def) {
-        this.def = def;
+    public HarmonicGeneratorNode(DspGraph.NodeDef def, DspInputs inputs) {
+        this.fmDepth = def.paramDouble("fmDepthHz", 0.0);
+        this.baseAmp = def.paramDouble("amp", 1.0);
+        this.harmonics = Math.max(1, def.paramInt("harmonics", 3));
+        this.rolloff = def.paramDouble("rolloff", 0.45);
+        this.hasFm = inputs.isWired("fm");
+        this.fm = inputs.slot("fm");
         this.phase = 0.0;
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
+    public void reset() {
+        phase = 0.0;
+    }
+
+    @Override
+    public double cost() {
+        return 10.0 + (2.0 * (harmonics - 1)) + (hasFm ? 1.0 : 0.0);
+    }
+
+    @Override
+    public double next(DspContext ctx, double[] values) {
         double freqHz = ctx.frequencyHz();
         // Optional frequency modulation input.
-        double fm = g.input(ctx, def, "fm");
-        double fmDepth = g.paramDouble(def, "fmDepthHz", 0.0);
-        freqHz = Math.max(0.0, freqHz + (fm * fmDepth));
-
-        double baseAmp = g.paramDouble(def, "amp", 1.0);
+        if (hasFm) {
+            freqHz = Math.max(0.0, freqHz + (values[fm] * fmDepth));
+        }
+        return step(freqHz);
+    }
 
-        int harmonics = Math.max(1, g.paramInt(def, "harmonics", 3));
-        double rolloff = g.paramDouble(def, "rolloff", 0.45);
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        int base = ctx.sampleIndex;
+        if (hasFm) {
+            double[] mod = block.signal(fm);
+            for (int i = 0; i < frames; i++) {
+                out[i] = step(Math.max(0.0, ctx.frequencyHz(base + i) + (mod[i] * fmDepth)));
+            }
+        } else {
+            for (int i = 0; i < frames; i++) {
+                out[i] = step(ctx.frequencyHz(base + i));
+            }
+        }
+    }
 
-        double step = (2.0 * Math.PI * freqHz) / DspContext.SAMPLE_RATE;
-        double sum = 0.0;
-        double amp = 1.0;
-        for (int h = 1; h <= harmonics; h++) {
-            sum += Math.sin(phase * h) * amp;
-            amp *= rolloff;
+    private double step(double freqHz) {
+        int count = harmonics;
+        if (freqHz > 0.0) {
+            count = Math.max(1, Math.min(count, (int) (NYQUIST_HZ / freqHz)));
         }
 
-        phase += step;
-        if (phase > (2.0 * Math.PI)) {
-            phase -= (2.0 * Math.PI);
+        double s = SineTable.sinCycles(phase);
+        double sum = s;
+        if (count > 1) {
+            double twoCos = 2.0 * SineTable.cosCycles(phase);
+            double prev = 0.0;
+            double cur = s;
+            double amp = 1.0;
+            for (int h = 2; h <= count; h++) {
+                double nextSin = (twoCos * cur) - prev;
+                prev = cur;
+                cur = nextSin;
+                amp *= rolloff;
+                sum += cur * amp;
+            }
         }
 
+        phase = SineTable.wrap(phase + (freqHz / DspContext.SAMPLE_RATE));
+
         return sum * baseAmp;
     }
 }
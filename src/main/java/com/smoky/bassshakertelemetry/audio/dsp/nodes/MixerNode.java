@@ -1,8 +1,9 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInputs;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 
 /**
@@ -15,24 +16,49 @@ import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
  * - gainA, gainB
  */
 public final class MixerNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private final int a;
+    private final int b;
+    private final double ga;
+    private final double gb;
+    private final boolean mul;
 
-    public MixerNode(DspGraph.NodeDef def) {
-        this.def = def;
+    public MixerNode(DspGraph.NodeDef def, DspInputs inputs) {
+        this.a = inputs.slot("a");
+        this.b = inputs.slot("b");
+        this.ga = def.paramDouble("gainA", 1.0);
+        this.gb = def.paramDouble("gainB", 1.0);
+        this.mul = "mul".equals(def.paramString("mode", "mix").toLowerCase(java.util.Locale.ROOT));
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        double a = g.input(ctx, def, "a");
-        double b = g.input(ctx, def, "b");
+    public double next(DspContext ctx, double[] values) {
+        double va = values[a] * ga;
+        double vb = values[b] * gb;
+        return mul ? (va * vb) : (va + vb);
+    }
 
-        double ga = g.paramDouble(def, "gainA", 1.0);
-        double gb = g.paramDouble(def, "gainB", 1.0);
+    @Override
+    public double constantOutput(double[] values) {
+        return next(null, values);
+    }
 
-        String mode = g.paramString(def, "mode", "mix").toLowerCase(java.util.Locale.ROOT);
-        if ("mul".equals(mode)) {
-            return (a * ga) * (b * gb);
+    @Override
+    public double cost() {
+        return 0.2;
+    }
+
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        double[] sa = block.signal(a);
+        double[] sb = block.signal(b);
+        if (mul) {
+            for (int i = 0; i < frames; i++) {
+                out[i] = (sa[i] * ga) * (sb[i] * gb);
+            }
+        } else {
+            for (int i = 0; i < frames; i++) {
+                out[i] = (sa[i] * ga) + (sb[i] * gb);
+            }
         }
-        return (a * ga) + (b * gb);
     }
 }
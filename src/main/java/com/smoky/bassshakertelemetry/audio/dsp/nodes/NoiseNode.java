@@ -1,15 +1,17 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
+import com.smoky.bassshakertelemetry.audio.dsp.FastRandom;
 
 /**
  * Noise generator with basic color shaping.
  */
 public final class NoiseNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private final String color;
+    private final double amp;
 
     // Brown
     private double brown;
@@ -21,39 +23,95 @@ public final class NoiseNode implements DspNode {
     private double lastWhite;
 
     public NoiseNode(DspGraph.NodeDef def) {
-        this.def = def;
+        // Params are immutable per NodeDef, so read them once.
+        this.color = def.paramString("color", "white").toLowerCase(java.util.Locale.ROOT);
+        this.amp = def.paramDouble("amp", 1.0);
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        String color = g.paramString(def, "color", "white").toLowerCase(java.util.Locale.ROOT);
-        double amp = g.paramDouble(def, "amp", 1.0);
+    public void reset() {
+        brown = 0.0;
+        p0 = p1 = p2 = 0.0;
+        lastWhite = 0.0;
+    }
+
+    @Override
+    public boolean deterministic() {
+        return false;
+    }
+
+    @Override
+    public double cost() {
+        return switch (color) {
+            case "brown", "pink" -> 3.0;
+            case "blue" -> 2.0;
+            default -> 1.5;
+        };
+    }
 
-        double white = (ctx.random.nextDouble() * 2.0) - 1.0;
+    @Override
+    public double next(DspContext ctx, double[] values) {
+        double white = ctx.random.nextBipolar();
         double out;
 
+        switch (color) {
+            case "brown" -> out = brown(white);
+            case "pink" -> out = pink(white);
+            case "blue" -> out = blue(white);
+            default -> out = white;
+        }
+
+        return out * amp;
+    }
+
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        FastRandom rnd = ctx.random;
+        double a = amp;
+        // Color is fixed, so pick the loop once per block.
         switch (color) {
             case "brown" -> {
-                // Integrate and clamp.
-                brown += white * 0.02;
-                brown = clamp(brown, -1.0, 1.0);
-                out = brown;
+                for (int i = 0; i < frames; i++) {
+                    out[i] = brown(rnd.nextBipolar()) * a;
+                }
             }
             case "pink" -> {
-                // Cheap-ish IIR approximation.
-                p0 = (0.99765 * p0) + (white * 0.0990460);
-                p1 = (0.96300 * p1) + (white * 0.2965164);
-                p2 = (0.57000 * p2) + (white * 1.0526913);
-                out = (p0 + p1 + p2 + (white * 0.1848)) * 0.05;
+                for (int i = 0; i < frames; i++) {
+                    out[i] = pink(rnd.nextBipolar()) * a;
+                }
             }
             case "blue" -> {
-                out = white - lastWhite;
-                lastWhite = white;
+                for (int i = 0; i < frames; i++) {
+                    out[i] = blue(rnd.nextBipolar()) * a;
+                }
+            }
+            default -> {
+                for (int i = 0; i < frames; i++) {
+                    out[i] = rnd.nextBipolar() * a;
+                }
             }
-            default -> out = white;
         }
+    }
 
-        return out * amp;
+    private double brown(double white) {
+        // Integrate and clamp.
+        brown += white * 0.02;
+        brown = clamp(brown, -1.0, 1.0);
+        return brown;
+    }
+
+    private double pink(double white) {
+        // Cheap-ish IIR approximation.
+        p0 = (0.99765 * p0) + (white * 0.0990460);
+        p1 = (0.96300 * p1) + (white * 0.2965164);
+        p2 = (0.57000 * p2) + (white * 1.0526913);
+        return (p0 + p1 + p2 + (white * 0.1848)) * 0.05;
+    }
+
+    private double blue(double white) {
+        double out = white - lastWhite;
+        lastWhite = white;
+        return out;
     }
 
     private static double clamp(double v, double lo, double hi) {
@@ -1,10 +1,12 @@
 package com.smoky.bassshakertelemetry.audio.dsp.nodes;
 
+import com.smoky.bassshakertelemetry.audio.dsp.DspBlock;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
-import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
 
+import java.util.Arrays;
+
 /**
  * Randomizer / sample-and-hold LFO.
  *
@@ -13,27 +15,58 @@ import com.smoky.bassshakertelemetry.audio.dsp.DspNode;
  * - depth
  */
 public final class RandomizerNode implements DspNode {
-    private final DspGraph.NodeDef def;
+    private final double depth;
+    private final int period;
     private double current;
     private int samplesUntilNext;
 
     public RandomizerNode(DspGraph.NodeDef def) {
-        this.def = def;
+        double rateHz = def.paramDouble("rateHz", 10.0);
+        this.depth = def.paramDouble("depth", 1.0);
+        this.period = (rateHz <= 0.0) ? Integer.MAX_VALUE : Math.max(1, (int) Math.round(DspContext.SAMPLE_RATE / rateHz));
         this.current = 0.0;
         this.samplesUntilNext = 0;
     }
 
     @Override
-    public double next(DspContext ctx, DspGraphInstance g) {
-        double rateHz = g.paramDouble(def, "rateHz", 10.0);
-        double depth = g.paramDouble(def, "depth", 1.0);
-        int period = (rateHz <= 0.0) ? Integer.MAX_VALUE : Math.max(1, (int) Math.round(DspContext.SAMPLE_RATE / rateHz));
+    public void reset() {
+        current = 0.0;
+        samplesUntilNext = 0;
+    }
 
+    @Override
+    public boolean deterministic() {
+        return false;
+    }
+
+    @Override
+    public double cost() {
+        return 0.3;
+    }
+
+    @Override
+    public double next(DspContext ctx, double[] values) {
         if (samplesUntilNext <= 0) {
-            current = ((ctx.random.nextDouble() * 2.0) - 1.0) * depth;
+            current = ctx.random.nextBipolar() * depth;
             samplesUntilNext = period;
         }
         samplesUntilNext--;
         return current;
     }
+
+    @Override
+    public void process(DspContext ctx, DspBlock block, double[] out, int frames) {
+        int i = 0;
+        while (i < frames) {
+            if (samplesUntilNext <= 0) {
+                current = ctx.random.nextBipolar() * depth;
+                samplesUntilNext = period;
+            }
+            // Hold the current value for the rest of its period (or the block).
+            int run = Math.min(frames - i, samplesUntilNext);
+            Arrays.fill(out, i, i + run, current);
+            samplesUntilNext -= run;
+            i += run;
+        }
+    }
 }
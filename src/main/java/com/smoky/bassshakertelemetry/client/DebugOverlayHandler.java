@@ -1,5 +1,7 @@
 package com.smoky.bassshakertelemetry.client;
 
+import com.smoky.bassshakertelemetry.audio.AudioOutputEngine;
+import com.smoky.bassshakertelemetry.audio.EngineStats;
 import com.smoky.bassshakertelemetry.client.integration.WebSocketTelemetryController;
 import com.smoky.bassshakertelemetry.config.BstConfig;
 import net.minecraft.client.Minecraft;
@@ -45,5 +47,10 @@ public final class DebugOverlayHandler {
         if (ws != null && !ws.isBlank()) {
             event.getGuiGraphics().drawString(font, ws, x, y + 40, 0x66CCFF);
         }
+
+        EngineStats stats = AudioOutputEngine.get().getEngineStats();
+        if (stats.updatedNanos != 0L) {
+            event.getGuiGraphics().drawString(font, stats.overlayLine(), x, y + 50, 0xAAAAAA);
+        }
     }
 }
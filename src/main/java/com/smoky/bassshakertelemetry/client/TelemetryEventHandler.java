@@ -14,6 +14,16 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public final class TelemetryEventHandler {
     private double lastSpeed = 0.0;
+
+    // Render-frame samples: speed is interpolated between the last two ticks, like entity rendering.
+    private static final long MIN_FRAME_SAMPLE_NS = 4_000_000L;
+    private double prevTickSpeed = 0.0;
+    private boolean tickLive;
+    private boolean tickElytra;
+    private boolean tickOnGround;
+    private boolean tickInWater;
+    private boolean tickSwimming;
+    private long lastFrameSampleNanos = 0L;
     private ResourceKey<Biome> lastBiome = null;
 
     private float lastYawDeg = Float.NaN;
@@ -29,6 +39,7 @@ public final class TelemetryEventHandler {
         }
 
         BstConfig.Data cfg = BstConfig.get();
+        tickLive = false;
         if (!cfg.enabled()) {
             AudioOutputEngine.get().setTelemetryLive(false);
             return;
@@ -51,6 +62,7 @@ public final class TelemetryEventHandler {
 
         double speed = player.getDeltaMovement().length();
         double accel = speed - lastSpeed;
+        prevTickSpeed = lastSpeed;
         lastSpeed = speed;
 
         boolean elytra = player.isFallFlying();
@@ -101,11 +113,37 @@ public final class TelemetryEventHandler {
 
         AudioOutputEngine.get().updateTelemetry(speed, accel, elytra, onGround, inWater, swimming);
 
+        tickElytra = elytra;
+        tickOnGround = onGround;
+        tickInWater = inWater;
+        tickSwimming = swimming;
+        tickLive = true;
+
         if (cfg.webSocketEnabled && cfg.webSocketSendTelemetry) {
             TelemetryOut.emitTelemetry(speed, accel, elytra);
         }
     }
 
+    @SubscribeEvent
+    public void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase != TickEvent.Phase.START || !tickLive) {
+            return;
+        }
+        if (!BstConfig.get().telemetryFrameRateEnabled || Minecraft.getInstance().isPaused()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if ((now - lastFrameSampleNanos) < MIN_FRAME_SAMPLE_NS) {
+            return;
+        }
+        lastFrameSampleNanos = now;
+
+        double t = clamp(event.renderTickTime, 0.0, 1.0);
+        double speed = prevTickSpeed + ((lastSpeed - prevTickSpeed) * t);
+        AudioOutputEngine.get().publishTelemetrySample(speed, tickElytra, tickOnGround, tickInWater, tickSwimming);
+    }
+
     private void maybeTriggerFlightWind(Player player, double speed, float yawDeltaDeg, double movementAirGain) {
         // Simple rate limit so we don't spawn an unbounded number of voices.
         long now = System.nanoTime();
@@ -373,7 +373,8 @@ public final class VibrationIngress {
         }
     }
 
-    private static void addSuppression(String bucket, int priority, long nowNanos, int windowMs, double x, double y, double z, double radiusBlocks) {
+    // Package-private for the jmh benchmarks.
+    static void addSuppression(String bucket, int priority, long nowNanos, int windowMs, double x, double y, double z, double radiusBlocks) {
         long until = nowNanos + (Math.max(10, windowMs) * 1_000_000L);
         synchronized (suppressLock) {
             // Bound memory and keep most-recent items.
@@ -217,7 +217,8 @@ public final class SimpleWebSocketServer {
         return Base64.getEncoder().encodeToString(hash);
     }
 
-    private static byte[] encodeTextFrame(byte[] payload) {
+    // Package-private for the jmh benchmarks.
+    static byte[] encodeTextFrame(byte[] payload) {
         int len = payload.length;
         ByteArrayOutputStream out = new ByteArrayOutputStream(len + 14);
 
@@ -1,5 +1,7 @@
 package com.smoky.bassshakertelemetry.client.integration;
 
+import com.smoky.bassshakertelemetry.audio.AudioOutputEngine;
+import com.smoky.bassshakertelemetry.audio.EngineStats;
 import com.smoky.bassshakertelemetry.config.BstConfig;
 import com.smoky.bassshakertelemetry.telemetryout.TelemetryOut;
 import com.smoky.bassshakertelemetry.telemetryout.TelemetryOutSink;
@@ -9,7 +11,8 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 /**
  * Client-side controller for the built-in WebSocket telemetry server.
  *
- * <p>Runs a simple poll on client tick to start/stop/restart the server based on config.
+ * <p>Runs a simple poll on client tick to start/stop/restart the server based on config. Also sends the audio
+ * engine's {@code engine_stats} snapshots, so formatting and broadcasting stay off the render thread.
  */
 public final class WebSocketTelemetryController {
     private static volatile boolean lastEnabled;
@@ -20,6 +23,8 @@ public final class WebSocketTelemetryController {
 
     private volatile SimpleWebSocketServer server;
     private volatile int runningPort = -1;
+    // updatedNanos of the last engine_stats snapshot sent (client thread only).
+    private long lastEngineStatsNanos;
 
     private final TelemetryOutSink sink = message -> {
         SimpleWebSocketServer s = server;
@@ -83,6 +88,30 @@ public final class WebSocketTelemetryController {
         SimpleWebSocketServer s = server;
         lastRunning = (s != null && s.isRunning());
         lastClientCount = (s == null) ? 0 : s.clientCount();
+
+        if (cfg.webSocketSendEngineStats) {
+            emitEngineStatsIfNew();
+        }
+    }
+
+    private void emitEngineStatsIfNew() {
+        EngineStats stats = AudioOutputEngine.get().getEngineStats();
+        if (stats == null || stats.updatedNanos == 0L || stats.updatedNanos == lastEngineStatsNanos) {
+            return;
+        }
+        lastEngineStatsNanos = stats.updatedNanos;
+        TelemetryOut.emitEngineStats(
+                stats.chunkMs,
+                stats.render.count,
+                stats.render.p50Us(), stats.render.p99Us(), stats.render.maxUs(),
+                stats.write.p50Us(), stats.write.p99Us(), stats.write.maxUs(),
+                stats.jitter.p50Us(), stats.jitter.p99Us(), stats.jitter.maxUs(),
+                stats.ringUnderrunsDelta,
+                stats.deviceUnderrunsDelta,
+                stats.clipHitsDelta,
+                stats.clipMissesDelta,
+                stats.clipBytes,
+                stats.clipCount);
     }
 
     public static String getOverlayStatusLine() {
@@ -3,6 +3,7 @@ package com.smoky.bassshakertelemetry.client.ui;
 import com.smoky.bassshakertelemetry.audio.AudioOutputEngine;
 import com.smoky.bassshakertelemetry.audio.dsp.DspContext;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
+import com.smoky.bassshakertelemetry.audio.dsp.DspGraphAnalysis;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraphInstance;
 import com.smoky.bassshakertelemetry.audio.dsp.DspNodeFactory;
 import com.smoky.bassshakertelemetry.client.ui.neon.NeonButton;
@@ -67,6 +68,9 @@ public final class HapticInstrumentEditorScreen extends Screen {
     private int dragOffX;
     private int dragOffY;
 
+    // Compiler report for the graph being edited (refreshed with the preview values).
+    private DspGraphAnalysis analysis;
+
     private int canvasX0;
     private int canvasY0;
     private int canvasX1;
@@ -594,6 +598,7 @@ public final class HapticInstrumentEditorScreen extends Screen {
     }
 
     private Map<String, Double> computeDebugPreviewValues() {
+        analysis = null;
         if (nodes.isEmpty()) {
             return Map.of();
         }
@@ -613,6 +618,7 @@ public final class HapticInstrumentEditorScreen extends Screen {
             }
 
             DspGraphInstance gi = graph.instantiate(DSP_FACTORY);
+            analysis = gi.analysis();
             DspContext ctx = new DspContext(1337L, f, f, samples);
             ctx.sampleIndex = Math.max(0, samples / 2);
 
@@ -643,6 +649,34 @@ public final class HapticInstrumentEditorScreen extends Screen {
             y,
             NeonStyle.get().textDim
         );
+
+        drawAnalysis(g);
+    }
+
+    // Estimated cost plus anything the graph compiler had to repair, top-right in the canvas.
+    private void drawAnalysis(GuiGraphics g) {
+        DspGraphAnalysis a = analysis;
+        if (a == null) {
+            return;
+        }
+        var font = Objects.requireNonNull(this.font, "font");
+        var style = NeonStyle.get();
+        int y = canvasY0 + 4;
+
+        String summary = Objects.requireNonNull(a.summary(), "summary");
+        g.drawString(font, summary, canvasX1 - 6 - font.width(summary), y, style.textDim);
+        y += 10;
+
+        List<String> problems = a.problems();
+        for (int i = 0; i < problems.size() && i < 4; i++) {
+            String line = Objects.requireNonNull(problems.get(i), "line");
+            g.drawString(font, line, canvasX1 - 6 - font.width(line), y, style.danger);
+            y += 10;
+        }
+        if (problems.size() > 4) {
+            String more = "+" + (problems.size() - 4) + " more";
+            g.drawString(font, more, canvasX1 - 6 - font.width(more), y, style.danger);
+        }
     }
 
     private static int withAlpha(int argb, int alpha) {
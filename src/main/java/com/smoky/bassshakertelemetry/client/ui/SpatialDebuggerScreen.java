@@ -1,6 +1,7 @@
 package com.smoky.bassshakertelemetry.client.ui;
 
 import com.smoky.bassshakertelemetry.audio.AudioOutputEngine;
+import com.smoky.bassshakertelemetry.audio.EngineStats;
 import com.smoky.bassshakertelemetry.client.VibrationIngress;
 import com.smoky.bassshakertelemetry.client.ui.neon.NeonButton;
 import com.smoky.bassshakertelemetry.client.ui.neon.NeonStyle;
@@ -30,6 +31,7 @@ public final class SpatialDebuggerScreen extends Screen {
         NeonStyle.initClient();
 
         AudioOutputEngine.setDebugCaptureEnabled(true);
+        AudioOutputEngine.setDebugEventCaptureEnabled(true);
 
         int centerX = this.width / 2;
         int contentWidth = Math.min(310, this.width - 40);
@@ -47,6 +49,7 @@ public final class SpatialDebuggerScreen extends Screen {
 
     private void onDone() {
         AudioOutputEngine.setDebugCaptureEnabled(false);
+        AudioOutputEngine.setDebugEventCaptureEnabled(false);
         if (this.minecraft != null) {
             this.minecraft.setScreen(parent);
         }
@@ -126,6 +129,52 @@ public final class SpatialDebuggerScreen extends Screen {
                 snap.deviceBufferBytes,
                 snap.deviceAvailableBytes);
         guiGraphics.drawString(font, lat, x, y, 0x66CCFF);
+        y += 10;
+
+        AudioOutputEngine engine = AudioOutputEngine.get();
+        String queue = String.format(Locale.ROOT,
+                "Voice queue: depth=%d peak=%d dropped=%d",
+                engine.getVoiceQueueDepth(),
+                engine.getVoiceQueueHighWater(),
+                engine.getVoiceQueueDropped());
+        guiGraphics.drawString(font, queue, x, y, 0x66CCFF);
+        y += 10;
+
+        String pool = String.format(Locale.ROOT,
+                "Voices: active=%d/%d stolen=%d rejected=%d",
+                engine.getActiveVoiceCount(),
+                BstConfig.get().impulseVoiceLimit,
+                engine.getVoicesStolen(),
+                engine.getVoicesRejected());
+        guiGraphics.drawString(font, pool, x, y, 0x66CCFF);
+        y += 10;
+
+        String ring = String.format(Locale.ROOT,
+                "PCM ring: fill=%d/%d underruns: ring=%d device=%d",
+                engine.getPcmRingFill(),
+                engine.getRenderAheadBlocks(),
+                engine.getPcmRingUnderruns(),
+                engine.getDeviceUnderruns());
+        guiGraphics.drawString(font, ring, x, y, 0x66CCFF);
+        y += 10;
+
+        String latency = String.format(Locale.ROOT,
+                "Latency: target=%.0fms chunk=%.0fms ahead=%d adjustments=%d trigger=%.1fms",
+                engine.getLatencyTargetMs(),
+                engine.getChunkMs(),
+                engine.getRenderAheadBlocks(),
+                engine.getLatencyAdjustments(),
+                engine.getTriggerLatencyMs());
+        guiGraphics.drawString(font, latency, x, y, 0x66CCFF);
+        y += 10;
+
+        EngineStats stats = engine.getEngineStats();
+        String timing = (stats.updatedNanos == 0L) ? "Timing: (collecting)" : ("Timing: " + stats.overlayLine());
+        guiGraphics.drawString(font, timing, x, y, (stats.renderLoad() > 0.5) ? 0xFFCC66 : 0x66CCFF);
+        y += 10;
+        if (stats.updatedNanos != 0L) {
+            guiGraphics.drawString(font, "Instruments: " + stats.clipCacheLine(), x, y, 0x66CCFF);
+        }
         y += 14;
 
         // Per-channel meters
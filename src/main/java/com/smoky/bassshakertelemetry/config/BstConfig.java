@@ -14,12 +14,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class BstConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String FILE_NAME = BassShakerTelemetryMod.MODID + ".json";
     private static volatile Data INSTANCE = new Data();
 
+    // Bumped after every load/set/save. Hot paths (audio thread) cache derived state per revision.
+    private static final AtomicLong REVISION = new AtomicLong(1);
+
     private BstConfig() {
     }
 
@@ -27,8 +31,17 @@ public final class BstConfig {
         return INSTANCE;
     }
 
+    /**
+     * Monotonic config revision. Read it <em>before</em> {@link #get()} so a derived cache is never tagged
+     * newer than the data it was built from.
+     */
+    public static long revision() {
+        return REVISION.get();
+    }
+
     public static synchronized void set(Data data) {
         INSTANCE = data;
+        REVISION.incrementAndGet();
         save();
     }
 
@@ -48,6 +61,7 @@ public final class BstConfig {
             Data parsed = GSON.fromJson(json, Data.class);
             if (parsed != null) {
                 INSTANCE = sanitize(parsed);
+                REVISION.incrementAndGet();
             }
         } catch (Exception ignored) {
             // If config is corrupt, keep defaults.
@@ -59,6 +73,7 @@ public final class BstConfig {
         try {
             Files.createDirectories(path.getParent());
             INSTANCE = sanitize(INSTANCE);
+            REVISION.incrementAndGet();
             String json = GSON.toJson(INSTANCE);
             Files.writeString(path, json, StandardCharsets.UTF_8);
         } catch (IOException ignored) {
@@ -200,6 +215,33 @@ public final class BstConfig {
             d.soundScapeChannels = 8;
         }
 
+        // --- Audio engine ---
+        if (d.impulseVoiceLimit <= 0) {
+            d.impulseVoiceLimit = 24;
+        }
+        d.impulseVoiceLimit = clampInt(d.impulseVoiceLimit, 4, 64);
+        if (d.audioRenderAheadBlocks <= 0) {
+            d.audioRenderAheadBlocks = 2;
+        }
+        d.audioRenderAheadBlocks = clampInt(d.audioRenderAheadBlocks, 1, 8);
+        if (d.adaptiveLatencyMinMs <= 0) {
+            d.adaptiveLatencyMinMs = 15;
+        }
+        if (d.adaptiveLatencyMaxMs <= 0) {
+            d.adaptiveLatencyMaxMs = 120;
+        }
+        d.adaptiveLatencyMinMs = clampInt(d.adaptiveLatencyMinMs, 5, 200);
+        d.adaptiveLatencyMaxMs = clampInt(d.adaptiveLatencyMaxMs, d.adaptiveLatencyMinMs, 500);
+        d.triggerLatencyMs = clampInt(d.triggerLatencyMs, 0, 250);
+        if (d.audioBackend == null || d.audioBackend.isBlank()) {
+            d.audioBackend = "javasound";
+        }
+        d.audioBackend = d.audioBackend.trim().toLowerCase(java.util.Locale.ROOT);
+        if (d.audioBackendFile == null) {
+            d.audioBackendFile = "";
+        }
+        d.audioBackendFile = d.audioBackendFile.trim();
+
         // --- External telemetry output (WebSocket) ---
         if (d.webSocketPort <= 0 || d.webSocketPort > 65535) {
             d.webSocketPort = 7117;
@@ -346,6 +388,8 @@ public final class BstConfig {
 
         // Simulated movement texture (low-frequency rumble layer)
         public boolean roadTextureEnabled = true;
+        // Also send movement samples every render frame (smoother speed ramps than the 20 Hz tick alone)
+        public boolean telemetryFrameRateEnabled = true;
 
         // Sound-to-haptics (treat common game sounds as rumble events)
         public boolean soundHapticsEnabled = true;
@@ -389,10 +433,26 @@ public final class BstConfig {
         public double outputHeadroom = 0.85;
         // Soft-limiter drive. Higher = more saturation and less peak clipping.
         public double limiterDrive = 2.5;
-
-        // Audio backend selection (Phase 1 foundation). Currently: "javasound".
-        // Other ids are reserved for future backends.
+        // Max simultaneous impulse voices (4..64). When full, the lowest-priority / quietest voice is stolen,
+        // and events weaker than every active voice are dropped.
+        public int impulseVoiceLimit = 24;
+        // Rendered 10ms blocks queued ahead of the device writer (1..8). More absorbs GC/tick hiccups but adds latency.
+        public int audioRenderAheadBlocks = 2;
+        // Adaptive latency: tune chunk size / render-ahead / device queue at runtime from underruns.
+        // Bounds are the total queued audio (ring + device) in ms.
+        public boolean adaptiveLatencyEnabled = true;
+        public int adaptiveLatencyMinMs = 15;
+        public int adaptiveLatencyMaxMs = 120;
+        // Place each trigger at (ingress time + a constant latency) with sample precision instead of at the
+        // next 10ms block edge. triggerLatencyMs: 0 = auto (tracks the current output queue), else fixed.
+        public boolean sampleAccurateTriggersEnabled = true;
+        public int triggerLatencyMs = 0;
+
+        // Audio backend selection: "javasound" (sound card), "null" (discard, real-time paced),
+        // "wav" (capture to a WAV file) or "mmap" (raw PCM ring in a memory-mapped file).
         public String audioBackend = "javasound";
+        // Output file for "wav"/"mmap"; blank = default name in the config dir. Relative paths resolve there too.
+        public String audioBackendFile = "";
 
         // Output tone shaping (simple single-band EQ)
         public boolean outputEqEnabled = false;
@@ -410,6 +470,8 @@ public final class BstConfig {
         public boolean webSocketSendTelemetry = true;
         public boolean webSocketSendHapticEvents = true;
         public boolean webSocketSendUnifiedEvents = true;
+        // Once-per-second render/write/jitter percentiles ("engine_stats"); off by default.
+        public boolean webSocketSendEngineStats = false;
 
         public int damageBurstMs = 90;
         public double damageBurstGain = 1.0;
@@ -6,7 +6,10 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.smoky.bassshakertelemetry.audio.dsp.DspGraph;
+import com.smoky.bassshakertelemetry.audio.dsp.DspInstancePool;
 import net.minecraftforge.fml.loading.FMLPaths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -23,6 +26,7 @@ import java.util.Map;
  * from vibration profiles via {@code "instrument": "impact_heavy"}.
  */
 public final class BstHapticInstruments {
+    private static final Logger LOGGER = LogManager.getLogger("bassshakertelemetry");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String FILE_NAME = "bassshakertelemetry_haptic_instruments.json";
 
@@ -43,7 +47,7 @@ public final class BstHapticInstruments {
         Path p = path();
         if (!Files.exists(p)) {
             saveDefaults(p);
-            INSTANCE = Store.defaults();
+            install(Store.defaults());
             return;
         }
 
@@ -51,14 +55,14 @@ public final class BstHapticInstruments {
             String json = Files.readString(p, StandardCharsets.UTF_8);
             JsonObject root = GSON.fromJson(json, JsonObject.class);
             if (root == null) {
-                INSTANCE = Store.defaults();
+                install(Store.defaults());
                 return;
             }
 
             Store store = Store.fromJson(root);
-            INSTANCE = (store != null) ? store : Store.defaults();
+            install((store != null) ? store : Store.defaults());
         } catch (Exception ignored) {
-            INSTANCE = Store.defaults();
+            install(Store.defaults());
         }
     }
 
@@ -71,7 +75,7 @@ public final class BstHapticInstruments {
         if (store == null) {
             return;
         }
-        INSTANCE = store;
+        install(store);
     }
 
     /**
@@ -109,11 +113,38 @@ public final class BstHapticInstruments {
         try {
             Files.createDirectories(p.getParent());
             Files.writeString(p, store.toJson().toString(), StandardCharsets.UTF_8);
-            INSTANCE = store;
+            install(store);
         } catch (Exception ignored) {
         }
     }
 
+    // Swaps the live store. Instruments that were replaced retire their instance pools (voices still playing
+    // them finish, their instances are then dropped); the new store's pools are prewarmed here, off the
+    // trigger path. Graph problems the compiler repaired are logged once per new instrument.
+    private static void install(Store store) {
+        Store old = INSTANCE;
+        INSTANCE = store;
+        if (old != null && old != store) {
+            for (Map.Entry<String, Instrument> e : old.all().entrySet()) {
+                Instrument inst = e.getValue();
+                if (store.get(e.getKey()) != inst && inst.pool != null) {
+                    inst.pool.retire();
+                }
+            }
+        }
+        for (Instrument inst : store.all().values()) {
+            if (inst.pool != null) {
+                inst.pool.prewarm(DspInstancePool.PREWARM);
+                if (old == null || old == store || old.get(inst.id) != inst) {
+                    List<String> problems = inst.pool.analysis().problems();
+                    if (!problems.isEmpty()) {
+                        LOGGER.warn("[BST] Haptic instrument '{}': {}", inst.id, String.join("; ", problems));
+                    }
+                }
+            }
+        }
+    }
+
     private static void saveDefaults(Path p) {
         try {
             Files.createDirectories(p.getParent());
@@ -126,11 +157,14 @@ public final class BstHapticInstruments {
         public final String id;
         public final DspGraph graph;
         public final Defaults defaults;
+        // Reusable runtime instances of graph, so triggers don't rebuild it (null without a graph).
+        public final DspInstancePool pool;
 
         public Instrument(String id, DspGraph graph, Defaults defaults) {
             this.id = id;
             this.graph = graph;
             this.defaults = (defaults == null) ? new Defaults() : defaults;
+            this.pool = (graph == null) ? null : new DspInstancePool(graph);
         }
     }
 
@@ -70,17 +70,26 @@ public final class BstVibrationProfiles {
         public final Global global;
         public final Encoding encoding;
         private final Map<String, Profile> profiles;
+        private final Map<String, EnvelopeCurve> envelopes;
 
-        private Store(Global global, Encoding encoding, Map<String, Profile> profiles) {
+        private Store(Global global, Encoding encoding, Map<String, Profile> profiles, Map<String, EnvelopeCurve> envelopes) {
             this.global = global;
             this.encoding = encoding;
             this.profiles = profiles;
+            this.envelopes = envelopes;
         }
 
         public Profile getProfile(String key) {
             return profiles.get(key);
         }
 
+        /**
+         * Custom envelope curves keyed by pattern name (usable as a profile's {@code pattern}).
+         */
+        public Map<String, EnvelopeCurve> envelopes() {
+            return java.util.Collections.unmodifiableMap(envelopes);
+        }
+
         public Resolved resolve(String key, double scale01, double distanceScale01) {
             Profile p = profiles.get(key);
             if (p == null) {
@@ -120,6 +129,20 @@ public final class BstVibrationProfiles {
                 encoding = Encoding.defaults();
             }
 
+            Map<String, EnvelopeCurve> envelopes = new HashMap<>();
+            JsonElement envEl = root.get("envelopes");
+            if (envEl != null && envEl.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> e : envEl.getAsJsonObject().entrySet()) {
+                    if (e.getValue() == null || !e.getValue().isJsonObject()) {
+                        continue;
+                    }
+                    EnvelopeCurve c = EnvelopeCurve.fromJson(e.getValue().getAsJsonObject());
+                    if (c != null) {
+                        envelopes.put(e.getKey(), c);
+                    }
+                }
+            }
+
             Map<String, Profile> map = new HashMap<>();
             for (Map.Entry<String, JsonElement> e : root.entrySet()) {
                 if ("global".equals(e.getKey())) {
@@ -128,6 +151,9 @@ public final class BstVibrationProfiles {
                 if ("encoding".equals(e.getKey())) {
                     continue;
                 }
+                if ("envelopes".equals(e.getKey())) {
+                    continue;
+                }
                 flatten(map, e.getKey(), e.getValue());
             }
 
@@ -136,7 +162,7 @@ public final class BstVibrationProfiles {
                 map.putIfAbsent(d.getKey(), d.getValue());
             }
 
-            return new Store(global, encoding, map);
+            return new Store(global, encoding, map, envelopes);
         }
 
         private static void flatten(Map<String, Profile> out, String prefix, JsonElement el) {
@@ -216,7 +242,7 @@ public final class BstVibrationProfiles {
             map.put("boss.wither_spawn", new Profile(24.0, 1.00, 1500, 0.70, "fade_out", "log_distance", 160, 60, true, 10, false, false));
             map.put("boss.warden_heartbeat", new Profile(30.0, 0.22, 160, 0.50, "soft_single", "none", 160, 60, true, 2, false, false));
 
-            return new Store(new Global(), Encoding.defaults(), map);
+            return new Store(new Global(), Encoding.defaults(), map, new HashMap<>());
         }
 
         public static String defaultsJson() {
@@ -482,6 +508,44 @@ public final class BstVibrationProfiles {
         }
     }
 
+    /**
+     * Custom impulse envelope: evenly spaced amplitude points (0..1) from event start to end, plus the
+     * click-free attack/release ramps applied on top.
+     */
+    public static final class EnvelopeCurve {
+        public double[] points;
+        public int attackMs = 10;
+        public int releaseMs = 15;
+
+        public static EnvelopeCurve fromJson(JsonObject obj) {
+            try {
+                if (obj == null || !obj.has("points") || !obj.get("points").isJsonArray()) {
+                    return null;
+                }
+                com.google.gson.JsonArray arr = obj.getAsJsonArray("points");
+                if (arr.size() < 2) {
+                    return null;
+                }
+                EnvelopeCurve c = new EnvelopeCurve();
+                c.points = new double[arr.size()];
+                for (int i = 0; i < arr.size(); i++) {
+                    c.points[i] = clamp(arr.get(i).getAsDouble(), 0.0, 1.0);
+                }
+                if (obj.has("attackMs")) c.attackMs = Math.max(0, obj.get("attackMs").getAsInt());
+                if (obj.has("releaseMs")) c.releaseMs = Math.max(0, obj.get("releaseMs").getAsInt());
+                return c;
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+
+        private static double clamp(double v, double lo, double hi) {
+            if (v < lo) return lo;
+            if (v > hi) return hi;
+            return v;
+        }
+    }
+
     public static final class Profile {
         // Backward compatible: accept either "frequency" or "baseFrequency".
         public double frequency;
@@ -68,6 +68,40 @@ public final class TelemetryOut {
         emitRawJson(msg);
     }
 
+    /**
+     * Emits audio engine timing for the last stats window (microseconds), the xruns that occurred in it, and the
+     * instrument clip cache lookups in it plus its current size.
+     */
+    public static void emitEngineStats(double chunkMs, long blocks,
+                                       double renderP50Us, double renderP99Us, double renderMaxUs,
+                                       double writeP50Us, double writeP99Us, double writeMaxUs,
+                                       double jitterP50Us, double jitterP99Us, double jitterMaxUs,
+                                       long ringUnderruns, long deviceUnderruns,
+                                       long clipHits, long clipMisses, long clipBytes, int clipCount) {
+        long t = System.currentTimeMillis();
+        String msg = String.format(Locale.ROOT,
+                "{\"type\":\"engine_stats\",\"t\":%d,\"chunkMs\":%.2f,\"blocks\":%d,"
+                        + "\"renderUs\":{\"p50\":%.1f,\"p99\":%.1f,\"max\":%.1f},"
+                        + "\"writeUs\":{\"p50\":%.1f,\"p99\":%.1f,\"max\":%.1f},"
+                        + "\"jitterUs\":{\"p50\":%.1f,\"p99\":%.1f,\"max\":%.1f},"
+                        + "\"xruns\":{\"ring\":%d,\"device\":%d},"
+                        + "\"clipCache\":{\"hits\":%d,\"misses\":%d,\"bytes\":%d,\"clips\":%d}}",
+                t,
+                chunkMs,
+                Math.max(0L, blocks),
+                renderP50Us, renderP99Us, renderMaxUs,
+                writeP50Us, writeP99Us, writeMaxUs,
+                jitterP50Us, jitterP99Us, jitterMaxUs,
+                Math.max(0L, ringUnderruns),
+                Math.max(0L, deviceUnderruns),
+                Math.max(0L, clipHits),
+                Math.max(0L, clipMisses),
+                Math.max(0L, clipBytes),
+                Math.max(0, clipCount)
+        );
+        emitRawJson(msg);
+    }
+
     /**
      * Emits a high-level middleware-style event.
      *
@@ -0,0 +1,97 @@
+package com.smoky.bassshakertelemetry.audio;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD {@link MixKernels} on the incubating Vector API (compiled with {@code --add-modules jdk.incubator.vector};
+ * loaded reflectively by {@link MixKernels.Loader}, never referenced directly from the main source set).
+ *
+ * <p>An 8-channel frame is exactly one 256-bit float vector, so mixing and the limiter work a frame at a time
+ * across channels; stereo mixing and the int16 conversion stay scalar. Same operation order as
+ * {@link MixKernels#SCALAR}; only the vector {@code tanh} may differ from {@link Math#tanh} in the last ulp,
+ * which stays within 1 LSB after int16 conversion (verified by {@code MixKernelsCheck}).
+ */
+final class VectorMixKernels implements MixKernels {
+    private static final VectorSpecies<Float> F8 = FloatVector.SPECIES_256;
+    private static final VectorSpecies<Float> F4 = FloatVector.SPECIES_128;
+    private static final VectorSpecies<Double> D4 = DoubleVector.SPECIES_256;
+
+    // Stereo limiter: one double vector holds two frames, so each gate value fills two lanes.
+    private static final int[] STEREO_GATE_MAP = {0, 0, 1, 1};
+
+    VectorMixKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "vector/" + D4.vectorBitSize() + "bit";
+    }
+
+    @Override
+    public void mixChannels(float[] src, float[] dst, float[] gains, int start, int count, int channels) {
+        if (channels != 8) {
+            MixKernels.SCALAR.mixChannels(src, dst, gains, start, count, channels);
+            return;
+        }
+        FloatVector g = FloatVector.fromArray(F8, gains, 0);
+        if (g.eq(0.0f).allTrue()) {
+            return;
+        }
+        int end = start + count;
+        for (int i = start, o = start * 8; i < end; i++, o += 8) {
+            FloatVector.fromArray(F8, dst, o).add(g.mul(src[i])).intoArray(dst, o);
+        }
+    }
+
+    @Override
+    public void limit(double[] pre, float[] gate, float[] dst, int frames, int channels, double drive, double invNorm) {
+        if (channels == 8) {
+            for (int i = 0, o = 0; i < frames; i++, o += 8) {
+                DoubleVector g = DoubleVector.broadcast(D4, gate[i]);
+                limit4(pre, dst, o, drive, invNorm, g);
+                limit4(pre, dst, o + 4, drive, invNorm, g);
+            }
+            return;
+        }
+        int i = 0;
+        int o = 0;
+        if (channels == 2) {
+            for (; i + 1 < frames; i += 2, o += 4) {
+                DoubleVector g = (DoubleVector) FloatVector.fromArray(F4, gate, i, STEREO_GATE_MAP, 0)
+                        .convertShape(VectorOperators.F2D, D4, 0);
+                limit4(pre, dst, o, drive, invNorm, g);
+            }
+        }
+        // Tail (odd stereo frame, other layouts).
+        for (; i < frames; i++) {
+            float g = gate[i];
+            for (int c = 0; c < channels; c++, o++) {
+                double sample = Math.tanh(pre[o] * drive) * invNorm;
+                if (sample < -1.0) sample = -1.0;
+                if (sample > 1.0) sample = 1.0;
+                dst[o] = (float) (sample * g);
+            }
+        }
+    }
+
+    private static void limit4(double[] pre, float[] dst, int o, double drive, double invNorm, DoubleVector gate) {
+        DoubleVector s = DoubleVector.fromArray(D4, pre, o)
+                .mul(drive)
+                .lanewise(VectorOperators.TANH)
+                .mul(invNorm)
+                .max(-1.0)
+                .min(1.0)
+                .mul(gate);
+        ((FloatVector) s.convertShape(VectorOperators.D2F, F4, 0)).intoArray(dst, o);
+    }
+
+    @Override
+    public void toPcm16(float[] src, byte[] pcm, int samples) {
+        // C2 already auto-vectorizes the scalar loop; the Vector API's narrowing conversions measured several
+        // times slower on JDK 17, and its byte[] stores were removed in later JDKs.
+        MixKernels.SCALAR.toPcm16(src, pcm, samples);
+    }
+}